@@ -0,0 +1,75 @@
+package com.practices.loggingbenchmarks.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.aspect.LogContextAspect;
+import com.practices.loggingcore.aspect.LogContextRegistry;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+/**
+ * Measures the per-call cost of an advised {@code @LogContext} method end to end, through a
+ * Spring AOP proxy, for each SpEL compiler mode, with eager and deferred evaluation. The advised
+ * method does not log, so deferred runs show the cost of a scope that is never materialized.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogContextAspectBenchmark {
+
+  @Param({"OFF", "MIXED", "IMMEDIATE"})
+  public SpelCompilerMode compilerMode;
+
+  @Param({"false", "true"})
+  public boolean deferred;
+
+  private PaymentService plain;
+  private PaymentService advised;
+  private SpelEvaluationBenchmark.User user;
+
+  @Setup
+  public void setUp() {
+    plain = new PaymentService();
+
+    AspectJProxyFactory factory = new AspectJProxyFactory(new PaymentService());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new LogContextAspect(
+        new MdcLoggingContext(), new LogContextRegistry(compilerMode), deferred));
+    advised = factory.getProxy();
+
+    user = new SpelEvaluationBenchmark.User("user-42");
+  }
+
+  @Benchmark
+  public String unadvised() {
+    return plain.pay(user, 42L);
+  }
+
+  @Benchmark
+  public String advised() {
+    return advised.pay(user, 42L);
+  }
+
+  /** The advised bean; public and non-final so it can be proxied with CGLIB. */
+  public static class PaymentService {
+    @LogContext(expressions = {"userId=#user.id", "amount=#amount"})
+    public String pay(SpelEvaluationBenchmark.User user, long amount) {
+      return user.getId();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.practices.loggingbenchmarks.aspect;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Compares the per-call cost of evaluating a {@code @LogContext} entry the way the aspect used to
+ * (split and parse on every call) with a cached parsed expression, interpreted and compiled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpelEvaluationBenchmark {
+
+  private static final String DECLARATION = "userId=#user.id";
+
+  private final SpelExpressionParser parser = new SpelExpressionParser();
+
+  private User user;
+  private Expression interpreted;
+  private Expression compiled;
+
+  @Setup
+  public void setUp() {
+    user = new User("user-42");
+    interpreted = parser.parseExpression("#user.id");
+    compiled = new SpelExpressionParser(
+        new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, getClass().getClassLoader()))
+        .parseExpression("#user.id");
+  }
+
+  @Benchmark
+  public void parsePerCall(Blackhole blackhole) {
+    int index = DECLARATION.indexOf('=');
+    String key = DECLARATION.substring(0, index).trim();
+    String source = DECLARATION.substring(index + 1).trim();
+
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.setVariable("user", user);
+    blackhole.consume(key);
+    blackhole.consume(parser.parseExpression(source).getValue(context));
+  }
+
+  @Benchmark
+  public Object cachedInterpreted() {
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.setVariable("user", user);
+    return interpreted.getValue(context);
+  }
+
+  @Benchmark
+  public Object cachedCompiled() {
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.setVariable("user", user);
+    return compiled.getValue(context);
+  }
+
+  /** A typical argument type whose property is read by the benchmarked expression. */
+  public static class User {
+    private final String id;
+
+    public User(String id) {
+      this.id = id;
+    }
+
+    public String getId() {
+      return id;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.practices.loggingbenchmarks.aspect;
+
+import com.practices.loggingbenchmarks.woven.WovenPaymentService;
+import com.practices.loggingcore.aspect.LogContextAspect;
+import com.practices.loggingcore.aspect.LogContextRegistry;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/**
+ * Compares the per-call overhead of the same {@code @LogContext} method advised through a Spring
+ * AOP proxy and woven by the AspectJ load-time weaver.
+ *
+ * <p>The forks start with the weaver agent copied to {@code target/aspectjweaver.jar} by the build,
+ * so run it from this module's directory: {@code java -jar target/benchmarks.jar WeavingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+    "-javaagent:target/aspectjweaver.jar",
+    "-Dorg.aspectj.weaver.loadtime.configuration=META-INF/aop-log-manager-benchmarks.xml"})
+public class WeavingBenchmark {
+
+  private LogContextAspectBenchmark.PaymentService proxied;
+  private WovenPaymentService woven;
+  private SpelEvaluationBenchmark.User user;
+
+  @Setup
+  public void setUp() {
+    AspectJProxyFactory factory =
+        new AspectJProxyFactory(new LogContextAspectBenchmark.PaymentService());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new LogContextAspect(new MdcLoggingContext(), new LogContextRegistry()));
+    proxied = factory.getProxy();
+
+    woven = new WovenPaymentService();
+    user = new SpelEvaluationBenchmark.User("user-42");
+
+    if (!user.getId().equals(woven.currentUserId(user))) {
+      throw new IllegalStateException("WovenPaymentService was not woven; run from the"
+          + " logging-benchmarks directory after mvn package");
+    }
+  }
+
+  @Benchmark
+  public String proxied() {
+    return proxied.pay(user, 42L);
+  }
+
+  @Benchmark
+  public String woven() {
+    return woven.pay(user, 42L);
+  }
+}
@@ -0,0 +1,90 @@
+package com.practices.loggingbenchmarks.concurrent;
+
+import com.practices.loggingcore.concurrent.LoggingContextTaskDecorator;
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextScope;
+import com.practices.loggingcore.core.LoggingContextSnapshot;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * Measures what it costs to hand the logging context over to another task, on a single thread so
+ * queueing and thread wake-up are left out. {@code handOff} captures the caller's context and
+ * restores a snapshot over a non-empty context, which is the worst case for a pooled worker;
+ * {@code copyContextMap} is the usual copy-and-set approach for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextHandOffBenchmark {
+
+  @Param({"2", "8"})
+  public int keys;
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+  private final LoggingContextTaskDecorator decorator =
+      new LoggingContextTaskDecorator(loggingContext);
+  private final Runnable task = () -> { };
+  private LoggingContextSnapshot snapshot;
+
+  @Setup
+  public void setUp() {
+    MDC.clear();
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < keys; i++) {
+      values.put("key" + i, "value" + i);
+      MDC.put("key" + i, "caller" + i);
+    }
+    snapshot = LoggingContextSnapshot.of(values);
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Benchmark
+  public LoggingContextSnapshot capture() {
+    return loggingContext.capture();
+  }
+
+  @Benchmark
+  public LoggingContextSnapshot handOff() {
+    LoggingContextSnapshot captured = loggingContext.capture();
+    try (LoggingContextScope ignored = loggingContext.restore(snapshot)) {
+      return captured;
+    }
+  }
+
+  @Benchmark
+  public void decoratedTask() {
+    decorator.decorate(task).run();
+  }
+
+  @Benchmark
+  public Map<String, String> copyContextMap() {
+    Map<String, String> captured = MDC.getCopyOfContextMap();
+    Map<String, String> previous = MDC.getCopyOfContextMap();
+    MDC.setContextMap(snapshot.asMap());
+    MDC.setContextMap(previous);
+    return captured;
+  }
+}
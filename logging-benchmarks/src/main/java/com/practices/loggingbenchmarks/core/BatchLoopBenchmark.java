@@ -0,0 +1,77 @@
+package com.practices.loggingbenchmarks.core;
+
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextFrame;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * Measures the per-item cost of a batch loop that puts a transaction id and an MSISDN in the
+ * logging context for each item: {@code setRemove} sets and removes both keys, {@code withScopes}
+ * opens a {@code with} scope per key, and {@code frame} updates the slots of one frame that stays
+ * open for the whole loop. Run with {@code -prof gc} to compare the allocation per item.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchLoopBenchmark {
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+  private final String[] txnIds = {"TXN-0001", "TXN-0002", "TXN-0003", "TXN-0004"};
+  private final String[] msisdns = {"254700000001", "254700000002", "254700000003"};
+  private LoggingContextFrame frame;
+  private int item;
+
+  @Setup
+  public void setUp() {
+    MDC.clear();
+    MDC.put("batchId", "settlement-2024-01-01");
+    frame = loggingContext.openFrame("txnId", "msisdn");
+  }
+
+  @TearDown
+  public void tearDown() {
+    frame.close();
+    MDC.clear();
+  }
+
+  @Benchmark
+  public void setRemove() {
+    int i = item++;
+    loggingContext.set("txnId", txnIds[i & 3]);
+    loggingContext.set("msisdn", msisdns[i % 3]);
+    loggingContext.remove("msisdn");
+    loggingContext.remove("txnId");
+  }
+
+  @Benchmark
+  public void withScopes() throws Exception {
+    int i = item++;
+    try (AutoCloseable txn = loggingContext.with("txnId", txnIds[i & 3]);
+         AutoCloseable msisdn = loggingContext.with("msisdn", msisdns[i % 3])) {
+      // the item would be processed here
+    }
+  }
+
+  @Benchmark
+  public void frame() {
+    int i = item++;
+    frame.set(0, txnIds[i & 3]);
+    frame.set(1, msisdns[i % 3]);
+  }
+}
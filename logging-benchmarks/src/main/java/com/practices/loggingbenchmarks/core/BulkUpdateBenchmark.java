@@ -0,0 +1,100 @@
+package com.practices.loggingbenchmarks.core;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextScope;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * Compares setting and removing N keys one by one with one bulk {@code withAll} scope, on top of
+ * a thread that already holds a request id and a trace id. The {@code ...AndLog} variants read
+ * the MDC the way a log event does once inside the scope, which is when Logback copies the map
+ * after it changed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkUpdateBenchmark {
+
+  @Param({"5", "10"})
+  public int keys;
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+  private Map<String, String> values;
+  private String[] names;
+
+  @Setup
+  public void setUp() {
+    MDC.clear();
+    MDC.put("requestId", "r-1");
+    MDC.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+    values = new HashMap<>();
+    names = new String[keys];
+    for (int i = 0; i < keys; i++) {
+      names[i] = "key" + i;
+      values.put(names[i], "value" + i);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+  }
+
+  @Benchmark
+  public void puts() {
+    putAll();
+    removeAll();
+  }
+
+  @Benchmark
+  public void withAll() {
+    loggingContext.withAll(values).close();
+  }
+
+  @Benchmark
+  public Map<String, String> putsAndLog() {
+    putAll();
+    Map<String, String> logged = ((LogbackMDCAdapter) MDC.getMDCAdapter()).getPropertyMap();
+    removeAll();
+    return logged;
+  }
+
+  @Benchmark
+  public Map<String, String> withAllAndLog() {
+    try (LoggingContextScope ignored = loggingContext.withAll(values)) {
+      return ((LogbackMDCAdapter) MDC.getMDCAdapter()).getPropertyMap();
+    }
+  }
+
+  private void putAll() {
+    for (String name : names) {
+      loggingContext.set(name, values.get(name));
+    }
+  }
+
+  private void removeAll() {
+    for (String name : names) {
+      loggingContext.remove(name);
+    }
+  }
+}
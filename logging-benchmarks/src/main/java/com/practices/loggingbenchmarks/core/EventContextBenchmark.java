@@ -0,0 +1,78 @@
+package com.practices.loggingbenchmarks.core;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import com.practices.loggingcore.core.PersistentLoggingContext;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+/**
+ * Measures what a log event pays for its context map when one key changed since the previous
+ * event, as with a loop that sets an item id and logs. The MDC builds a fresh copy of the whole
+ * map for the first event after a change; the persistent map only copies the path to the changed
+ * key and hands the event the result by reference. Run with {@code -prof gc} to compare the
+ * allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventContextBenchmark {
+
+  @Param({"4", "16"})
+  public int keys;
+
+  private final LoggingContext mdc = new MdcLoggingContext();
+  private final LoggingContext persistent = new PersistentLoggingContext();
+  private final String[] itemIds = {"item-1", "item-2"};
+  private int next;
+
+  @Setup
+  public void setUp() {
+    MDC.clear();
+    persistent.clearAll();
+    for (int i = 0; i < keys; i++) {
+      mdc.set("key" + i, "value" + i);
+      persistent.set("key" + i, "value" + i);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    MDC.clear();
+    persistent.clearAll();
+  }
+
+  @Benchmark
+  public Map<String, String> mdcSetAndLog() {
+    mdc.set("itemId", nextItemId());
+    return ((LogbackMDCAdapter) MDC.getMDCAdapter()).getPropertyMap();
+  }
+
+  @Benchmark
+  public Map<String, String> persistentSetAndLog() {
+    persistent.set("itemId", nextItemId());
+    return persistent.capture().asMap();
+  }
+
+  private String nextItemId() {
+    next ^= 1;
+    return itemIds[next];
+  }
+}
@@ -0,0 +1,81 @@
+package com.practices.loggingbenchmarks.startup;
+
+import com.practices.loggingcore.aspect.LogContextAdvisor;
+import com.practices.loggingcore.aspect.LogContextAspect;
+import com.practices.loggingcore.aspect.LogContextRegistry;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+/**
+ * Measures an application context refresh with {@code beanCount} synthetic beans of distinct
+ * classes, one in fifty of them annotated with {@code @LogContext}: without any
+ * {@code @LogContext} support, with the {@link LogContextAspect} bean, and with the
+ * {@link LogContextAdvisor} scoped to the package of the annotated beans.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(3)
+public class ContextStartupBenchmark {
+
+  private static final String ANNOTATED_PACKAGE =
+      "com.practices.loggingbenchmarks.startup.annotated";
+
+  @Param({"1000", "5000"})
+  public int beanCount;
+
+  @Param({"none", "aspect", "scoped"})
+  public String advice;
+
+  private Class<?>[] beanTypes;
+
+  @Setup(Level.Trial)
+  public void generateBeanTypes() {
+    beanTypes = SyntheticBeans.generate(beanCount, 50);
+  }
+
+  @Benchmark
+  public int refresh() {
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+      context.register(AopConfiguration.class);
+
+      LogContextRegistry registry = new LogContextRegistry();
+      LogContextAspect aspect = new LogContextAspect(new MdcLoggingContext(), registry);
+      if ("aspect".equals(advice)) {
+        context.registerBean(LogContextAspect.class, () -> aspect);
+      } else if ("scoped".equals(advice)) {
+        context.registerBean(LogContextAdvisor.class,
+            () -> new LogContextAdvisor(aspect, registry, List.of(ANNOTATED_PACKAGE)));
+      }
+
+      for (int i = 0; i < beanTypes.length; i++) {
+        context.registerBean("bean" + i, beanTypes[i]);
+      }
+      context.refresh();
+      return context.getBeanDefinitionCount();
+    }
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  @EnableAspectJAutoProxy
+  static class AopConfiguration {
+  }
+}
@@ -0,0 +1,48 @@
+package com.practices.loggingbenchmarks.startup;
+
+import com.practices.loggingbenchmarks.startup.annotated.AnnotatedService;
+import com.practices.loggingcore.annotation.LogContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.NoOp;
+
+/**
+ * Generates a distinct class per synthetic bean, the way a large application has thousands of
+ * distinct bean classes rather than many beans of a few.
+ *
+ * <p>The generated classes override every method except the {@link LogContext} ones, which stay
+ * inherited so AspectJ pointcuts still see their annotations. No callbacks are bound, so the
+ * overrides fall through to the superclass. Their names avoid {@code $$}, which
+ * Spring would otherwise treat as a CGLIB proxy and resolve back to the shared superclass.
+ */
+final class SyntheticBeans {
+
+  private static final AtomicInteger COUNTER = new AtomicInteger();
+
+  private SyntheticBeans() {
+  }
+
+  /**
+   * Generates {@code count} bean classes, every {@code annotatedEvery}-th of them annotated.
+   */
+  static Class<?>[] generate(int count, int annotatedEvery) {
+    Class<?>[] types = new Class<?>[count];
+    for (int i = 0; i < count; i++) {
+      types[i] = generate(i % annotatedEvery == 0 ? AnnotatedService.class : SyntheticService.class);
+    }
+    return types;
+  }
+
+  private static Class<?> generate(Class<?> superclass) {
+    Enhancer enhancer = new Enhancer();
+    enhancer.setSuperclass(superclass);
+    enhancer.setUseCache(false);
+    enhancer.setUseFactory(false);
+    enhancer.setNamingPolicy(
+        (prefix, source, key, names) -> prefix + "_" + COUNTER.incrementAndGet());
+    enhancer.setCallbackTypes(new Class<?>[] {NoOp.class, MethodInterceptor.class});
+    enhancer.setCallbackFilter(method -> method.isAnnotationPresent(LogContext.class) ? 0 : 1);
+    return enhancer.createClass();
+  }
+}
@@ -0,0 +1,31 @@
+package com.practices.loggingbenchmarks.startup;
+
+/**
+ * Base class of the unannotated synthetic beans. Each bean gets its own generated subclass, so
+ * pointcut matching cannot reuse the result of another bean.
+ */
+public class SyntheticService {
+
+  public String find(String id) {
+    return id;
+  }
+
+  public String save(String id, String payload) {
+    return payload;
+  }
+
+  public boolean delete(String id) {
+    return true;
+  }
+
+  public int count() {
+    return 0;
+  }
+
+  public long total(long from, long to) {
+    return to - from;
+  }
+
+  public void refresh() {
+  }
+}
@@ -0,0 +1,21 @@
+package com.practices.loggingbenchmarks.startup.annotated;
+
+import com.practices.loggingcore.annotation.LogContext;
+
+/** Base class of the synthetic beans that carry {@link LogContext} and are proxied. */
+public class AnnotatedService {
+
+  @LogContext(expressions = {"orderId=#id"})
+  public String find(String id) {
+    return id;
+  }
+
+  @LogContext(expressions = {"orderId=#id", "size=#payload.length()"})
+  public String save(String id, String payload) {
+    return payload;
+  }
+
+  public int count() {
+    return 0;
+  }
+}
@@ -0,0 +1,43 @@
+package com.practices.loggingbenchmarks.web;
+
+import com.practices.loggingcore.web.CorrelationIdGenerator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of correlation ID generation with many threads generating at once, as
+ * under a burst of requests without IDs. {@code randomUuid} shares the {@code SecureRandom} behind
+ * {@link UUID#randomUUID()} between the threads; {@link CorrelationIdGenerator} uses a random
+ * source per thread. Run with {@code -t 1} for the uncontended cost, or {@code -t max}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+public class CorrelationIdBenchmark {
+
+  private final CorrelationIdGenerator generator = new CorrelationIdGenerator();
+
+  @Benchmark
+  public String randomUuid() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Benchmark
+  public String correlationIdGenerator() {
+    return generator.generate();
+  }
+}
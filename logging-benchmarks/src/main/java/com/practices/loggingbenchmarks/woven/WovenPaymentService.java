@@ -0,0 +1,23 @@
+package com.practices.loggingbenchmarks.woven;
+
+import com.practices.loggingbenchmarks.aspect.SpelEvaluationBenchmark;
+import com.practices.loggingcore.annotation.LogContext;
+import org.slf4j.MDC;
+
+/**
+ * Same service as {@code LogContextAspectBenchmark.PaymentService}, in the only package the
+ * benchmark weaving configuration includes.
+ */
+public class WovenPaymentService {
+
+  @LogContext(expressions = {"userId=#user.id", "amount=#amount"})
+  public String pay(SpelEvaluationBenchmark.User user, long amount) {
+    return user.getId();
+  }
+
+  /** Used to check that the class was actually woven before measuring. */
+  @LogContext(expressions = {"userId=#user.id"})
+  public String currentUserId(SpelEvaluationBenchmark.User user) {
+    return MDC.get("userId");
+  }
+}
@@ -0,0 +1,33 @@
+package com.practices.loggingcore.actuator;
+
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * A custom Spring Boot Actuator endpoint that lists the logging context keys the
+ * {@link LoggingContextLeakDetector} found left behind on pooled threads, most frequent first,
+ * with the boundary and thread each was last found at.
+ *
+ * <p>Example usage: {@code /actuator/context-leaks}
+ */
+@Endpoint(id = "context-leaks")
+public class LoggingContextLeaksEndpoint {
+
+  private final LoggingContextLeakDetector leakDetector;
+
+  public LoggingContextLeaksEndpoint(final LoggingContextLeakDetector leakDetector) {
+    this.leakDetector = leakDetector;
+  }
+
+  /**
+   * Lists the leaked keys found so far.
+   *
+   * @return the leaks, most frequent first
+   */
+  @ReadOperation
+  public List<LoggingContextLeakDetector.Leak> getLeaks() {
+    return leakDetector.leaks();
+  }
+}
@@ -0,0 +1,106 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * Spring AOP advisor that applies {@link LogContextAspect} only to classes in a set of base
+ * packages.
+ *
+ * <p>The {@code @Around} pointcut of {@link LogContextAspect} is matched against every method of
+ * every bean when the context starts. This advisor rejects classes outside the base packages by
+ * name before any of their methods is looked at, and matches the remaining methods with the
+ * {@link LogContextRegistry}, which also warms its cache for the calls that follow.
+ *
+ * <p>Register either this advisor or the {@link LogContextAspect} bean, never both, or advised
+ * methods would be intercepted twice.
+ */
+public class LogContextAdvisor extends AbstractPointcutAdvisor {
+
+  private final Pointcut pointcut;
+  private final Advice advice;
+
+  /**
+   * Creates the advisor.
+   *
+   * @param aspect the aspect the advised calls are delegated to; it must not be a bean itself
+   * @param registry the registry used to decide which methods carry {@link LogContext}
+   * @param basePackages the packages, including their sub-packages, whose classes are advised
+   */
+  public LogContextAdvisor(LogContextAspect aspect, LogContextRegistry registry,
+                           Collection<String> basePackages) {
+    this.pointcut = new LogContextPointcut(registry, basePackages);
+    this.advice = (MethodInterceptor) invocation -> invoke(aspect, invocation);
+  }
+
+  @Override
+  public Pointcut getPointcut() {
+    return pointcut;
+  }
+
+  @Override
+  public Advice getAdvice() {
+    return advice;
+  }
+
+  // the arguments are read in place, without the copy a ProceedingJoinPoint would make
+  private static Object invoke(LogContextAspect aspect, MethodInvocation invocation)
+      throws Throwable {
+    return aspect.invoke(invocation.getMethod(), invocation.getThis(), invocation.getArguments(),
+        invocation, MethodInvocation::proceed);
+  }
+
+  private static final class LogContextPointcut extends StaticMethodMatcher
+      implements Pointcut, ClassFilter {
+
+    private final LogContextRegistry registry;
+    private final String[] packagePrefixes;
+
+    LogContextPointcut(LogContextRegistry registry, Collection<String> basePackages) {
+      this.registry = registry;
+      this.packagePrefixes = basePackages.stream()
+          .map(String::trim)
+          .filter(basePackage -> !basePackage.isEmpty())
+          .map(basePackage -> basePackage.endsWith(".") ? basePackage : basePackage + ".")
+          .toArray(String[]::new);
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+      String className = clazz.getName();
+      for (String prefix : packagePrefixes) {
+        if (className.startsWith(prefix)) {
+          return AnnotationUtils.isCandidateClass(clazz, LogContext.class);
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+      Class<?> resolvedClass = targetClass != null ? targetClass : method.getDeclaringClass();
+      return !registry.resolve(method, resolvedClass).isEmpty();
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+      return this;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+      return this;
+    }
+  }
+}
@@ -8,16 +8,8 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.aop.support.AopUtils;
-import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.expression.Expression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 /**
  * Aspect class that intercepts methods annotated with {@link LogContext} to dynamically evaluate
@@ -44,10 +36,41 @@ import java.util.Set;
 public class LogContextAspect {
 
   private final LoggingContext loggingContext;
-  private final SpelExpressionParser expressionParser = new SpelExpressionParser();
+  private final LogContextRegistry registry;
+  private final boolean deferred;
 
   public LogContextAspect(LoggingContext loggingContext) {
+    this(loggingContext, new LogContextRegistry());
+  }
+
+  /**
+   * Creates the aspect with a shared registry, so annotation resolution and parsed expressions
+   * are reused across all advised methods.
+   *
+   * @param loggingContext the context the evaluated values are written to
+   * @param registry the cache of resolved annotations and parsed expressions
+   */
+  public LogContextAspect(LoggingContext loggingContext, LogContextRegistry registry) {
+    this(loggingContext, registry, false);
+  }
+
+  /**
+   * Creates the aspect, optionally deferring evaluation until something is logged.
+   *
+   * <p>In deferred mode the expressions of an advised call are only evaluated the first time a
+   * log call that is enabled runs inside it, which requires {@link LogContextTurboFilter} to be
+   * installed. Calls that never log pay no evaluation cost. The values reflect the arguments as
+   * they are at that first log call.
+   *
+   * @param loggingContext the context the evaluated values are written to
+   * @param registry the cache of resolved annotations and parsed expressions
+   * @param deferred whether to evaluate lazily on the first enabled log call
+   */
+  public LogContextAspect(LoggingContext loggingContext, LogContextRegistry registry,
+                          boolean deferred) {
     this.loggingContext = loggingContext;
+    this.registry = registry;
+    this.deferred = deferred;
   }
 
   /**
@@ -61,7 +84,9 @@ public class LogContextAspect {
    * (e.g., for use with MDC in structured logging).
    *
    * <p>All added keys are automatically removed from the context after the method completes,
-   * ensuring that context information is not leaked between requests or method calls.
+   * ensuring that context information is not leaked between requests or method calls. When the
+   * method returns a {@code Mono}, {@code Flux} or {@code CompletableFuture}, the values stay
+   * attached to that result instead, and are put back whenever it does its work.
    *
    * @param joinPoint The AOP join point representing the intercepted method call.
    * @return The result of the method execution.
@@ -70,90 +95,107 @@ public class LogContextAspect {
 
   @Around("execution(* *(..)) && (@annotation(com.practices.loggingcore.annotation.LogContext) || @within(com.practices.loggingcore.annotation.LogContext))")
   public Object addInformationFromExpression(ProceedingJoinPoint joinPoint) throws Throwable {
-    final List<String> addedKeys = new ArrayList<>();
-
-    MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-    Method method = signature.getMethod();
-
-    LogContext logContextAnnotation;
-
-    // find method-level annotation
-    logContextAnnotation = AnnotationUtils.findAnnotation(method, LogContext.class);
-
-    // check the target class
-    if (logContextAnnotation == null && joinPoint.getTarget() != null) {
-      Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
-      try {
-        Method targetMethod = targetClass.getMethod(method.getName(), method.getParameterTypes());
-        logContextAnnotation = AnnotationUtils.findAnnotation(targetMethod, LogContext.class);
-      } catch (NoSuchMethodException e) {
-        // method not found on target class, continue
-      }
-    }
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    return invoke(method, joinPoint.getTarget(), joinPoint.getArgs(), joinPoint,
+        ProceedingJoinPoint::proceed);
+  }
 
-    if (logContextAnnotation == null) {
-      Class<?> targetClass = joinPoint.getTarget() != null ?
-          AopUtils.getTargetClass(joinPoint.getTarget()) :
-          method.getDeclaringClass();
-      logContextAnnotation = AnnotationUtils.findAnnotation(targetClass, LogContext.class);
+  /**
+   * Runs {@code invocation} inside a {@link LogContext} scope for {@code method}. Callers pass a
+   * non-capturing {@code proceed} function, so no per-call lambda is created.
+   *
+   * @param method the advised method
+   * @param target the object the method is invoked on, or {@code null} for static methods
+   * @param args the arguments of the call; read, never modified
+   * @param invocation the interceptor-specific invocation handed to {@code proceed}
+   * @param proceed continues the invocation
+   * @return the result of the invocation
+   * @throws Throwable whatever the invocation throws
+   */
+  <T> Object invoke(Method method, Object target, Object[] args, T invocation,
+                    Proceed<T> proceed) throws Throwable {
+    Class<?> targetClass = target != null ?
+        AopUtils.getTargetClass(target) :
+        method.getDeclaringClass();
+    LogContextMetadata metadata = registry.resolve(method, targetClass);
+
+    if (metadata.isEmpty()) {
+      return proceed.proceed(invocation);
     }
 
-    if (logContextAnnotation == null || logContextAnnotation.expressions().length == 0) {
-      return joinPoint.proceed();
+    LogContextFrames frames = LogContextFrames.current();
+    frames.push(this, metadata, args, deferred);
+    try {
+      Object result = proceed.proceed(invocation);
+      if (LogContextAsyncSupport.isAsync(result)) {
+        // the scope closes when this method returns, so the async result carries its own copy
+        return LogContextAsyncSupport.decorate(method, result, frames.capture(), loggingContext);
+      }
+      return result;
+    } finally {
+      frames.pop();
     }
+  }
 
-    try {
-      Object[] args = joinPoint.getArgs();
-      String[] paramNames = signature.getParameterNames();
+  /**
+   * Evaluates every entry of {@code metadata} against {@code args} and writes the non-null
+   * results to the logging context through {@code frame}, which remembers the shadowed values.
+   */
+  void evaluate(LogContextMetadata metadata, Object[] args, LogContextFrames.Frame frame) {
+    LogContextEvaluationContext evalContext = null;
+    if (metadata.requiresEvaluationContext()) {
+      String[] paramNames = metadata.parameterNames();
 
       if (paramNames == null) {
-        log.warn("Parameter names are not available for method: {}", method);
-        return joinPoint.proceed();
+        log.warn("Parameter names are not available for @LogContext expressions {}",
+            metadata.entries()[0].source());
+        return;
       }
 
-      StandardEvaluationContext evalContext = new StandardEvaluationContext();
-      for (int i = 0; i < paramNames.length; i++) {
-        evalContext.setVariable(paramNames[i], args[i]);
-      }
-
-      Set<String> seenKeys = new HashSet<>();
-
-      for (String expression : logContextAnnotation.expressions()) {
-        int index = expression.indexOf('=');
-        if (index == -1) {
-          log.warn("Invalid expression format '{}'. Expected format: key=#expression", expression);
-          continue;
-        }
-
-        String key = expression.substring(0, index).trim();
-        String raxExpr = expression.substring(index + 1).trim();
+      evalContext = LogContextEvaluationContext.bind(paramNames, args);
+    }
 
+    try {
+      for (LogContextMetadata.Entry entry : metadata.entries()) {
+        String key = entry.key();
         try {
-          Expression expressionCompare = expressionParser.parseExpression(raxExpr);
-          Object value = expressionCompare.getValue(evalContext);
+          Object value = entry.extractor() != null
+              ? entry.extractor().extract(args)
+              : entry.expression().getValue(evalContext);
 
-          log.debug("Evaluating expressionCompare '{}' for key '{}', result: '{}'", raxExpr, key, value);
+          if (log.isDebugEnabled()) {
+            log.debug("Evaluating expression '{}' for key '{}', result: '{}'", entry.source(), key, value);
+          }
 
           if (value != null) {
-            if (seenKeys.add(key)) { // only add if it's not seen before
-              loggingContext.set(key, String.valueOf(value));
-              addedKeys.add(key);
-              log.debug("Successfully inserted '{}' = '{}' into LoggingContext", key, value);
-            } else {
-              log.warn("Duplicate key '{}' detected. Skipping second occurrence.", key);
-            }
+            frame.put(key, String.valueOf(value));
+            log.debug("Successfully inserted '{}' = '{}' into LoggingContext", key, value);
           } else {
             log.debug("Skipped null value for key '{}'", key);
           }
 
         } catch (Exception e) {
-          log.warn("Failed to evaluate expression '{}' for key '{}': {}", raxExpr, key, e.getMessage());
+          log.warn("Failed to evaluate expression '{}' for key '{}': {}", entry.source(), key, e.getMessage());
         }
       }
-
-      return joinPoint.proceed();
     } finally {
-      addedKeys.forEach(loggingContext::remove);
+      if (evalContext != null) {
+        evalContext.release();
+      }
     }
   }
+
+  LoggingContext loggingContext() {
+    return loggingContext;
+  }
+
+  /**
+   * Continues an intercepted invocation.
+   *
+   * @param <T> the type of the interceptor-specific invocation
+   */
+  @FunctionalInterface
+  interface Proceed<T> {
+    Object proceed(T invocation) throws Throwable;
+  }
 }
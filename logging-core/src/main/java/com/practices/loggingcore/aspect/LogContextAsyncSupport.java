@@ -0,0 +1,325 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextScope;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoOperator;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+/**
+ * Keeps the values of a {@link com.practices.loggingcore.annotation.LogContext} scope attached to
+ * the asynchronous result of the advised method, after the method itself has returned.
+ *
+ * <p>For a {@link Mono} or {@link Flux} the values are written to the Reactor {@link Context}
+ * under {@link #CONTEXT_KEY}, merged over the values of enclosing scopes, and put back in the
+ * logging context around subscription, requests and cancellation, which is where a pipeline does
+ * its synchronous work. For a {@link CompletableFuture} they are put back while the returned
+ * future is completed, so dependent stages that run on completion see them. In every case the
+ * previous values are restored afterwards, so nothing leaks to other work on the same thread.
+ *
+ * <p>Signals delivered on other threads see the values when
+ * {@link LogContextThreadLocalAccessor} is registered and Reactor's automatic context propagation
+ * is enabled. Without it, work that logs after a thread hop can put them back itself with
+ * {@link #restore(ContextView, LoggingContext)}.
+ */
+public final class LogContextAsyncSupport {
+
+  /** Reactor context key of the {@code Map<String, String>} of logging context values. */
+  public static final String CONTEXT_KEY = "log-manager.context";
+
+  private LogContextAsyncSupport() {
+  }
+
+  /**
+   * Returns whether {@code result} is an asynchronous result whose values are kept attached.
+   */
+  static boolean isAsync(Object result) {
+    return result instanceof Mono<?> || result instanceof Flux<?>
+        || result instanceof CompletionStage<?>;
+  }
+
+  /**
+   * Attaches {@code values} to an asynchronous {@code result} of {@code method}.
+   *
+   * @return the decorated result, or {@code result} itself if it cannot be decorated
+   */
+  static Object decorate(Method method, Object result, Map<String, String> values,
+                         LoggingContext loggingContext) {
+    if (values.isEmpty()) {
+      return result;
+    }
+    if (result instanceof Mono<?> mono) {
+      return new ScopedMono<>(mono, values, loggingContext, false);
+    }
+    if (result instanceof Flux<?> flux) {
+      return new ScopedFlux<>(flux, values, loggingContext);
+    }
+    if (result instanceof CompletionStage<?> stage
+        && method.getReturnType().isAssignableFrom(CompletableFuture.class)) {
+      return decorateFuture(stage, values, loggingContext);
+    }
+    return result;
+  }
+
+  /**
+   * Scopes a {@link Mono} with {@code values}, as if it had been returned by a method annotated
+   * with {@code @LogContext} that produced them.
+   *
+   * @param mono the pipeline to scope
+   * @param values the keys and values to expose to it
+   * @param loggingContext the context to write the values to
+   * @param <T> the element type
+   * @return the scoped pipeline, or {@code mono} itself if there are no values
+   */
+  public static <T> Mono<T> scope(Mono<T> mono, Map<String, String> values,
+                                  LoggingContext loggingContext) {
+    return scope(mono, values, loggingContext, false);
+  }
+
+  /**
+   * Scopes a {@link Mono} with {@code values} like {@link #scope(Mono, Map, LoggingContext)}, and
+   * with {@code signals} set also puts them in the logging context while its result, error or
+   * completion is delivered downstream, on whichever thread that happens. This suits the
+   * pipeline of a whole request, whose subscribers all belong to the same request.
+   *
+   * @param mono the pipeline to scope
+   * @param values the keys and values to expose to it
+   * @param loggingContext the context to write the values to
+   * @param signals whether to expose the values to the downstream signals as well
+   * @param <T> the element type
+   * @return the scoped pipeline, or {@code mono} itself if there are no values
+   */
+  public static <T> Mono<T> scope(Mono<T> mono, Map<String, String> values,
+                                  LoggingContext loggingContext, boolean signals) {
+    return values.isEmpty() ? mono : new ScopedMono<>(mono, values, loggingContext, signals);
+  }
+
+  /**
+   * Puts the values a scoped pipeline wrote to the Reactor context in the logging context of the
+   * current thread, for work that runs after a thread hop when Reactor's automatic context
+   * propagation is not enabled. The scope must be closed on the same thread, as
+   * {@code try-with-resources} does:
+   *
+   * <pre>{@code
+   * .publishOn(Schedulers.boundedElastic())
+   * .handle((order, sink) -> {
+   *   try (var ignored = LogContextAsyncSupport.restore(sink.contextView(), loggingContext)) {
+   *     log.info("Shipping order."); // This log has the values of the request
+   *     sink.next(ship(order));
+   *   }
+   * })
+   * }</pre>
+   *
+   * @param contextView the Reactor context of the subscriber doing the work
+   * @param loggingContext the context to write the values to
+   * @return a {@link LoggingContextScope} that restores what the thread held before
+   */
+  public static LoggingContextScope restore(ContextView contextView,
+                                            LoggingContext loggingContext) {
+    Map<String, String> values = contextView.getOrDefault(CONTEXT_KEY, Map.of());
+    if (values.isEmpty()) {
+      return () -> { };
+    }
+    LogContextFrames frames = LogContextFrames.current();
+    frames.push(loggingContext, values);
+    return frames::pop;
+  }
+
+  private static <T> CompletableFuture<T> decorateFuture(CompletionStage<T> stage,
+                                                         Map<String, String> values,
+                                                         LoggingContext loggingContext) {
+    CompletableFuture<T> scoped = new CompletableFuture<>();
+    stage.whenComplete((value, error) -> {
+      LogContextFrames frames = LogContextFrames.current();
+      frames.push(loggingContext, values);
+      try {
+        if (error != null) {
+          scoped.completeExceptionally(error);
+        } else {
+          scoped.complete(value);
+        }
+      } finally {
+        frames.pop();
+      }
+    });
+    if (stage instanceof Future<?> future) {
+      scoped.whenComplete((value, error) -> {
+        if (scoped.isCancelled()) {
+          future.cancel(false);
+        }
+      });
+    }
+    return scoped;
+  }
+
+  private static Context withValues(Context context, Map<String, String> values) {
+    Map<String, String> outer = context.getOrDefault(CONTEXT_KEY, Map.of());
+    if (outer.isEmpty()) {
+      return context.put(CONTEXT_KEY, values);
+    }
+    Map<String, String> merged = new HashMap<>(outer);
+    merged.putAll(values);
+    return context.put(CONTEXT_KEY, Map.copyOf(merged));
+  }
+
+  private static final class ScopedMono<T> extends MonoOperator<T, T> {
+    private final Map<String, String> values;
+    private final LoggingContext loggingContext;
+    private final boolean signals;
+
+    ScopedMono(Mono<? extends T> source, Map<String, String> values,
+               LoggingContext loggingContext, boolean signals) {
+      super(source);
+      this.values = values;
+      this.loggingContext = loggingContext;
+      this.signals = signals;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      ScopedSubscriber<T> subscriber =
+          new ScopedSubscriber<>(actual, values, loggingContext, signals);
+      subscriber.open();
+      try {
+        source.subscribe(subscriber);
+      } finally {
+        subscriber.close();
+      }
+    }
+  }
+
+  private static final class ScopedFlux<T> extends FluxOperator<T, T> {
+    private final Map<String, String> values;
+    private final LoggingContext loggingContext;
+
+    ScopedFlux(Flux<? extends T> source, Map<String, String> values,
+               LoggingContext loggingContext) {
+      super(source);
+      this.values = values;
+      this.loggingContext = loggingContext;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+      ScopedSubscriber<T> subscriber =
+          new ScopedSubscriber<>(actual, values, loggingContext, false);
+      subscriber.open();
+      try {
+        source.subscribe(subscriber);
+      } finally {
+        subscriber.close();
+      }
+    }
+  }
+
+  private static final class ScopedSubscriber<T> implements CoreSubscriber<T>, Subscription {
+    private final CoreSubscriber<? super T> actual;
+    private final Map<String, String> values;
+    private final LoggingContext loggingContext;
+    private final Context context;
+    private final boolean signals;
+    private Subscription upstream;
+
+    ScopedSubscriber(CoreSubscriber<? super T> actual, Map<String, String> values,
+                     LoggingContext loggingContext, boolean signals) {
+      this.actual = actual;
+      this.values = values;
+      this.loggingContext = loggingContext;
+      this.context = withValues(actual.currentContext(), values);
+      this.signals = signals;
+    }
+
+    @Override
+    public Context currentContext() {
+      return context;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.upstream = subscription;
+      actual.onSubscribe(this);
+    }
+
+    @Override
+    public void onNext(T value) {
+      if (!signals) {
+        actual.onNext(value);
+        return;
+      }
+      open();
+      try {
+        actual.onNext(value);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      if (!signals) {
+        actual.onError(error);
+        return;
+      }
+      open();
+      try {
+        actual.onError(error);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void onComplete() {
+      if (!signals) {
+        actual.onComplete();
+        return;
+      }
+      open();
+      try {
+        actual.onComplete();
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void request(long n) {
+      open();
+      try {
+        upstream.request(n);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      open();
+      try {
+        upstream.cancel();
+      } finally {
+        close();
+      }
+    }
+
+    void open() {
+      LogContextFrames.current().push(loggingContext, values);
+    }
+
+    void close() {
+      LogContextFrames.current().pop();
+    }
+  }
+}
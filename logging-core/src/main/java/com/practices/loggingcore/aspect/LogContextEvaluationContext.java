@@ -0,0 +1,151 @@
+package com.practices.loggingcore.aspect;
+
+import java.util.Collections;
+import java.util.List;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.support.DataBindingMethodResolver;
+import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
+import org.springframework.expression.spel.support.StandardOperatorOverloader;
+import org.springframework.expression.spel.support.StandardTypeComparator;
+import org.springframework.expression.spel.support.StandardTypeConverter;
+
+/**
+ * A minimal, read-only {@link EvaluationContext} for {@code @LogContext} expressions, reused per
+ * thread.
+ *
+ * <p>Unlike a {@code StandardEvaluationContext}, it has no bean resolver, no constructor resolvers
+ * and no type locator, and its resolvers and converters are shared by all instances. Variables are
+ * resolved by scanning the method's parameter names and reading the matching slot of the argument
+ * array, so binding a call allocates nothing. Properties are read through the cached reflective
+ * accessors SpEL uses for data binding, which keeps expressions eligible for SpEL compilation, and
+ * instance methods such as {@code #name.toUpperCase()} can still be called. Type references
+ * ({@code T(...)}), constructors and assignments are rejected.
+ */
+final class LogContextEvaluationContext implements EvaluationContext {
+
+  private static final List<PropertyAccessor> PROPERTY_ACCESSORS =
+      List.of(DataBindingPropertyAccessor.forReadOnlyAccess());
+  private static final List<MethodResolver> METHOD_RESOLVERS =
+      List.of(DataBindingMethodResolver.forInstanceMethodInvocation());
+  private static final TypeLocator TYPE_LOCATOR = typeName -> {
+    throw new SpelEvaluationException(SpelMessage.TYPE_NOT_FOUND, typeName);
+  };
+  private static final TypeConverter TYPE_CONVERTER = new StandardTypeConverter();
+  private static final TypeComparator TYPE_COMPARATOR = new StandardTypeComparator();
+  private static final OperatorOverloader OPERATOR_OVERLOADER = new StandardOperatorOverloader();
+
+  private static final ThreadLocal<LogContextEvaluationContext> CURRENT =
+      ThreadLocal.withInitial(LogContextEvaluationContext::new);
+
+  private String[] parameterNames;
+  private Object[] args;
+
+  /**
+   * Binds the calling thread's context to the arguments of an advised call. If the thread's
+   * context is already bound, because evaluating an expression led to another advised call, a
+   * fresh context is returned instead.
+   *
+   * @param parameterNames the parameter names of the advised method
+   * @param args the arguments of the call
+   * @return the bound context, to be {@link #release() released} once evaluation is done
+   */
+  static LogContextEvaluationContext bind(String[] parameterNames, Object[] args) {
+    LogContextEvaluationContext context = CURRENT.get();
+    if (context.args != null) {
+      context = new LogContextEvaluationContext();
+    }
+    context.parameterNames = parameterNames;
+    context.args = args;
+    return context;
+  }
+
+  /** Drops the references to the bound call so the context can be reused. */
+  void release() {
+    parameterNames = null;
+    args = null;
+  }
+
+  @Override
+  public Object lookupVariable(String name) {
+    final String[] names = parameterNames;
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(name)) {
+        return args[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Does nothing: variables are the arguments of the advised call, which expressions only read.
+   * Assignments never get here, since {@link #isAssignmentEnabled()} rejects them.
+   */
+  @Override
+  public void setVariable(String name, Object value) {
+  }
+
+  /**
+   * Returns {@code false}, so SpEL rejects assignments and increments, such as
+   * {@code #id = 1}, with {@link SpelMessage#NOT_ASSIGNABLE}.
+   */
+  @Override
+  public boolean isAssignmentEnabled() {
+    return false;
+  }
+
+  @Override
+  public TypedValue getRootObject() {
+    return TypedValue.NULL;
+  }
+
+  @Override
+  public List<PropertyAccessor> getPropertyAccessors() {
+    return PROPERTY_ACCESSORS;
+  }
+
+  @Override
+  public List<ConstructorResolver> getConstructorResolvers() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public List<MethodResolver> getMethodResolvers() {
+    return METHOD_RESOLVERS;
+  }
+
+  @Override
+  public BeanResolver getBeanResolver() {
+    return null;
+  }
+
+  @Override
+  public TypeLocator getTypeLocator() {
+    return TYPE_LOCATOR;
+  }
+
+  @Override
+  public TypeConverter getTypeConverter() {
+    return TYPE_CONVERTER;
+  }
+
+  @Override
+  public TypeComparator getTypeComparator() {
+    return TYPE_COMPARATOR;
+  }
+
+  @Override
+  public OperatorOverloader getOperatorOverloader() {
+    return OPERATOR_OVERLOADER;
+  }
+}
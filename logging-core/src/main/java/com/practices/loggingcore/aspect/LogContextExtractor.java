@@ -0,0 +1,20 @@
+package com.practices.loggingcore.aspect;
+
+/**
+ * Reads the value of a single {@code @LogContext} entry directly from the method arguments,
+ * without going through SpEL.
+ *
+ * <p>Implementations are generated at compile time by the {@code logging-processor} module for
+ * simple property paths such as {@code #user.id}.
+ */
+@FunctionalInterface
+public interface LogContextExtractor {
+
+  /**
+   * Extracts the value from the invocation arguments.
+   *
+   * @param args the arguments of the advised call, in declaration order
+   * @return the extracted value, possibly null
+   */
+  Object extract(Object[] args);
+}
@@ -0,0 +1,26 @@
+package com.practices.loggingcore.aspect;
+
+/**
+ * The set of {@link LogContextExtractor}s generated for one annotated class.
+ *
+ * <p>The {@code logging-processor} annotation processor generates one implementation per class
+ * carrying {@code @LogContext}, named after the class with nested names joined by underscores and
+ * a {@code _LogContextExtractors} suffix (for example {@code OrderService_LogContextExtractors}).
+ * {@link LogContextRegistry} looks it up once per method and falls back to SpEL for any entry the
+ * processor could not translate.
+ */
+public interface LogContextExtractors {
+
+  /** Suffix appended to the annotated class name to form the generated class name. */
+  String CLASS_NAME_SUFFIX = "_LogContextExtractors";
+
+  /**
+   * Returns the extractor for an expression declared on a method.
+   *
+   * @param method the method signature, its name followed by the comma-separated canonical names
+   *     of its erased parameter types in parentheses, e.g. {@code process(com.acme.User,long)}
+   * @param expression the SpEL expression, without the key, e.g. {@code #user.id}
+   * @return the generated extractor, or null if the expression was not translated
+   */
+  LogContextExtractor find(String method, String expression);
+}
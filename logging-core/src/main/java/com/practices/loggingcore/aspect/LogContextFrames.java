@@ -0,0 +1,351 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.core.LoggingContext;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread stack of the {@link com.practices.loggingcore.annotation.LogContext} scopes that are
+ * currently open.
+ *
+ * <p>Each advised call pushes a frame holding the resolved metadata and the call arguments, and
+ * pops it when the call returns. A frame is resolved when its expressions have been evaluated and
+ * written to the logging context: right away in eager mode, or the first time
+ * {@link #materialize()} runs inside the scope in deferred mode, which
+ * {@link LogContextTurboFilter} does for every log call that is enabled. A scope that never logs
+ * then never evaluates anything.
+ *
+ * <p>When a resolved frame pops, every key it wrote gets back the value it shadowed, or is removed
+ * if it had none. Frames and their key arrays are preallocated and reused, so pushing and popping
+ * does not allocate once the stack has grown to the call depth and key count in use.
+ */
+final class LogContextFrames {
+
+  private static final ThreadLocal<LogContextFrames> CURRENT = new ThreadLocal<>();
+
+  private Frame[] frames = new Frame[8];
+  private int depth;
+  private int resolvedDepth;
+  private boolean materializing;
+  private Map<String, String> captured;
+
+  private LogContextFrames() {
+  }
+
+  /**
+   * Returns the frame stack of the current thread, creating it on first use.
+   */
+  static LogContextFrames current() {
+    LogContextFrames frames = CURRENT.get();
+    if (frames == null) {
+      frames = new LogContextFrames();
+      CURRENT.set(frames);
+    }
+    return frames;
+  }
+
+  /**
+   * Returns the frame stack of the current thread without creating one.
+   *
+   * @return the stack, or {@code null} if the thread never opened a scope
+   */
+  static LogContextFrames peek() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Opens a scope, resolving it right away unless {@code deferred} is set.
+   *
+   * @param aspect the aspect that evaluates the expressions and owns the logging context
+   * @param metadata the resolved annotation of the advised method
+   * @param args the arguments of the call, read when the scope is resolved
+   * @param deferred whether to wait for {@link #materialize()} before resolving the scope
+   */
+  void push(LogContextAspect aspect, LogContextMetadata metadata, Object[] args,
+            boolean deferred) {
+    Frame frame = nextFrame();
+    frame.aspect = aspect;
+    frame.loggingContext = aspect.loggingContext();
+    frame.metadata = metadata;
+    frame.args = args;
+    depth++;
+
+    if (!deferred) {
+      materialize();
+    }
+  }
+
+  /**
+   * Opens a scope with values that were evaluated earlier, for example by the call that created a
+   * reactive pipeline now running on this thread. Pending scopes are resolved first, so the
+   * values win over them. Keys that already hold the same value are not written, so they have
+   * nothing to restore either; if writing fails, the scope is closed again before rethrowing.
+   *
+   * @param loggingContext the context to write the values to
+   * @param values the keys and values of the scope
+   */
+  void push(LoggingContext loggingContext, Map<String, String> values) {
+    materialize();
+    Frame frame = nextFrame();
+    frame.loggingContext = loggingContext;
+    depth++;
+    if (resolvedDepth == depth - 1) {
+      resolvedDepth = depth;
+    }
+    try {
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+        frame.putIfChanged(entry.getKey(), entry.getValue());
+      }
+    } catch (RuntimeException | Error e) {
+      pop();
+      throw e;
+    }
+    captured = values;
+  }
+
+  /**
+   * Opens a scope that removes every key an open scope wrote, and each of {@code keys}, so the
+   * thread holds none of them until the scope closes and puts them back.
+   *
+   * @param loggingContext the context to remove the keys from
+   * @param keys further keys to remove
+   */
+  void pushCleared(LoggingContext loggingContext, String[] keys) {
+    materialize();
+    Frame frame = nextFrame();
+    frame.loggingContext = loggingContext;
+    for (int d = 0; d < depth; d++) {
+      Frame outer = frames[d];
+      for (int i = 0; i < outer.size; i++) {
+        frame.hide(outer.keys[i]);
+      }
+    }
+    for (String key : keys) {
+      frame.hide(key);
+    }
+    depth++;
+    if (resolvedDepth == depth - 1) {
+      resolvedDepth = depth;
+    }
+  }
+
+  /**
+   * Returns the values the innermost scope wrote, resolving pending scopes first.
+   */
+  Map<String, String> capture() {
+    materialize();
+    Frame frame = frames[depth - 1];
+    if (frame.size == 0) {
+      return Map.of();
+    }
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < frame.size; i++) {
+      String value = frame.loggingContext.get(frame.keys[i]);
+      if (value != null) {
+        values.put(frame.keys[i], value);
+      }
+    }
+    return Map.copyOf(values);
+  }
+
+  /**
+   * Adds the current value of every key an open scope wrote to {@code values}, resolving pending
+   * scopes first.
+   */
+  private void captureAll(Map<String, String> values) {
+    materialize();
+    for (int d = 0; d < depth; d++) {
+      Frame frame = frames[d];
+      for (int i = 0; i < frame.size; i++) {
+        String value = frame.loggingContext.get(frame.keys[i]);
+        if (value != null) {
+          values.put(frame.keys[i], value);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the current value of every key an open scope wrote, and of each of {@code keys} the
+   * scopes did not write, resolving pending scopes first.
+   *
+   * <p>The returned map is kept, as is the map the last propagated scope was opened with. As
+   * long as the kept map still holds the current values of those keys it is returned again, as
+   * is when it is already immutable, so a thread that hands on the values it was handed does not
+   * allocate.
+   *
+   * @param loggingContext the context to read the values from
+   * @param keys further keys to capture
+   * @return the values, empty if there are none
+   */
+  Map<String, String> captureAll(LoggingContext loggingContext, String[] keys) {
+    materialize();
+    Map<String, String> values = captured;
+    if (values != null && isCurrent(values, loggingContext, keys)) {
+      values = Map.copyOf(values);
+      captured = values;
+      return values;
+    }
+    Map<String, String> current = new HashMap<>();
+    captureAll(current);
+    for (String key : keys) {
+      String value = loggingContext.get(key);
+      if (value != null) {
+        current.putIfAbsent(key, value);
+      }
+    }
+    values = current.isEmpty() ? Map.of() : Map.copyOf(current);
+    captured = values;
+    return values;
+  }
+
+  private boolean isCurrent(Map<String, String> values, LoggingContext loggingContext,
+                            String[] keys) {
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      if (!entry.getValue().equals(loggingContext.get(entry.getKey()))) {
+        return false;
+      }
+    }
+    for (int d = 0; d < depth; d++) {
+      Frame frame = frames[d];
+      for (int i = 0; i < frame.size; i++) {
+        if (!values.containsKey(frame.keys[i])
+            && frame.loggingContext.get(frame.keys[i]) != null) {
+          return false;
+        }
+      }
+    }
+    for (String key : keys) {
+      if (!values.containsKey(key) && loggingContext.get(key) != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Closes the innermost scope, restoring the values its keys shadowed. A scope that was never
+   * resolved has nothing to restore.
+   */
+  void pop() {
+    Frame frame = frames[--depth];
+    if (resolvedDepth > depth) {
+      resolvedDepth = depth;
+    }
+    frame.restore();
+    frame.aspect = null;
+    frame.loggingContext = null;
+    frame.metadata = null;
+    frame.args = null;
+  }
+
+  private Frame nextFrame() {
+    if (depth == frames.length) {
+      frames = Arrays.copyOf(frames, depth * 2);
+    }
+    Frame frame = frames[depth];
+    if (frame == null) {
+      frame = new Frame();
+      frames[depth] = frame;
+    }
+    return frame;
+  }
+
+  /**
+   * Returns whether any open scope has not been resolved yet.
+   */
+  boolean hasPending() {
+    return resolvedDepth < depth;
+  }
+
+  /**
+   * Resolves every pending scope, outermost first so inner values win. Each scope is resolved at
+   * most once. Log calls made while evaluating do not resolve again.
+   */
+  void materialize() {
+    if (materializing) {
+      return;
+    }
+    materializing = true;
+    try {
+      while (resolvedDepth < depth) {
+        Frame frame = frames[resolvedDepth++];
+        if (frame.aspect != null) {
+          frame.aspect.evaluate(frame.metadata, frame.args, frame);
+        }
+      }
+    } finally {
+      materializing = false;
+    }
+  }
+
+  /**
+   * The keys one scope wrote to the logging context, with the values they replaced.
+   */
+  static final class Frame {
+    private String[] keys = new String[4];
+    private String[] shadowed = new String[4];
+    private int size;
+    private LogContextAspect aspect;
+    private LoggingContext loggingContext;
+    private LogContextMetadata metadata;
+    private Object[] args;
+
+    /**
+     * Writes {@code value} under {@code key}, remembering the value it replaces.
+     */
+    void put(String key, String value) {
+      write(key, loggingContext.get(key), value);
+    }
+
+    /**
+     * Writes {@code value} under {@code key} unless the key already holds it.
+     */
+    void putIfChanged(String key, String value) {
+      String current = loggingContext.get(key);
+      if (!value.equals(current)) {
+        write(key, current, value);
+      }
+    }
+
+    /**
+     * Removes {@code key} if it holds a value, remembering the value.
+     */
+    void hide(String key) {
+      String current = loggingContext.get(key);
+      if (current != null) {
+        write(key, current, null);
+      }
+    }
+
+    private void write(String key, String current, String value) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        shadowed = Arrays.copyOf(shadowed, size * 2);
+      }
+      keys[size] = key;
+      shadowed[size] = current;
+      size++;
+      if (value != null) {
+        loggingContext.set(key, value);
+      } else {
+        loggingContext.remove(key);
+      }
+    }
+
+    private void restore() {
+      for (int i = size - 1; i >= 0; i--) {
+        if (shadowed[i] != null) {
+          loggingContext.set(keys[i], shadowed[i]);
+        } else {
+          loggingContext.remove(keys[i]);
+        }
+        keys[i] = null;
+        shadowed[i] = null;
+      }
+      size = 0;
+    }
+  }
+}
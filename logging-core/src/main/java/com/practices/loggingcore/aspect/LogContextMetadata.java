@@ -0,0 +1,123 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.ValueType;
+import java.util.List;
+import org.springframework.expression.Expression;
+
+/**
+ * The resolved {@link LogContext} information for a single advised method on a single target
+ * class.
+ *
+ * <p>Instances are immutable and created once per method by {@link LogContextRegistry}, so the
+ * aspect can read them on every invocation without repeating the annotation lookup or the
+ * expression parsing.
+ */
+final class LogContextMetadata {
+
+  /** Shared marker for methods that have no applicable {@link LogContext}. */
+  static final LogContextMetadata NONE = new LogContextMetadata(new Entry[0], null, List.of());
+
+  private final Entry[] entries;
+  private final String[] parameterNames;
+  private final List<String> problems;
+  private final boolean requiresEvaluationContext;
+
+  LogContextMetadata(Entry[] entries, String[] parameterNames, List<String> problems) {
+    this.entries = entries;
+    this.parameterNames = parameterNames;
+    this.problems = problems;
+    boolean spel = false;
+    for (Entry entry : entries) {
+      spel |= entry.extractor() == null;
+    }
+    this.requiresEvaluationContext = spel;
+  }
+
+  /**
+   * Returns the parsed "key=expression" entries, in declaration order.
+   *
+   * @return the entries; callers must not modify the array
+   */
+  Entry[] entries() {
+    return entries;
+  }
+
+  boolean isEmpty() {
+    return entries.length == 0;
+  }
+
+  /**
+   * Returns the parameter names of the advised method, used to bind expression variables.
+   *
+   * @return the parameter names, or null if they are not available at runtime
+   */
+  String[] parameterNames() {
+    return parameterNames;
+  }
+
+  /**
+   * Returns whether at least one entry has no generated extractor and must be evaluated with SpEL.
+   *
+   * @return true if an evaluation context has to be prepared for the call
+   */
+  boolean requiresEvaluationContext() {
+    return requiresEvaluationContext;
+  }
+
+  /**
+   * Returns the declarations that were rejected while building this metadata: entries without a
+   * '=' separator, unparsable expressions and duplicate keys.
+   *
+   * @return a description of each rejected declaration, empty if all were valid
+   */
+  List<String> problems() {
+    return problems;
+  }
+
+  /**
+   * A single parsed "key=expression" declaration, with the generated extractor for it if the
+   * {@code logging-processor} produced one, and the JSON type of its values if it is known.
+   */
+  static final class Entry {
+    private final String key;
+    private final String source;
+    private final Expression expression;
+    private final LogContextExtractor extractor;
+    private final ValueType type;
+
+    Entry(String key, String source, Expression expression, LogContextExtractor extractor,
+          ValueType type) {
+      this.key = key;
+      this.source = source;
+      this.expression = expression;
+      this.extractor = extractor;
+      this.type = type;
+    }
+
+    String key() {
+      return key;
+    }
+
+    String source() {
+      return source;
+    }
+
+    Expression expression() {
+      return expression;
+    }
+
+    LogContextExtractor extractor() {
+      return extractor;
+    }
+
+    /**
+     * Returns the JSON type of the values, resolved from the declared type of the property path.
+     *
+     * @return the type, or {@code null} if the values are written as strings
+     */
+    ValueType type() {
+      return type;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Resolves and parses every {@link LogContext} declaration in the application context once all
+ * singletons have been created, so that the first advised call finds a ready-made entry in the
+ * {@link LogContextRegistry} and invalid declarations are reported at startup instead of at
+ * runtime.
+ *
+ * <p>Every bean class that carries the annotation on the class or on one of its methods is
+ * resolved for each of its overridable methods and for the methods of the interfaces it
+ * implements, which covers both CGLIB and JDK proxies. Depending on configuration, invalid
+ * declarations either fail the startup or are only logged; in both cases they are left out of the
+ * cached metadata, so the hot path never sees them. Compiled SpEL still needs one evaluation to
+ * learn the runtime types, so bytecode compilation happens on the first call.
+ */
+@Slf4j
+public class LogContextPrecompiler implements SmartInitializingSingleton {
+
+  private final ConfigurableListableBeanFactory beanFactory;
+  private final LogContextRegistry registry;
+  private final boolean failOnInvalid;
+
+  /**
+   * Creates the precompiler.
+   *
+   * @param beanFactory the bean factory whose beans are scanned
+   * @param registry the registry to populate
+   * @param failOnInvalid whether an invalid declaration should fail the startup
+   */
+  public LogContextPrecompiler(
+      ConfigurableListableBeanFactory beanFactory, LogContextRegistry registry, boolean failOnInvalid) {
+    this.beanFactory = beanFactory;
+    this.registry = registry;
+    this.failOnInvalid = failOnInvalid;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    final Set<String> problems = new LinkedHashSet<>();
+    int methods = 0;
+
+    for (String beanName : beanFactory.getBeanNamesForType(Object.class, true, false)) {
+      final Class<?> userClass = resolveUserClass(beanName);
+      if (userClass == null || !hasLogContext(userClass)) {
+        continue;
+      }
+
+      for (Method method : ReflectionUtils.getUniqueDeclaredMethods(
+          userClass, ReflectionUtils.USER_DECLARED_METHODS)) {
+        if (isAdvisable(method)) {
+          methods += precompile(method, userClass, problems);
+        }
+      }
+      for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(userClass)) {
+        for (Method method : ifc.getMethods()) {
+          if (isAdvisable(method)) {
+            methods += precompile(method, userClass, problems);
+          }
+        }
+      }
+    }
+
+    log.debug("Precompiled @LogContext expressions for {} methods", methods);
+    if (failOnInvalid && !problems.isEmpty()) {
+      throw new IllegalStateException(
+          "Invalid @LogContext declarations found:\n" + String.join("\n", problems));
+    }
+  }
+
+  private int precompile(Method method, Class<?> userClass, Collection<String> problems) {
+    final LogContextMetadata metadata = registry.resolve(method, userClass);
+    problems.addAll(metadata.problems());
+    return metadata.isEmpty() ? 0 : 1;
+  }
+
+  private Class<?> resolveUserClass(String beanName) {
+    if (beanFactory.containsSingleton(beanName)) {
+      final Object singleton = beanFactory.getSingleton(beanName);
+      if (singleton != null) {
+        return AopProxyUtils.ultimateTargetClass(singleton);
+      }
+    }
+    final Class<?> type = beanFactory.getType(beanName, false);
+    return type != null ? ClassUtils.getUserClass(type) : null;
+  }
+
+  private static boolean hasLogContext(Class<?> userClass) {
+    if (!AnnotationUtils.isCandidateClass(userClass, LogContext.class)) {
+      return false;
+    }
+    if (AnnotationUtils.findAnnotation(userClass, LogContext.class) != null) {
+      return true;
+    }
+    for (Method method : ReflectionUtils.getUniqueDeclaredMethods(
+        userClass, ReflectionUtils.USER_DECLARED_METHODS)) {
+      if (AnnotationUtils.findAnnotation(method, LogContext.class) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isAdvisable(Method method) {
+    final int modifiers = method.getModifiers();
+    return !Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers);
+  }
+}
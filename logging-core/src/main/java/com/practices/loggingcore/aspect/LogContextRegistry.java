@@ -0,0 +1,277 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.ValueType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Resolves and caches the {@link LogContext} that applies to an advised method, together with its
+ * parsed expressions.
+ *
+ * <p>Resolution follows the order the aspect has always used: the annotation on the invoked
+ * method, then the annotation on the matching public method of the target class, then the
+ * annotation on the target class itself. Each "key=expression" entry is split and parsed once,
+ * the method's parameter names are discovered once, and the result is cached per target class and
+ * method, so only the first invocation pays for the annotation lookups, reflection and parsing.
+ * Later invocations are two lock-free map reads and do not allocate. Invalid declarations (no '='
+ * separator, unparsable SpEL, a key declared twice) are reported once when the method is resolved
+ * and left out of the cached metadata; for a repeated key the first declaration wins.
+ *
+ * <p>When the {@code logging-processor} annotation processor generated a
+ * {@link LogContextExtractors} class for the target class (or the class declaring the method), each
+ * entry it translated is read through the generated {@link LogContextExtractor} instead of SpEL.
+ *
+ * <p>Entries that are a parameter reference or property path, such as {@code #user.id}, get the
+ * JSON type of the declared type they end in: a key read from a {@code long} property is
+ * registered as {@link ValueType#LONG} once, when the method is resolved, and its values are
+ * written as JSON numbers. Properties are resolved like SpEL and the {@code logging-processor}
+ * resolve them. Other expressions are written as strings.
+ *
+ * <p>The parser can run in any {@link SpelCompilerMode}. With {@link SpelCompilerMode#MIXED} or
+ * {@link SpelCompilerMode#IMMEDIATE}, hot expressions such as {@code #user.id} are compiled to
+ * bytecode after their first evaluation.
+ */
+@Slf4j
+public class LogContextRegistry {
+
+  private static final LogContextExtractors NO_EXTRACTORS = (method, expression) -> null;
+  private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER =
+      new DefaultParameterNameDiscoverer();
+
+  private final ExpressionParser expressionParser;
+
+  private final ClassValue<LogContextExtractors> generatedExtractors = new ClassValue<>() {
+    @Override
+    protected LogContextExtractors computeValue(Class<?> type) {
+      return loadGeneratedExtractors(type);
+    }
+  };
+
+  private final ClassValue<Map<Method, LogContextMetadata>> cache = new ClassValue<>() {
+    @Override
+    protected Map<Method, LogContextMetadata> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /** Creates a registry that interprets expressions without compiling them. */
+  public LogContextRegistry() {
+    this(SpelCompilerMode.OFF);
+  }
+
+  /**
+   * Creates a registry whose expressions are parsed with the given compiler mode.
+   *
+   * @param compilerMode the SpEL compiler mode to use for every parsed expression
+   */
+  public LogContextRegistry(final SpelCompilerMode compilerMode) {
+    this.expressionParser =
+        new SpelExpressionParser(new SpelParserConfiguration(compilerMode, null));
+  }
+
+  /**
+   * Returns the metadata for the given method when invoked on the given target class.
+   *
+   * @param method the invoked method, as reported by the join point
+   * @param targetClass the user class of the target object
+   * @return the resolved metadata, or {@link LogContextMetadata#NONE} if nothing is to be evaluated
+   */
+  LogContextMetadata resolve(Method method, Class<?> targetClass) {
+    final Map<Method, LogContextMetadata> methods = cache.get(targetClass);
+    final LogContextMetadata metadata = methods.get(method);
+    if (metadata != null) {
+      return metadata;
+    }
+    return methods.computeIfAbsent(method, m -> createMetadata(m, targetClass));
+  }
+
+  private LogContextMetadata createMetadata(Method method, Class<?> targetClass) {
+    final LogContext annotation = findAnnotation(method, targetClass);
+    if (annotation == null) {
+      return LogContextMetadata.NONE;
+    }
+
+    final String[] expressions = annotation.expressions();
+    final List<LogContextMetadata.Entry> entries = new ArrayList<>(expressions.length);
+    final List<String> problems = new ArrayList<>(0);
+    final Set<String> seenKeys = new HashSet<>();
+    final String[] parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+    for (String expression : expressions) {
+      int index = expression.indexOf('=');
+      if (index == -1) {
+        problems.add(String.format(
+            "Invalid expression format '%s' on %s. Expected format: key=#expression",
+            expression, method));
+        continue;
+      }
+
+      String key = expression.substring(0, index).trim();
+      String source = expression.substring(index + 1).trim();
+      if (!seenKeys.add(key)) {
+        problems.add(String.format(
+            "Duplicate key '%s' on %s. Skipping expression '%s'", key, method, source));
+        continue;
+      }
+
+      try {
+        ValueType type = ValueType.forType(declaredType(method, parameterNames, source));
+        entries.add(new LogContextMetadata.Entry(key, source,
+            expressionParser.parseExpression(source), findExtractor(method, targetClass, source),
+            type));
+        if (type != null) {
+          ValueType.register(key, type);
+        }
+      } catch (ParseException e) {
+        problems.add(String.format("Failed to parse expression '%s' for key '%s' on %s: %s",
+            source, key, method, e.getMessage()));
+      }
+    }
+
+    problems.forEach(log::warn);
+    if (entries.isEmpty() && problems.isEmpty()) {
+      return LogContextMetadata.NONE;
+    }
+    return new LogContextMetadata(entries.toArray(new LogContextMetadata.Entry[0]),
+        parameterNames, List.copyOf(problems));
+  }
+
+  /**
+   * Returns the declared type a parameter reference or property path ends in, or {@code null} if
+   * the expression is anything else or a property cannot be found.
+   */
+  private static Class<?> declaredType(Method method, String[] parameterNames, String source) {
+    if (parameterNames == null || !source.startsWith("#")) {
+      return null;
+    }
+    final String[] segments = source.substring(1).split("\\.", -1);
+    Class<?> type = null;
+    for (int i = 0; i < parameterNames.length; i++) {
+      if (parameterNames[i].equals(segments[0])) {
+        type = method.getParameterTypes()[i];
+        break;
+      }
+    }
+    for (int i = 1; i < segments.length && type != null; i++) {
+      type = propertyType(type, segments[i]);
+    }
+    return type;
+  }
+
+  private static Class<?> propertyType(Class<?> type, String property) {
+    if (property.isEmpty()) {
+      return null;
+    }
+    final String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    Method getter = findGetter(type, "get" + suffix);
+    if (getter == null) {
+      getter = findGetter(type, "is" + suffix);
+      if (getter != null && ValueType.forType(getter.getReturnType()) != ValueType.BOOLEAN) {
+        getter = null;
+      }
+    }
+    if (getter == null) {
+      getter = findGetter(type, property);
+    }
+    if (getter != null) {
+      return getter.getReturnType();
+    }
+    try {
+      final Field field = type.getField(property);
+      return Modifier.isStatic(field.getModifiers()) ? null : field.getType();
+    } catch (NoSuchFieldException e) {
+      return null;
+    }
+  }
+
+  private static Method findGetter(Class<?> type, String name) {
+    try {
+      final Method getter = type.getMethod(name);
+      return Modifier.isStatic(getter.getModifiers()) || getter.getReturnType() == void.class
+          ? null
+          : getter;
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  private LogContextExtractor findExtractor(Method method, Class<?> targetClass, String source) {
+    final String signature = signature(method);
+    if (signature == null) {
+      return null;
+    }
+    LogContextExtractor extractor = generatedExtractors.get(targetClass).find(signature, source);
+    if (extractor == null && method.getDeclaringClass() != targetClass) {
+      extractor = generatedExtractors.get(method.getDeclaringClass()).find(signature, source);
+    }
+    return extractor;
+  }
+
+  private static String signature(Method method) {
+    final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+    final Class<?>[] parameterTypes = method.getParameterTypes();
+    for (int i = 0; i < parameterTypes.length; i++) {
+      final String name = parameterTypes[i].getCanonicalName();
+      if (name == null) {
+        return null;
+      }
+      signature.append(i > 0 ? "," : "").append(name);
+    }
+    return signature.append(')').toString();
+  }
+
+  private static LogContextExtractors loadGeneratedExtractors(Class<?> type) {
+    final String packageName = ClassUtils.getPackageName(type);
+    final String className = (packageName.isEmpty() ? "" : packageName + '.')
+        + ClassUtils.getShortName(type).replace('.', '_')
+        + LogContextExtractors.CLASS_NAME_SUFFIX;
+    try {
+      return BeanUtils.instantiateClass(
+          ClassUtils.forName(className, type.getClassLoader()), LogContextExtractors.class);
+    } catch (ClassNotFoundException e) {
+      return NO_EXTRACTORS;
+    } catch (LinkageError | BeanInstantiationException e) {
+      log.warn("Ignoring generated @LogContext extractors {}: {}", className, e.getMessage());
+      return NO_EXTRACTORS;
+    }
+  }
+
+  private static LogContext findAnnotation(Method method, Class<?> targetClass) {
+    // find method-level annotation
+    LogContext annotation = AnnotationUtils.findAnnotation(method, LogContext.class);
+
+    // check the target class
+    if (annotation == null && targetClass != method.getDeclaringClass()) {
+      try {
+        Method targetMethod = targetClass.getMethod(method.getName(), method.getParameterTypes());
+        annotation = AnnotationUtils.findAnnotation(targetMethod, LogContext.class);
+      } catch (NoSuchMethodException e) {
+        // method not found on target class, continue
+      }
+    }
+
+    if (annotation == null) {
+      annotation = AnnotationUtils.findAnnotation(targetClass, LogContext.class);
+    }
+    return annotation;
+  }
+}
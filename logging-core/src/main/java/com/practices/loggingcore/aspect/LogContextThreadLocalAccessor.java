@@ -0,0 +1,138 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.core.LoggingContext;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ThreadLocalAccessor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Micrometer context-propagation accessor for the logging context, registered under
+ * {@link LogContextAsyncSupport#CONTEXT_KEY}.
+ *
+ * <p>Reactor's automatic context propagation ({@code spring.reactor.context-propagation=auto})
+ * and executors wrapped with {@code ContextSnapshot} use it to carry the logging context across
+ * thread hops, including the values that {@code @LogContext} and the reactive web filter write to
+ * the Reactor context.
+ *
+ * <p>Only the keys this library owns are captured: the keys written by the open
+ * {@code @LogContext} scopes and by earlier propagated values, and the keys given when the
+ * accessor is created, such as the keys the web filters map request headers to. Other MDC
+ * entries, such as the trace ids maintained by Micrometer Tracing, are propagated by their own
+ * accessors and never copied over a child observation's values.
+ *
+ * <p>Setting a value only writes the keys whose value differs from what the thread already holds,
+ * and restoring only puts those keys back; other keys, such as the trace ids maintained by
+ * Micrometer Tracing, are left alone. An event-loop thread that keeps running the same request
+ * therefore does not touch the MDC at all, and never replaces its whole map.
+ */
+public class LogContextThreadLocalAccessor
+    implements ThreadLocalAccessor<Map<String, String>>, AutoCloseable {
+
+  private final LoggingContext loggingContext;
+  private final String[] keys;
+  private ContextRegistry registry;
+
+  public LogContextThreadLocalAccessor(LoggingContext loggingContext) {
+    this(loggingContext, List.of());
+  }
+
+  /**
+   * Creates an accessor that also captures the given keys when they are set outside of a scope.
+   *
+   * @param loggingContext the context the accessor reads and writes
+   * @param keys the keys to capture besides the ones written by open scopes
+   */
+  public LogContextThreadLocalAccessor(LoggingContext loggingContext, Collection<String> keys) {
+    this.loggingContext = loggingContext;
+    this.keys = keys.toArray(String[]::new);
+  }
+
+  /**
+   * Creates an accessor and registers it with the given registry, replacing any accessor
+   * registered under the same key.
+   *
+   * @param registry the registry to register the accessor with
+   * @param loggingContext the context the accessor reads and writes
+   * @return the registered accessor, which removes itself when closed
+   */
+  public static LogContextThreadLocalAccessor register(ContextRegistry registry,
+                                                       LoggingContext loggingContext) {
+    return register(registry, loggingContext, List.of());
+  }
+
+  /**
+   * Creates an accessor that also captures the given keys and registers it with the given
+   * registry, replacing any accessor registered under the same key.
+   *
+   * @param registry the registry to register the accessor with
+   * @param loggingContext the context the accessor reads and writes
+   * @param keys the keys to capture besides the ones written by open scopes
+   * @return the registered accessor, which removes itself when closed
+   */
+  public static LogContextThreadLocalAccessor register(ContextRegistry registry,
+                                                       LoggingContext loggingContext,
+                                                       Collection<String> keys) {
+    LogContextThreadLocalAccessor accessor =
+        new LogContextThreadLocalAccessor(loggingContext, keys);
+    registry.registerThreadLocalAccessor(accessor);
+    accessor.registry = registry;
+    return accessor;
+  }
+
+  @Override
+  public Object key() {
+    return LogContextAsyncSupport.CONTEXT_KEY;
+  }
+
+  /**
+   * Returns the captured keys and their values. While the thread still holds the values it was
+   * handed, the map it was handed is returned again rather than a copy.
+   */
+  @Override
+  public Map<String, String> getValue() {
+    Map<String, String> values = LogContextFrames.current().captureAll(loggingContext, keys);
+    return values.isEmpty() ? null : values;
+  }
+
+  @Override
+  public void setValue(Map<String, String> value) {
+    LogContextFrames.current().push(loggingContext, value);
+  }
+
+  /**
+   * Opens a scope that removes the captured keys, because the propagated context holds none of
+   * them. The matching {@link #restore()} puts them back. Other keys are left alone, because they
+   * are not owned by this accessor.
+   */
+  @Override
+  public void setValue() {
+    LogContextFrames.current().pushCleared(loggingContext, keys);
+  }
+
+  @Override
+  public void restore(Map<String, String> previousValue) {
+    LogContextFrames.current().pop();
+  }
+
+  @Override
+  public void restore() {
+    LogContextFrames.current().pop();
+  }
+
+  /**
+   * Removes the accessor from the registry it was registered with, unless another accessor has
+   * replaced it there since.
+   */
+  @Override
+  public void close() {
+    if (registry != null) {
+      if (registry.getThreadLocalAccessors().contains(this)) {
+        registry.removeThreadLocalAccessor(LogContextAsyncSupport.CONTEXT_KEY);
+      }
+      registry = null;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.practices.loggingcore.aspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.practices.loggingcore.annotation.LogContext;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter that evaluates deferred {@link LogContext} values right before a log event
+ * is created, so they are in the MDC when appenders and encoders read it.
+ *
+ * <p>The filter never changes the outcome of a log call. It only evaluates pending scopes when the
+ * logger is enabled for the requested level, so disabled debug statements stay free. It can be
+ * installed programmatically with {@link #install(LoggerContext)} or declared in the Logback
+ * configuration:
+ * <pre>
+ * {@code
+ * <turboFilter class="com.practices.loggingcore.aspect.LogContextTurboFilter"/>
+ * }
+ * </pre>
+ */
+public class LogContextTurboFilter extends TurboFilter implements AutoCloseable {
+
+  /**
+   * Creates, starts and adds a filter to the given logger context.
+   *
+   * @param loggerContext the Logback context to install the filter in
+   * @return the installed filter, which removes itself when closed
+   */
+  public static LogContextTurboFilter install(LoggerContext loggerContext) {
+    LogContextTurboFilter filter = new LogContextTurboFilter();
+    filter.setName("logContextTurboFilter");
+    filter.setContext(loggerContext);
+    filter.start();
+    loggerContext.addTurboFilter(filter);
+    return filter;
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                            Object[] params, Throwable t) {
+    // Logger#isEnabledFor would call the turbo filters again, so compare with the effective level
+    if (level != null && level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      // threads that never opened a scope, such as most framework threads, get no frame stack
+      LogContextFrames frames = LogContextFrames.peek();
+      if (frames != null && frames.hasPending()) {
+        frames.materialize();
+      }
+    }
+    return FilterReply.NEUTRAL;
+  }
+
+  /**
+   * Stops the filter and removes it from the logger context it was installed in.
+   */
+  @Override
+  public void close() {
+    stop();
+    if (getContext() instanceof LoggerContext loggerContext) {
+      loggerContext.getTurboFilterList().remove(this);
+    }
+  }
+}
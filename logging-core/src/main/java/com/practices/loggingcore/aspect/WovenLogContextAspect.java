@@ -0,0 +1,73 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import org.aspectj.lang.Aspects;
+import org.aspectj.lang.NoAspectBoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * AspectJ variant of {@link LogContextAspect}, meant to be woven into the annotated classes at
+ * compile time (ajc) or load time (the AspectJ weaver agent) instead of being applied through
+ * Spring AOP proxies.
+ *
+ * <p>Woven advice runs without proxy dispatch or a reflective invocation chain, and it also
+ * applies to self-invocations and to beans that are not proxied at all. The evaluation itself is
+ * the same as in {@link LogContextAspect}.
+ *
+ * <p>The aspect is compiled by javac, so it is finished by the load-time weaver. Start the JVM with
+ * {@code -javaagent:aspectjweaver.jar} and either list it in your own {@code META-INF/aop.xml},
+ * with an {@code include} for your packages, or point
+ * {@code -Dorg.aspectj.weaver.loadtime.configuration} at {@code META-INF/aop-log-manager.xml}.
+ * Then set {@code log-manager.context.weaving=aspectj}, so the proxy-based aspect is not
+ * registered as well and the woven instance is configured from the application context.
+ */
+@Aspect
+public class WovenLogContextAspect {
+
+  private volatile LogContextAspect delegate = new LogContextAspect(new MdcLoggingContext());
+
+  /**
+   * Returns the singleton instance created by the weaver. This is not named {@code aspectOf},
+   * because the weaver adds a method with that name.
+   *
+   * @return the woven aspect instance
+   * @throws IllegalStateException if the aspect has not been woven
+   */
+  public static WovenLogContextAspect instance() {
+    try {
+      return Aspects.aspectOf(WovenLogContextAspect.class);
+    } catch (NoAspectBoundException e) {
+      throw new IllegalStateException("WovenLogContextAspect has not been woven; start the JVM"
+          + " with the AspectJ weaver agent and an aop.xml that lists it", e);
+    }
+  }
+
+  /**
+   * Replaces the context, registry and evaluation mode used by the woven advice. Until this is
+   * called, values are written to the MDC with a private registry.
+   *
+   * @param loggingContext the context the evaluated values are written to
+   * @param registry the cache of resolved annotations and parsed expressions
+   * @param deferred whether to evaluate lazily on the first enabled log call
+   */
+  public void configure(LoggingContext loggingContext, LogContextRegistry registry,
+                        boolean deferred) {
+    this.delegate = new LogContextAspect(loggingContext, registry, deferred);
+  }
+
+  /**
+   * Populates the {@link LoggingContext} for the duration of a {@link LogContext} method.
+   *
+   * @param joinPoint The woven join point of the annotated method.
+   * @return The result of the method execution.
+   * @throws Throwable If the method throws any exception.
+   */
+  @Around("execution(* *(..)) && (@annotation(com.practices.loggingcore.annotation.LogContext) || @within(com.practices.loggingcore.annotation.LogContext))")
+  public Object addInformationFromExpression(ProceedingJoinPoint joinPoint) throws Throwable {
+    return delegate.addInformationFromExpression(joinPoint);
+  }
+}
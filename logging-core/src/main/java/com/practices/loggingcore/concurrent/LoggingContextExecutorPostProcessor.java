@@ -0,0 +1,75 @@
+package com.practices.loggingcore.concurrent;
+
+import com.practices.loggingcore.core.LoggingContext;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.task.TaskExecutor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Wraps {@link ExecutorService} beans, including {@link java.util.concurrent.ForkJoinPool} and
+ * {@link java.util.concurrent.ScheduledExecutorService} beans, with
+ * {@link LoggingContextExecutors}, so tasks submitted to them keep the logging context.
+ *
+ * <p>The wrappers implement {@link ExecutorService}, or
+ * {@link java.util.concurrent.ScheduledExecutorService} for scheduled executors, so a bean is
+ * only wrapped when the type it is declared with, such as the return type of its {@code @Bean}
+ * method, is one of these interfaces. Beans declared with a class, such as a {@code ForkJoinPool}
+ * or a {@code ThreadPoolExecutor}, keep that type and are left alone, since consumers may inject
+ * them by it; declare them as {@link ExecutorService} to have them wrapped. Spring
+ * {@link TaskExecutor} beans are left alone too; they are decorated with
+ * {@link LoggingContextTaskDecorator} instead.
+ */
+public class LoggingContextExecutorPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+  private final ObjectProvider<LoggingContext> loggingContext;
+  private ConfigurableListableBeanFactory beanFactory;
+
+  public LoggingContextExecutorPostProcessor(ObjectProvider<LoggingContext> loggingContext) {
+    this.loggingContext = loggingContext;
+  }
+
+  @Override
+  public void setBeanFactory(BeanFactory beanFactory) {
+    if (beanFactory instanceof ConfigurableListableBeanFactory listableBeanFactory) {
+      this.beanFactory = listableBeanFactory;
+    }
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName)
+      throws BeansException {
+    if (bean instanceof ExecutorService executorService && !(bean instanceof TaskExecutor)) {
+      Class<?> declaredType = declaredType(beanName);
+      ExecutorService wrapped =
+          LoggingContextExecutors.wrap(executorService, loggingContext.getObject());
+      if (declaredType != null && declaredType.isInstance(wrapped)) {
+        return wrapped;
+      }
+    }
+    return bean;
+  }
+
+  private Class<?> declaredType(String beanName) {
+    if (beanFactory == null || !beanFactory.containsBeanDefinition(beanName)) {
+      return null;
+    }
+    BeanDefinition definition = beanFactory.getMergedBeanDefinition(beanName);
+    if (!(definition instanceof RootBeanDefinition root)) {
+      return null;
+    }
+    Method factoryMethod = root.getResolvedFactoryMethod();
+    if (factoryMethod != null) {
+      return factoryMethod.getReturnType();
+    }
+    return root.hasBeanClass() ? root.getBeanClass() : null;
+  }
+}
@@ -0,0 +1,254 @@
+package com.practices.loggingcore.concurrent;
+
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextScope;
+import com.practices.loggingcore.core.LoggingContextSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Wraps executors so that tasks run with the logging context of the thread that submitted them.
+ *
+ * <p>The context is captured once per submitted task and restored around it on the worker thread,
+ * in a scope of its own, then the worker's own context is put back. A {@link java.util.concurrent.ForkJoinPool} can be
+ * wrapped like any other {@link ExecutorService}; tasks it forks internally, such as those of a
+ * parallel stream, are not submitted through the wrapper and should restore a
+ * {@link LoggingContextSnapshot} themselves.
+ */
+public final class LoggingContextExecutors {
+
+  private LoggingContextExecutors() {
+  }
+
+  /**
+   * Wraps an executor.
+   *
+   * @param executor the executor to wrap
+   * @param loggingContext the context to capture on submission
+   * @return the wrapping executor
+   */
+  public static Executor wrap(Executor executor, LoggingContext loggingContext) {
+    if (executor instanceof ExecutorService executorService) {
+      return wrap(executorService, loggingContext);
+    }
+    return task -> executor.execute(propagate(loggingContext, task));
+  }
+
+  /**
+   * Wraps an executor service. Shutting down the wrapper shuts down {@code executorService}.
+   *
+   * @param executorService the executor service to wrap
+   * @param loggingContext the context to capture on submission
+   * @return the wrapping executor service
+   */
+  public static ExecutorService wrap(ExecutorService executorService,
+                                     LoggingContext loggingContext) {
+    if (executorService instanceof ContextExecutorService) {
+      return executorService;
+    }
+    if (executorService instanceof ScheduledExecutorService scheduledExecutorService) {
+      return wrap(scheduledExecutorService, loggingContext);
+    }
+    return new ContextExecutorService(executorService, loggingContext);
+  }
+
+  /**
+   * Wraps a scheduled executor service. Scheduled tasks run with the context captured when they
+   * were scheduled, on every run of a periodic task. Shutting down the wrapper shuts down
+   * {@code executorService}.
+   *
+   * @param executorService the scheduled executor service to wrap
+   * @param loggingContext the context to capture on submission
+   * @return the wrapping scheduled executor service
+   */
+  public static ScheduledExecutorService wrap(ScheduledExecutorService executorService,
+                                              LoggingContext loggingContext) {
+    if (executorService instanceof ContextScheduledExecutorService) {
+      return executorService;
+    }
+    return new ContextScheduledExecutorService(executorService, loggingContext);
+  }
+
+  /**
+   * Captures the context now and returns a task that runs {@code task} with it restored.
+   *
+   * @param loggingContext the context to capture and restore
+   * @param task the task to wrap
+   * @return the wrapped task
+   */
+  public static Runnable propagate(LoggingContext loggingContext, Runnable task) {
+    return propagate(loggingContext, loggingContext.capture(), task);
+  }
+
+  /**
+   * Captures the context now and returns a task that calls {@code task} with it restored.
+   *
+   * @param loggingContext the context to capture and restore
+   * @param task the task to wrap
+   * @param <V> the result type
+   * @return the wrapped task
+   */
+  public static <V> Callable<V> propagate(LoggingContext loggingContext, Callable<V> task) {
+    return propagate(loggingContext, loggingContext.capture(), task);
+  }
+
+  private static Runnable propagate(LoggingContext loggingContext,
+                                    LoggingContextSnapshot snapshot, Runnable task) {
+    return () -> loggingContext.runInScope(() -> {
+      try (LoggingContextScope ignored = loggingContext.restore(snapshot)) {
+        task.run();
+      }
+    });
+  }
+
+  private static <V> Callable<V> propagate(LoggingContext loggingContext,
+                                           LoggingContextSnapshot snapshot, Callable<V> task) {
+    return () -> {
+      List<V> result = new ArrayList<>(1);
+      loggingContext.runInScope(() -> {
+        try (LoggingContextScope ignored = loggingContext.restore(snapshot)) {
+          result.add(task.call());
+        }
+      });
+      return result.get(0);
+    };
+  }
+
+  private static class ContextExecutorService implements ExecutorService {
+    private final ExecutorService delegate;
+    final LoggingContext loggingContext;
+
+    ContextExecutorService(ExecutorService delegate, LoggingContext loggingContext) {
+      this.delegate = delegate;
+      this.loggingContext = loggingContext;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      delegate.execute(propagate(loggingContext, command));
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+      return delegate.submit(propagate(loggingContext, task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+      return delegate.submit(propagate(loggingContext, task), result);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+      return delegate.submit(propagate(loggingContext, task));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException {
+      return delegate.invokeAll(wrapAll(tasks));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout,
+                                         TimeUnit unit) throws InterruptedException {
+      return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+      return delegate.invokeAny(wrapAll(tasks));
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+      return "LoggingContextExecutors[" + delegate + "]";
+    }
+
+    private <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+      LoggingContextSnapshot snapshot = loggingContext.capture();
+      List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+      for (Callable<T> task : tasks) {
+        wrapped.add(propagate(loggingContext, snapshot, task));
+      }
+      return wrapped;
+    }
+  }
+  private static final class ContextScheduledExecutorService extends ContextExecutorService
+      implements ScheduledExecutorService {
+    private final ScheduledExecutorService delegate;
+
+    ContextScheduledExecutorService(ScheduledExecutorService delegate,
+                                    LoggingContext loggingContext) {
+      super(delegate, loggingContext);
+      this.delegate = delegate;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      return delegate.schedule(propagate(loggingContext, command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+      return delegate.schedule(propagate(loggingContext, callable), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
+                                                  long period, TimeUnit unit) {
+      return delegate.scheduleAtFixedRate(propagate(loggingContext, command), initialDelay,
+          period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
+                                                     long delay, TimeUnit unit) {
+      return delegate.scheduleWithFixedDelay(propagate(loggingContext, command), initialDelay,
+          delay, unit);
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.practices.loggingcore.concurrent;
+
+import com.practices.loggingcore.core.LoggingContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples the logging context of pooled threads where it should be empty, at the start of a
+ * request or of an executor task, and reports the keys that earlier work on the thread left
+ * behind.
+ *
+ * <p>Work that sets the logging context outside a request or a wrapped task, such as a scheduled
+ * method or a message listener, and does not clear it, leaks its keys onto the pooled thread, and
+ * every later log event on that thread carries them. Only one check in {@code sampleRate} looks at
+ * the context at all, and that look does not copy it, so the detector can stay on in production.
+ *
+ * <p>Each leaked key is counted in the {@code log-manager.context.leaks} counter, tagged with the
+ * key and the boundary it was found at, logged once, and listed with the name of the last thread
+ * it was found on by {@code LoggingContextLeaksEndpoint}. Thread names usually tell which pool,
+ * and so which kind of work, leaked it.
+ */
+@Slf4j
+public class LoggingContextLeakDetector {
+
+  /** Name of the counter of leaked keys. */
+  public static final String METRIC_NAME = "log-manager.context.leaks";
+
+  // keys beyond this many are counted together, so a leak of generated keys stays bounded
+  private static final int MAX_KEYS = 64;
+  private static final String OTHER_KEYS = "other";
+
+  private final LoggingContext loggingContext;
+  private final int sampleRate;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Leak> leaks = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a detector.
+   *
+   * @param loggingContext the context to check
+   * @param sampleRate how many checks there are for each one that looks at the context; 1 checks
+   *     every time
+   * @param meterRegistry the registry of the leak counter, or {@code null} for none
+   */
+  public LoggingContextLeakDetector(LoggingContext loggingContext, int sampleRate,
+                                    MeterRegistry meterRegistry) {
+    if (sampleRate < 1) {
+      throw new IllegalArgumentException("sampleRate must be at least 1, was " + sampleRate);
+    }
+    this.loggingContext = loggingContext;
+    this.sampleRate = sampleRate;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Checks, if this call is sampled, that the logging context of the current thread is empty, as
+   * it should be where {@code boundary} starts, and reports the keys it holds otherwise.
+   *
+   * @param boundary where the check is made, such as {@code request} or {@code task}
+   */
+  public void check(String boundary) {
+    if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+      return;
+    }
+    Map<String, String> values = loggingContext.capture().asMap();
+    if (values.isEmpty()) {
+      return;
+    }
+    String thread = Thread.currentThread().getName();
+    for (String key : values.keySet()) {
+      report(key, boundary, thread);
+    }
+  }
+
+  /**
+   * Returns the keys found leaked so far, most frequent first.
+   *
+   * @return a copy of the recorded leaks
+   */
+  public List<Leak> leaks() {
+    List<Leak> found = new ArrayList<>(leaks.values());
+    found.sort(Comparator.comparingLong(Leak::getCount).reversed());
+    return found;
+  }
+
+  private void report(String key, String boundary, String thread) {
+    Leak leak = leaks.get(key);
+    if (leak == null) {
+      if (leaks.size() >= MAX_KEYS) {
+        leak = leaks.computeIfAbsent(OTHER_KEYS, Leak::new);
+      } else {
+        leak = leaks.computeIfAbsent(key, Leak::new);
+        if (leak.getCount() == 0) {
+          log.warn("Logging context key '{}' leaked onto thread {}, found at the start of a {}",
+              key, thread, boundary);
+        }
+      }
+    }
+    leak.record(boundary, thread);
+    if (meterRegistry != null) {
+      Counter.builder(METRIC_NAME)
+          .description("Logging context keys found left behind on pooled threads")
+          .tag("key", leak.getKey())
+          .tag("boundary", boundary)
+          .register(meterRegistry)
+          .increment();
+    }
+  }
+
+  /**
+   * A logging context key found leaked, with where it was found last.
+   */
+  public static final class Leak {
+    private final String key;
+    private final AtomicLong count = new AtomicLong();
+    private volatile String boundary;
+    private volatile String thread;
+    private volatile Instant lastSeen;
+
+    Leak(String key) {
+      this.key = key;
+    }
+
+    void record(String boundary, String thread) {
+      this.boundary = boundary;
+      this.thread = thread;
+      this.lastSeen = Instant.now();
+      count.incrementAndGet();
+    }
+
+    /** Returns the leaked key, or {@code other} for keys beyond the tracked ones. */
+    public String getKey() {
+      return key;
+    }
+
+    /** Returns how many sampled checks found the key. */
+    public long getCount() {
+      return count.get();
+    }
+
+    /** Returns the boundary the key was last found at. */
+    public String getBoundary() {
+      return boundary;
+    }
+
+    /** Returns the name of the thread the key was last found on. */
+    public String getThread() {
+      return thread;
+    }
+
+    /** Returns when the key was last found. */
+    public Instant getLastSeen() {
+      return lastSeen;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.practices.loggingcore.concurrent;
+
+import com.practices.loggingcore.core.LoggingContext;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Task decorator that runs every task with the logging context of the thread that submitted it.
+ *
+ * <p>Spring Boot applies a single {@link TaskDecorator} bean to the executors it auto-configures,
+ * which includes the one behind {@code @Async} methods. An executor built by hand can use it with
+ * {@code ThreadPoolTaskExecutor#setTaskDecorator}.
+ *
+ * <p>With a {@link LoggingContextLeakDetector}, each task first checks that the worker thread
+ * holds no context left behind by earlier work. A task that runs on the thread that submitted
+ * it, as with a synchronous executor or a {@code CallerRunsPolicy}, is not checked, since that
+ * thread holds the context of the submitting code on purpose.
+ */
+public class LoggingContextTaskDecorator implements TaskDecorator {
+
+  /** The boundary tasks are reported at. */
+  public static final String BOUNDARY = "task";
+
+  private final LoggingContext loggingContext;
+  private final LoggingContextLeakDetector leakDetector;
+
+  public LoggingContextTaskDecorator(LoggingContext loggingContext) {
+    this(loggingContext, null);
+  }
+
+  public LoggingContextTaskDecorator(LoggingContext loggingContext,
+                                     LoggingContextLeakDetector leakDetector) {
+    this.loggingContext = loggingContext;
+    this.leakDetector = leakDetector;
+  }
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    Runnable propagated = LoggingContextExecutors.propagate(loggingContext, runnable);
+    if (leakDetector == null) {
+      return propagated;
+    }
+    Thread submitter = Thread.currentThread();
+    return () -> {
+      if (Thread.currentThread() != submitter) {
+        leakDetector.check(BOUNDARY);
+      }
+      propagated.run();
+    };
+  }
+}
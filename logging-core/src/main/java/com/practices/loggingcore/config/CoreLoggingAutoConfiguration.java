@@ -1,28 +1,105 @@
 package com.practices.loggingcore.config;
 
+import ch.qos.logback.classic.LoggerContext;
 import com.practices.loggingcore.actuator.LiveLogsEndpoint;
+import com.practices.loggingcore.actuator.LoggingContextLeaksEndpoint;
 import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.aspect.LogContextAdvisor;
 import com.practices.loggingcore.aspect.LogContextAspect;
+import com.practices.loggingcore.aspect.LogContextPrecompiler;
+import com.practices.loggingcore.aspect.LogContextRegistry;
+import com.practices.loggingcore.aspect.LogContextThreadLocalAccessor;
+import com.practices.loggingcore.aspect.LogContextTurboFilter;
+import com.practices.loggingcore.aspect.WovenLogContextAspect;
+import com.practices.loggingcore.concurrent.LoggingContextExecutorPostProcessor;
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
+import com.practices.loggingcore.concurrent.LoggingContextTaskDecorator;
+import com.practices.loggingcore.core.ContextKey;
+import com.practices.loggingcore.core.ContextMdcFilter;
 import com.practices.loggingcore.core.LoggingContext;
 import com.practices.loggingcore.core.MdcLoggingContext;
+import com.practices.loggingcore.core.PersistentContextMdcFilter;
+import com.practices.loggingcore.core.PersistentLoggingContext;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.ClassUtils;
+
 
 /**
  * This is the autoconfiguration class for all logging aspects other than web configs.
  */
 @AutoConfiguration
 @EnableAspectJAutoProxy
+@EnableConfigurationProperties(LogManagerProperties.class)
 public class CoreLoggingAutoConfiguration {
   /**
-   * Provides the central bean for interacting with the logging context (MDC).
+   * Provides the central bean for interacting with the logging context (MDC). On virtual-thread
+   * deployments running on Java 25+, the context is kept in scoped values instead; see
+   * {@code log-manager.context.storage}, which can also select a persistent map per thread that
+   * log events share by reference. Declares the keys listed in
+   * {@code log-manager.context.keys} before the context is used.
    *
+   * @param environment The environment the storage is selected from.
+   * @param properties The logging manager configuration properties.
    * @return An implementation of {@link LoggingContext}.
    */
   @Bean
-  public LoggingContext loggingContext() {
-    return new MdcLoggingContext();
+  public LoggingContext loggingContext(final Environment environment,
+                                       final LogManagerProperties properties) {
+    properties.getContext().getKeys().forEach(ContextKey::of);
+    if (properties.getContext().getStorage() == LogManagerProperties.Storage.PERSISTENT) {
+      return new PersistentLoggingContext();
+    }
+    ClassLoader classLoader = CoreLoggingAutoConfiguration.class.getClassLoader();
+    if (!ScopedValueStorageCondition.isSelected(environment, classLoader)) {
+      return new MdcLoggingContext();
+    }
+    return (LoggingContext) BeanUtils.instantiateClass(ClassUtils.resolveClassName(
+        ScopedValueStorageCondition.SCOPED_VALUE_LOGGING_CONTEXT, classLoader));
+  }
+
+  /**
+   * Provides the cache of resolved {@link LogContext} annotations and their parsed expressions.
+   *
+   * @param properties The logging manager configuration properties.
+   * @return The registry bean.
+   */
+  @Bean
+  public LogContextRegistry logContextRegistry(final LogManagerProperties properties) {
+    return new LogContextRegistry(properties.getContext().getSpelCompilerMode());
+  }
+
+  /**
+   * Resolves and parses every {@link LogContext} declaration in the context at startup, so the
+   * aspect never has to do it on the first call and invalid declarations are reported early.
+   *
+   * @param beanFactory The bean factory whose beans are scanned.
+   * @param logContextRegistry The registry to populate.
+   * @param properties The logging manager configuration properties.
+   * @return The precompiler bean.
+   */
+  @Bean
+  public LogContextPrecompiler logContextPrecompiler(
+      final ConfigurableListableBeanFactory beanFactory,
+      final LogContextRegistry logContextRegistry,
+      final LogManagerProperties properties) {
+    return new LogContextPrecompiler(beanFactory, logContextRegistry,
+        properties.getContext().getValidation() == LogManagerProperties.ValidationMode.FAIL);
   }
 
   /**
@@ -30,11 +107,178 @@ public class CoreLoggingAutoConfiguration {
    * annotation. This bean is responsible for intercepting annotated methods and enriching the MDC.
    *
    * @param loggingContext The central logging context service.
+   * @param logContextRegistry The cache of resolved annotations and parsed expressions.
+   * @param properties The logging manager configuration properties.
    * @return The aspect bean.
    */
   @Bean
-  public LogContextAspect logContextAspect(final LoggingContext loggingContext) {
-    return new LogContextAspect(loggingContext);
+  @ConditionalOnProperty(prefix = "log-manager.context", name = "weaving", havingValue = "proxy",
+      matchIfMissing = true)
+  @Conditional(LogContextScopeCondition.Unscoped.class)
+  public LogContextAspect logContextAspect(
+      final LoggingContext loggingContext,
+      final LogContextRegistry logContextRegistry,
+      final LogManagerProperties properties) {
+    return new LogContextAspect(loggingContext, logContextRegistry,
+        properties.getContext().isDeferredEvaluation());
+  }
+
+  /**
+   * Provides the advisor that replaces the {@link LogContextAspect} bean when
+   * {@code log-manager.context.base-packages} is set, so only classes in those packages are
+   * matched against {@link LogContext} at startup.
+   *
+   * @param loggingContext The central logging context service.
+   * @param logContextRegistry The cache of resolved annotations and parsed expressions.
+   * @param properties The logging manager configuration properties.
+   * @return The advisor bean.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context", name = "weaving", havingValue = "proxy",
+      matchIfMissing = true)
+  @Conditional(LogContextScopeCondition.Scoped.class)
+  public LogContextAdvisor logContextAdvisor(
+      final LoggingContext loggingContext,
+      final LogContextRegistry logContextRegistry,
+      final LogManagerProperties properties) {
+    LogContextAspect aspect = new LogContextAspect(loggingContext, logContextRegistry,
+        properties.getContext().isDeferredEvaluation());
+    return new LogContextAdvisor(aspect, logContextRegistry,
+        properties.getContext().getBasePackages());
+  }
+
+  /**
+   * Configures the AspectJ-woven {@link LogContext} aspect with the shared context and registry.
+   * The woven instance is not proxied again, because Spring AOP skips aspects finished by ajc or
+   * the load-time weaver.
+   *
+   * @param loggingContext The central logging context service.
+   * @param logContextRegistry The cache of resolved annotations and parsed expressions.
+   * @param properties The logging manager configuration properties.
+   * @return The woven aspect instance.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context", name = "weaving", havingValue = "aspectj")
+  public WovenLogContextAspect wovenLogContextAspect(
+      final LoggingContext loggingContext,
+      final LogContextRegistry logContextRegistry,
+      final LogManagerProperties properties) {
+    WovenLogContextAspect aspect = WovenLogContextAspect.instance();
+    aspect.configure(loggingContext, logContextRegistry,
+        properties.getContext().isDeferredEvaluation());
+    return aspect;
+  }
+
+  /**
+   * Installs the Logback turbo filter that evaluates deferred {@link LogContext} values when an
+   * enabled log call is made. The filter is removed again when the context closes.
+   *
+   * @return The installed filter.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context", name = "deferred-evaluation",
+      havingValue = "true")
+  public LogContextTurboFilter logContextTurboFilter() {
+    return LogContextTurboFilter.install((LoggerContext) LoggerFactory.getILoggerFactory());
+  }
+
+  /**
+   * Adds the filter that hands the persistent map to log events to every appender, so events
+   * carry the context when {@code log-manager.context.storage=persistent} is selected. The
+   * filter stops when the context closes.
+   *
+   * @return The installed filter.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context", name = "storage",
+      havingValue = "persistent")
+  public PersistentContextMdcFilter persistentContextMdcFilter() {
+    return ContextMdcFilter.install((LoggerContext) LoggerFactory.getILoggerFactory(),
+        new PersistentContextMdcFilter());
+  }
+
+  /**
+   * Adds the filter that hands scoped values to log events to every appender, so events carry
+   * the context whenever the scoped-value storage is selected, including by
+   * {@code log-manager.context.storage=auto}. The filter stops when the context closes.
+   *
+   * @return The installed filter.
+   */
+  @Bean
+  @Conditional(ScopedValueStorageCondition.class)
+  public ContextMdcFilter scopedValueMdcFilter() {
+    ContextMdcFilter filter = (ContextMdcFilter) BeanUtils.instantiateClass(
+        ClassUtils.resolveClassName(ScopedValueStorageCondition.SCOPED_VALUE_MDC_FILTER,
+            CoreLoggingAutoConfiguration.class.getClassLoader()));
+    return ContextMdcFilter.install((LoggerContext) LoggerFactory.getILoggerFactory(), filter);
+  }
+
+  /**
+   * Provides the task decorator that Spring Boot applies to the executors it auto-configures, so
+   * {@code @Async} methods and other executor tasks run with the logging context of the caller.
+   * Backs off if the application defines its own decorator, which can delegate to
+   * {@link LoggingContextTaskDecorator}.
+   *
+   * @param loggingContext The central logging context service.
+   * @param leakDetector The leak detector that checks each task, if enabled.
+   * @return The task decorator bean.
+   */
+  @Bean
+  @ConditionalOnMissingBean(TaskDecorator.class)
+  public LoggingContextTaskDecorator loggingContextTaskDecorator(
+      final LoggingContext loggingContext,
+      final ObjectProvider<LoggingContextLeakDetector> leakDetector) {
+    return new LoggingContextTaskDecorator(loggingContext, leakDetector.getIfAvailable());
+  }
+
+  /**
+   * Provides the detector that samples the logging context at the start of requests and executor
+   * tasks and reports keys left behind on pooled threads.
+   *
+   * @param loggingContext The central logging context service.
+   * @param properties The logging manager configuration properties.
+   * @param meterRegistry The registry of the leak counter, if there is one.
+   * @return The leak detector bean.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context.leak-detection", name = "enabled",
+      havingValue = "true")
+  public LoggingContextLeakDetector loggingContextLeakDetector(
+      final LoggingContext loggingContext,
+      final LogManagerProperties properties,
+      final ObjectProvider<MeterRegistry> meterRegistry) {
+    return new LoggingContextLeakDetector(loggingContext,
+        properties.getContext().getLeakDetection().getSampleRate(),
+        meterRegistry.getIfAvailable());
+  }
+
+  /**
+   * Provides the Actuator endpoint that lists the keys the leak detector found.
+   *
+   * @param leakDetector The leak detector.
+   * @return The {@link LoggingContextLeaksEndpoint} bean.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context.leak-detection", name = "enabled",
+      havingValue = "true")
+  public LoggingContextLeaksEndpoint loggingContextLeaksEndpoint(
+      final LoggingContextLeakDetector leakDetector) {
+    return new LoggingContextLeaksEndpoint(leakDetector);
+  }
+
+  /**
+   * Wraps {@code ExecutorService} and {@code ForkJoinPool} beans so that submitted tasks keep the
+   * logging context. Static, so the post-processor does not initialize this configuration early.
+   *
+   * @param loggingContext The central logging context service, resolved on first use.
+   * @return The post-processor bean.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.context", name = "wrap-executors",
+      havingValue = "true")
+  public static LoggingContextExecutorPostProcessor loggingContextExecutorPostProcessor(
+      final ObjectProvider<LoggingContext> loggingContext) {
+    return new LoggingContextExecutorPostProcessor(loggingContext);
   }
 
   /**
@@ -46,4 +290,32 @@ public class CoreLoggingAutoConfiguration {
   public LiveLogsEndpoint liveLogsEndpoint() {
     return new LiveLogsEndpoint();
   }
+
+  /**
+   * Registers the logging context with Micrometer's global context-propagation registry, so
+   * Reactor's automatic context propagation and {@code ContextSnapshot}-wrapped executors carry
+   * the keys of the open {@code @LogContext} scopes across threads. Applies when
+   * context-propagation is on the classpath, unless
+   * {@code log-manager.context.propagation.enabled=false}. The web auto-configuration registers
+   * an accessor that carries the keys of the request headers as well in its place.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(ContextRegistry.class)
+  @ConditionalOnProperty(prefix = "log-manager.context.propagation", name = "enabled",
+      matchIfMissing = true)
+  static class ContextPropagationConfiguration {
+
+    /**
+     * Provides the accessor, which is unregistered again when the context closes.
+     *
+     * @param loggingContext The central logging context service.
+     * @return The registered accessor.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LogContextThreadLocalAccessor logContextThreadLocalAccessor(
+        final LoggingContext loggingContext) {
+      return LogContextThreadLocalAccessor.register(ContextRegistry.getInstance(), loggingContext);
+    }
+  }
 }
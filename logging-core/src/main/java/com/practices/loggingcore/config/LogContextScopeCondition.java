@@ -0,0 +1,51 @@
+package com.practices.loggingcore.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.List;
+
+/**
+ * Matches depending on whether {@code log-manager.context.base-packages} limits the classes that
+ * are considered for {@code @LogContext} proxies.
+ */
+abstract class LogContextScopeCondition extends SpringBootCondition {
+
+  private final boolean scoped;
+
+  LogContextScopeCondition(boolean scoped) {
+    this.scoped = scoped;
+  }
+
+  @Override
+  public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+    List<String> basePackages = Binder.get(context.getEnvironment())
+        .bind("log-manager.context.base-packages", Bindable.listOf(String.class))
+        .orElse(List.of());
+    ConditionMessage.Builder message = ConditionMessage.forCondition("@LogContext scope");
+    if (basePackages.isEmpty()) {
+      return new ConditionOutcome(!scoped, message.because("no base packages are configured"));
+    }
+    return new ConditionOutcome(scoped,
+        message.found("base package", "base packages").items(basePackages));
+  }
+
+  /** Matches when base packages are configured. */
+  static class Scoped extends LogContextScopeCondition {
+    Scoped() {
+      super(true);
+    }
+  }
+
+  /** Matches when no base packages are configured. */
+  static class Unscoped extends LogContextScopeCondition {
+    Unscoped() {
+      super(false);
+    }
+  }
+}
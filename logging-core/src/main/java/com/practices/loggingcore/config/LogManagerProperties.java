@@ -0,0 +1,424 @@
+package com.practices.loggingcore.config;
+
+import com.practices.loggingcore.annotation.LogContext;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the logging manager, bound from the {@code log-manager} prefix.
+ */
+@ConfigurationProperties(prefix = "log-manager")
+public class LogManagerProperties {
+
+  private final Context context = new Context();
+
+  private final Web web = new Web();
+
+  public Context getContext() {
+    return context;
+  }
+
+  public Web getWeb() {
+    return web;
+  }
+
+  /** Settings for the {@link LogContext} annotation support. */
+  public static class Context {
+
+    /**
+     * The SpEL compiler mode used for {@link LogContext} expressions. {@code MIXED} compiles hot
+     * expressions to bytecode and falls back to interpretation if compilation fails;
+     * {@code IMMEDIATE} compiles as soon as possible and fails the call if it cannot.
+     */
+    private SpelCompilerMode spelCompilerMode = SpelCompilerMode.OFF;
+
+    /**
+     * What to do with invalid {@link LogContext} declarations found at startup. They are always
+     * left out of the evaluated expressions.
+     */
+    private ValidationMode validation = ValidationMode.WARN;
+
+    /**
+     * Whether {@link LogContext} expressions are only evaluated the first time an enabled log
+     * call runs inside the annotated method, instead of on every call. Methods that do not log
+     * then skip the evaluation entirely.
+     */
+    private boolean deferredEvaluation = false;
+
+    /**
+     * How the {@link LogContext} advice is applied. {@code aspectj} requires the AspectJ weaver
+     * agent; see {@code WovenLogContextAspect}.
+     */
+    private Weaving weaving = Weaving.PROXY;
+
+    /**
+     * Packages whose classes are considered for {@link LogContext} proxies. When set, beans in
+     * other packages are rejected by name at startup, without matching a pointcut against each of
+     * their methods. Empty means every bean is considered.
+     */
+    private List<String> basePackages = new ArrayList<>();
+
+    /**
+     * Whether executor beans declared as {@code ExecutorService} or
+     * {@code ScheduledExecutorService} are wrapped so that tasks run with the logging context of
+     * the submitting thread. Beans declared with a class, such as {@code ForkJoinPool} or
+     * {@code ThreadPoolExecutor}, are left alone. Spring task executors are covered by the task
+     * decorator either way.
+     */
+    private boolean wrapExecutors = false;
+
+    /**
+     * Where the logging context keeps its values. {@code auto} uses scoped values when running on
+     * Java 25+ with {@code spring.threads.virtual.enabled=true}, and the MDC otherwise.
+     * {@code persistent} is only used when selected explicitly.
+     */
+    private Storage storage = Storage.AUTO;
+
+    /**
+     * Context keys declared at startup, in addition to {@code ContextKey} constants. JSON output
+     * through {@code ContextKeyJsonProvider} writes declared keys first, in declaration order,
+     * with field names encoded once.
+     */
+    private List<String> keys = new ArrayList<>();
+
+    private final LeakDetection leakDetection = new LeakDetection();
+
+    private final Propagation propagation = new Propagation();
+
+    public SpelCompilerMode getSpelCompilerMode() {
+      return spelCompilerMode;
+    }
+
+    public void setSpelCompilerMode(SpelCompilerMode spelCompilerMode) {
+      this.spelCompilerMode = spelCompilerMode;
+    }
+
+    public ValidationMode getValidation() {
+      return validation;
+    }
+
+    public void setValidation(ValidationMode validation) {
+      this.validation = validation;
+    }
+
+    public boolean isDeferredEvaluation() {
+      return deferredEvaluation;
+    }
+
+    public void setDeferredEvaluation(boolean deferredEvaluation) {
+      this.deferredEvaluation = deferredEvaluation;
+    }
+
+    public Weaving getWeaving() {
+      return weaving;
+    }
+
+    public void setWeaving(Weaving weaving) {
+      this.weaving = weaving;
+    }
+
+    public List<String> getBasePackages() {
+      return basePackages;
+    }
+
+    public void setBasePackages(List<String> basePackages) {
+      this.basePackages = basePackages;
+    }
+
+    public boolean isWrapExecutors() {
+      return wrapExecutors;
+    }
+
+    public void setWrapExecutors(boolean wrapExecutors) {
+      this.wrapExecutors = wrapExecutors;
+    }
+
+    public Storage getStorage() {
+      return storage;
+    }
+
+    public void setStorage(Storage storage) {
+      this.storage = storage;
+    }
+
+    public List<String> getKeys() {
+      return keys;
+    }
+
+    public void setKeys(List<String> keys) {
+      this.keys = keys;
+    }
+
+    public LeakDetection getLeakDetection() {
+      return leakDetection;
+    }
+
+    public Propagation getPropagation() {
+      return propagation;
+    }
+  }
+
+  /** Settings for carrying the logging context across threads with Micrometer. */
+  public static class Propagation {
+
+    /**
+     * Whether to register the logging context with Micrometer's global {@code ContextRegistry},
+     * so Reactor's automatic context propagation and {@code ContextSnapshot} carry it across
+     * threads. Has no effect without context-propagation on the classpath.
+     */
+    private boolean enabled = true;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+  }
+
+  /** Settings for detecting logging context left behind on pooled threads. */
+  public static class LeakDetection {
+
+    /**
+     * Whether to check that the logging context is empty at the start of requests and executor
+     * tasks, and report leaked keys through a counter and the {@code context-leaks} endpoint.
+     */
+    private boolean enabled = false;
+
+    /** How many requests or tasks there are for each one that is checked. */
+    private int sampleRate = 100;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getSampleRate() {
+      return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+      this.sampleRate = sampleRate;
+    }
+  }
+
+  /** Settings for the web filters that populate the logging context from each request. */
+  public static class Web {
+
+    /**
+     * The request headers put in the logging context, and the keys they are put under. Setting
+     * this replaces the default mapping of {@code X-User-ID} to {@code userID}.
+     */
+    private List<HeaderMapping> headers = new ArrayList<>(List.of(
+        new HeaderMapping("X-User-ID", "userID")));
+
+    /** The length header values are cut at, unless their mapping sets its own. */
+    private int maxValueLength = 1024;
+
+    /**
+     * When to put the trace and span IDs of the {@code traceparent} or B3 headers in the logging
+     * context. {@code auto} does so when {@code management.tracing.enabled=false}, since a tracer
+     * puts them there otherwise.
+     */
+    private TraceHeaders traceHeaders = TraceHeaders.AUTO;
+
+    private final CorrelationId correlationId = new CorrelationId();
+
+    private final AccessLog accessLog = new AccessLog();
+
+    public List<HeaderMapping> getHeaders() {
+      return headers;
+    }
+
+    public void setHeaders(List<HeaderMapping> headers) {
+      this.headers = headers;
+    }
+
+    public int getMaxValueLength() {
+      return maxValueLength;
+    }
+
+    public void setMaxValueLength(int maxValueLength) {
+      this.maxValueLength = maxValueLength;
+    }
+
+    public TraceHeaders getTraceHeaders() {
+      return traceHeaders;
+    }
+
+    public void setTraceHeaders(TraceHeaders traceHeaders) {
+      this.traceHeaders = traceHeaders;
+    }
+
+    public CorrelationId getCorrelationId() {
+      return correlationId;
+    }
+
+    public AccessLog getAccessLog() {
+      return accessLog;
+    }
+  }
+
+  /** Settings for the access event the web filters write for each request. */
+  public static class AccessLog {
+
+    /**
+     * Whether the web filters write one structured event per request to the
+     * {@code log-manager.access} logger, with the logging context of the request.
+     */
+    private boolean enabled;
+
+    /** Whether the latency of each request is also recorded in a timer with a histogram. */
+    private boolean histogram = true;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public boolean isHistogram() {
+      return histogram;
+    }
+
+    public void setHistogram(boolean histogram) {
+      this.histogram = histogram;
+    }
+  }
+
+  /** Settings for the correlation ID given to each request. */
+  public static class CorrelationId {
+
+    /**
+     * Whether each request gets a correlation ID, read from its correlation header or generated if
+     * it has none, put in the logging context and set on the response.
+     */
+    private boolean enabled;
+
+    /** The request and response header that carries the correlation ID. */
+    private String header = "X-Correlation-ID";
+
+    /** The logging context key the correlation ID is put under. */
+    private String key = "correlationId";
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getHeader() {
+      return header;
+    }
+
+    public void setHeader(String header) {
+      this.header = header;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public void setKey(String key) {
+      this.key = key;
+    }
+  }
+
+  /** One request header put in the logging context. */
+  public static class HeaderMapping {
+
+    /** The request header name, matched case-insensitively. */
+    private String header;
+
+    /** The logging context key the header value is put under. */
+    private String key;
+
+    /** The length values of this header are cut at; the web default if not set. */
+    private Integer maxLength;
+
+    public HeaderMapping() {
+    }
+
+    public HeaderMapping(String header, String key) {
+      this.header = header;
+      this.key = key;
+    }
+
+    public String getHeader() {
+      return header;
+    }
+
+    public void setHeader(String header) {
+      this.header = header;
+    }
+
+    public String getKey() {
+      return key;
+    }
+
+    public void setKey(String key) {
+      this.key = key;
+    }
+
+    public Integer getMaxLength() {
+      return maxLength;
+    }
+
+    public void setMaxLength(Integer maxLength) {
+      this.maxLength = maxLength;
+    }
+  }
+
+  /** When the web filters read the trace and span IDs from the trace headers. */
+  public enum TraceHeaders {
+    /** When tracing is disabled with {@code management.tracing.enabled=false}. */
+    AUTO,
+    /** Always, even if a tracer also puts the IDs in the logging context. */
+    ALWAYS,
+    /** Never. */
+    NEVER
+  }
+
+  /** How invalid {@link LogContext} declarations are reported at startup. */
+  public enum ValidationMode {
+    /** Log each invalid declaration once and continue. */
+    WARN,
+    /** Fail the application context refresh. */
+    FAIL
+  }
+
+  /** How the {@link LogContext} advice is applied to annotated methods. */
+  public enum Weaving {
+    /** Spring AOP proxies; self-invocations are not advised. */
+    PROXY,
+    /** AspectJ weaving of the annotated classes themselves. */
+    ASPECTJ
+  }
+
+  /** Where the logging context keeps its values. */
+  public enum Storage {
+    /** Scoped values on virtual-thread deployments running on Java 25+, the MDC otherwise. */
+    AUTO,
+    /** The MDC of the current thread. */
+    MDC,
+    /** A {@code ScopedValue} bound per request; requires Java 25. */
+    SCOPED_VALUE,
+    /**
+     * An immutable, structurally shared map per thread, handed to log events and snapshots by
+     * reference. The auto-configuration adds {@code PersistentContextMdcFilter} to the appenders
+     * so log events carry it.
+     */
+    PERSISTENT
+  }
+}
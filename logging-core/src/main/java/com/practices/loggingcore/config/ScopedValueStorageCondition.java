@@ -0,0 +1,61 @@
+package com.practices.loggingcore.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Matches when the logging context keeps its values in scoped values rather than in the MDC, as
+ * selected by {@code log-manager.context.storage}.
+ */
+class ScopedValueStorageCondition extends SpringBootCondition {
+
+  /** The scoped implementation is compiled for Java 25, so it is only ever loaded by name. */
+  static final String SCOPED_VALUE_LOGGING_CONTEXT =
+      "com.practices.loggingcore.core.ScopedValueLoggingContext";
+
+  /** The filter that hands scoped values to log events, compiled for Java 25 as well. */
+  static final String SCOPED_VALUE_MDC_FILTER =
+      "com.practices.loggingcore.core.ScopedValueMdcFilter";
+
+  @Override
+  public ConditionOutcome getMatchOutcome(ConditionContext context,
+                                          AnnotatedTypeMetadata metadata) {
+    ConditionMessage.Builder message = ConditionMessage.forCondition("Scoped value storage");
+    if (isSelected(context.getEnvironment(), context.getClassLoader())) {
+      return ConditionOutcome.match(message.because("scoped values are selected"));
+    }
+    return ConditionOutcome.noMatch(message.because("the MDC is selected"));
+  }
+
+  /**
+   * Returns whether scoped values are selected: explicitly, or by {@code auto} on a virtual-thread
+   * deployment where they are available.
+   *
+   * @throws IllegalStateException if they are selected explicitly but not available
+   */
+  static boolean isSelected(Environment environment, ClassLoader classLoader) {
+    LogManagerProperties.Storage storage = Binder.get(environment)
+        .bind("log-manager.context.storage", LogManagerProperties.Storage.class)
+        .orElse(LogManagerProperties.Storage.AUTO);
+    boolean available = Runtime.version().feature() >= 25
+        && ClassUtils.isPresent(SCOPED_VALUE_LOGGING_CONTEXT, classLoader);
+    return switch (storage) {
+      case MDC, PERSISTENT -> false;
+      case AUTO -> available
+          && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+      case SCOPED_VALUE -> {
+        if (!available) {
+          throw new IllegalStateException("log-manager.context.storage=scoped-value requires "
+              + "Java 25 and a logging-core build that includes " + SCOPED_VALUE_LOGGING_CONTEXT);
+        }
+        yield true;
+      }
+    };
+  }
+}
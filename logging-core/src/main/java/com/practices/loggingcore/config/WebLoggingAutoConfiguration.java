@@ -1,19 +1,89 @@
 package com.practices.loggingcore.config;
 
+import com.practices.loggingcore.aspect.LogContextThreadLocalAccessor;
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
 import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.web.AccessLogger;
+import com.practices.loggingcore.web.CorrelationIdGenerator;
+import com.practices.loggingcore.web.LoggingContextLeakFilter;
+import com.practices.loggingcore.web.LoggingContextLeakFilterReactive;
+import com.practices.loggingcore.web.LoggingContextScopeFilter;
 import com.practices.loggingcore.web.MdcPopulatingFilterReactive;
 import com.practices.loggingcore.web.MdcPopulatingFilterServlet;
+import com.practices.loggingcore.web.RequestHeaderExtractor;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
 import org.springframework.web.server.WebFilter;
 
 /** A conditional autoconfiguration for web-specific features. */
-@AutoConfiguration
+@AutoConfiguration(before = CoreLoggingAutoConfiguration.class)
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.ANY)
+@EnableConfigurationProperties(LogManagerProperties.class)
 public class WebLoggingAutoConfiguration {
+  /**
+   * Compiles the {@code log-manager.web.headers} mapping once, for the web filters to walk on
+   * every request. Trace headers are parsed as well when {@code log-manager.web.trace-headers}
+   * selects it, which by default is when tracing is disabled, and each request gets a correlation
+   * ID when {@code log-manager.web.correlation-id.enabled=true}.
+   *
+   * @param properties the logging manager configuration properties
+   * @param environment the environment tracing is checked in
+   * @return the {@link RequestHeaderExtractor} shared by the web filters
+   */
+  @Bean
+  public RequestHeaderExtractor requestHeaderExtractor(final LogManagerProperties properties,
+                                                       final Environment environment) {
+    final LogManagerProperties.Web web = properties.getWeb();
+    final boolean traceHeaders = switch (web.getTraceHeaders()) {
+      case ALWAYS -> true;
+      case NEVER -> false;
+      case AUTO -> !environment.getProperty("management.tracing.enabled", Boolean.class, true);
+    };
+    final RequestHeaderExtractor.Builder builder =
+        RequestHeaderExtractor.builder().traceHeaders(traceHeaders);
+    for (LogManagerProperties.HeaderMapping mapping : web.getHeaders()) {
+      builder.map(mapping.getHeader(), mapping.getKey(),
+          mapping.getMaxLength() != null ? mapping.getMaxLength() : web.getMaxValueLength());
+    }
+    final LogManagerProperties.CorrelationId correlationId = web.getCorrelationId();
+    if (correlationId.isEnabled()) {
+      builder.correlationId(correlationId.getHeader(), correlationId.getKey(),
+          web.getMaxValueLength(), new CorrelationIdGenerator());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Provides the access logger the web filters write one structured event per request to, in
+   * place of the access log of the server, when {@code log-manager.web.access-log.enabled=true}.
+   * Request latencies are recorded in a histogram as well, unless
+   * {@code log-manager.web.access-log.histogram=false} or there is no meter registry.
+   *
+   * @param properties the logging manager configuration properties
+   * @param meterRegistry the registry of the latency timer, if there is one
+   * @return the {@link AccessLogger} shared by the web filters
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "log-manager.web.access-log", name = "enabled",
+      havingValue = "true")
+  public AccessLogger accessLogger(final LogManagerProperties properties,
+                                   final ObjectProvider<MeterRegistry> meterRegistry) {
+    return new AccessLogger(properties.getWeb().getAccessLog().isHistogram()
+        ? meterRegistry.getIfAvailable() : null);
+  }
+
   /**
    * Registers an {@link MdcPopulatingFilterServlet} as a servlet filter in the web application context.
    *
@@ -28,23 +98,117 @@ public class WebLoggingAutoConfiguration {
    * </p>
    *
    * @param loggingContext the {@link LoggingContext} used by the filter to manage MDC entries
+   * @param requestHeaderExtractor the headers the filter puts in the logging context
+   * @param accessLogger the access logger the filter writes each request to, if enabled
    * @return a {@link FilterRegistrationBean} that registers
    *         the {@link MdcPopulatingFilterServlet} with Spring Boot
    */
   @Bean
   @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
   public FilterRegistrationBean<MdcPopulatingFilterServlet> webLoggingFilter(
-      final LoggingContext loggingContext) {
+      final LoggingContext loggingContext,
+      final RequestHeaderExtractor requestHeaderExtractor,
+      final ObjectProvider<AccessLogger> accessLogger) {
     final FilterRegistrationBean<MdcPopulatingFilterServlet> filterRegistrationBean =
         new FilterRegistrationBean<>();
-    filterRegistrationBean.setFilter(new MdcPopulatingFilterServlet(loggingContext));
+    filterRegistrationBean.setFilter(new MdcPopulatingFilterServlet(loggingContext,
+        requestHeaderExtractor, accessLogger.getIfAvailable()));
     filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
     return filterRegistrationBean;
   }
 
+  /**
+   * Registers a {@link LoggingContextScopeFilter} ahead of {@link MdcPopulatingFilterServlet}, so
+   * each request gets its own scope when the logging context keeps values in scoped values rather
+   * than in the MDC of the thread.
+   *
+   * @param loggingContext the {@link LoggingContext} that opens the scope
+   * @return a {@link FilterRegistrationBean} that registers
+   *         the {@link LoggingContextScopeFilter} with Spring Boot
+   */
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @Conditional(ScopedValueStorageCondition.class)
+  public FilterRegistrationBean<LoggingContextScopeFilter> loggingContextScopeFilter(
+      final LoggingContext loggingContext) {
+    final FilterRegistrationBean<LoggingContextScopeFilter> filterRegistrationBean =
+        new FilterRegistrationBean<>();
+    filterRegistrationBean.setFilter(new LoggingContextScopeFilter(loggingContext));
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+    return filterRegistrationBean;
+  }
+
+  /**
+   * Registers a {@link LoggingContextLeakFilter} first in the chain, so each sampled request
+   * checks that its thread holds no logging context left behind by earlier work.
+   *
+   * @param leakDetector the detector that reports leaked keys
+   * @return a {@link FilterRegistrationBean} that registers
+   *         the {@link LoggingContextLeakFilter} with Spring Boot
+   */
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @ConditionalOnProperty(prefix = "log-manager.context.leak-detection", name = "enabled",
+      havingValue = "true")
+  public FilterRegistrationBean<LoggingContextLeakFilter> loggingContextLeakFilter(
+      final LoggingContextLeakDetector leakDetector) {
+    final FilterRegistrationBean<LoggingContextLeakFilter> filterRegistrationBean =
+        new FilterRegistrationBean<>();
+    filterRegistrationBean.setFilter(new LoggingContextLeakFilter(leakDetector));
+    filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return filterRegistrationBean;
+  }
+
+  /**
+   * Provides a {@link LoggingContextLeakFilterReactive}, ordered first in the chain, so each
+   * sampled request checks that the thread it starts on holds no logging context left behind by
+   * earlier work.
+   *
+   * @param leakDetector the detector that reports leaked keys
+   * @return the {@link LoggingContextLeakFilterReactive}
+   */
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  @ConditionalOnProperty(prefix = "log-manager.context.leak-detection", name = "enabled",
+      havingValue = "true")
+  public LoggingContextLeakFilterReactive reactiveLoggingContextLeakFilter(
+      final LoggingContextLeakDetector leakDetector) {
+    return new LoggingContextLeakFilterReactive(leakDetector);
+  }
+
   @Bean
   @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
-  public WebFilter reactiveWebLoggingFilter(LoggingContext loggingContext) {
-    return new MdcPopulatingFilterReactive(loggingContext);
+  public WebFilter reactiveWebLoggingFilter(LoggingContext loggingContext,
+                                            RequestHeaderExtractor requestHeaderExtractor,
+                                            ObjectProvider<AccessLogger> accessLogger) {
+    return new MdcPopulatingFilterReactive(loggingContext, requestHeaderExtractor,
+        accessLogger.getIfAvailable());
+  }
+
+  /**
+   * Registers the logging context with Micrometer's global context-propagation registry in place
+   * of the accessor of the core auto-configuration, so the keys the web filters map request
+   * headers to are carried across threads as well, also outside of a {@code @LogContext} scope.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @ConditionalOnClass(ContextRegistry.class)
+  @ConditionalOnProperty(prefix = "log-manager.context.propagation", name = "enabled",
+      matchIfMissing = true)
+  static class ContextPropagationConfiguration {
+
+    /**
+     * Provides the accessor, which is unregistered again when the context closes.
+     *
+     * @param loggingContext the central logging context service
+     * @param requestHeaderExtractor the header mapping of the web filters
+     * @return the registered accessor
+     */
+    @Bean
+    public LogContextThreadLocalAccessor logContextThreadLocalAccessor(
+        final LoggingContext loggingContext,
+        final RequestHeaderExtractor requestHeaderExtractor) {
+      return LogContextThreadLocalAccessor.register(ContextRegistry.getInstance(), loggingContext,
+          requestHeaderExtractor.contextKeys());
+    }
   }
 }
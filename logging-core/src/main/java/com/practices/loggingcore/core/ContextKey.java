@@ -0,0 +1,101 @@
+package com.practices.loggingcore.core;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A logging context key declared up front, with a fixed slot and its JSON field name encoded once.
+ *
+ * <p>Applications keep a small, stable set of context keys, so declaring them as constants lets
+ * {@link ContextKeyJsonProvider} write them by walking the slots in order, with pre-encoded names,
+ * instead of iterating the context map and encoding each name per event:
+ *
+ * <pre>{@code
+ * static final ContextKey TENANT = ContextKey.of("tenant");
+ * ...
+ * loggingContext.set(TENANT, "acme");
+ * }</pre>
+ *
+ * <p>Keys can also be declared with {@code log-manager.context.keys}. Declaring the same name twice
+ * returns the same key. Keys are never removed.
+ */
+public final class ContextKey {
+
+  private static final Map<String, ContextKey> BY_NAME = new ConcurrentHashMap<>();
+  private static volatile ContextKey[] slots = new ContextKey[0];
+
+  private final String name;
+  private final int slot;
+  private final SerializedString serializedName;
+
+  private ContextKey(String name, int slot) {
+    this.name = name;
+    this.slot = slot;
+    this.serializedName = new SerializedString(name);
+  }
+
+  /**
+   * Declares a context key, or returns the key already declared under {@code name}.
+   *
+   * @param name the key name (must not be null)
+   * @return the declared key
+   */
+  public static ContextKey of(String name) {
+    ContextKey key = BY_NAME.get(name);
+    return key != null ? key : declare(name);
+  }
+
+  /**
+   * Returns the key declared under {@code name}.
+   *
+   * @param name the key name
+   * @return the key, or {@code null} if none was declared
+   */
+  public static ContextKey find(String name) {
+    return BY_NAME.get(name);
+  }
+
+  /**
+   * Returns every declared key, indexed by slot. The array must not be modified.
+   */
+  static ContextKey[] slots() {
+    return slots;
+  }
+
+  private static synchronized ContextKey declare(String name) {
+    ContextKey key = BY_NAME.get(name);
+    if (key == null) {
+      ContextKey[] current = slots;
+      key = new ContextKey(name, current.length);
+      ContextKey[] grown = Arrays.copyOf(current, current.length + 1);
+      grown[key.slot] = key;
+      slots = grown;
+      BY_NAME.put(name, key);
+    }
+    return key;
+  }
+
+  /** Returns the key name, as stored in the logging context. */
+  public String name() {
+    return name;
+  }
+
+  /** Returns the slot of the key, in declaration order starting at zero. */
+  public int slot() {
+    return slot;
+  }
+
+  /** Returns the key name as a JSON field name, quoted and encoded once. */
+  public SerializableString serializedName() {
+    return serializedName;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
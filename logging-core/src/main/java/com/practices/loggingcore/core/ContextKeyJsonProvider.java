@@ -0,0 +1,64 @@
+package com.practices.loggingcore.core;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import net.logstash.logback.composite.AbstractJsonProvider;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes the logging context of an event as top-level JSON fields, declared {@link ContextKey}s
+ * first and in slot order, then any other entries.
+ *
+ * <p>Declared keys are looked up by their name and written with their pre-encoded field name, so
+ * the common case of an event that only carries declared keys never iterates the context map or
+ * encodes a name. Typed values are written as {@link TypedMdcEntryWriter} does. Use it in place of
+ * the encoder's own MDC output:
+ * <pre>
+ * {@code
+ * <encoder class="net.logstash.logback.encoder.LogstashEncoder">
+ *   <includeMdc>false</includeMdc>
+ *   <provider class="com.practices.loggingcore.core.ContextKeyJsonProvider"/>
+ * </encoder>
+ * }
+ * </pre>
+ */
+public class ContextKeyJsonProvider extends AbstractJsonProvider<ILoggingEvent> {
+
+  @Override
+  public void writeTo(JsonGenerator generator, ILoggingEvent event) throws IOException {
+    Map<String, String> values = event.getMDCPropertyMap();
+    if (values == null || values.isEmpty()) {
+      return;
+    }
+    int written = 0;
+    for (ContextKey key : ContextKey.slots()) {
+      String value = values.get(key.name());
+      if (value != null) {
+        generator.writeFieldName(key.serializedName());
+        write(generator, key.name(), value);
+        written++;
+      }
+    }
+    if (written == values.size()) {
+      return;
+    }
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      if (entry.getValue() != null && ContextKey.find(entry.getKey()) == null) {
+        generator.writeFieldName(entry.getKey());
+        write(generator, entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private static void write(JsonGenerator generator, String key, String value)
+      throws IOException {
+    ValueType type = ValueType.of(key);
+    if (TypedMdcEntryWriter.accepts(type, value)) {
+      TypedMdcEntryWriter.writeValue(generator, type, value);
+    } else {
+      generator.writeString(value);
+    }
+  }
+}
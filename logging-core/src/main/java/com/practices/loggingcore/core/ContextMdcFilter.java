@@ -0,0 +1,147 @@
+package com.practices.loggingcore.core;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base of the Logback appender filters that give each event the values of a logging context that
+ * is not kept in the MDC as its MDC map, so encoders, layouts and the live-logs buffer read them
+ * like any MDC value.
+ *
+ * <p>The filter never rejects an event. It has to run before anything reads the event's MDC map,
+ * so {@link #install(LoggerContext, ContextMdcFilter)} adds it to every appender attached to a
+ * logger of the context; the auto-configuration does so when the storage that needs it is
+ * selected. For an {@code AsyncAppender} that is the async appender itself, which reads the map
+ * on the logging thread. Appenders attached after the filter was installed do not get it.
+ *
+ * <p>An event sent to several appenders goes through the filter of each; only the first gives it
+ * its map. The last event is remembered per thread through a weak reference, so a thread that
+ * stops logging does not keep it reachable.
+ */
+public abstract class ContextMdcFilter extends Filter<ILoggingEvent> implements AutoCloseable {
+
+  private static final ThreadLocal<WeakReference<ILoggingEvent>> LAST_EVENT = new ThreadLocal<>();
+
+  private static final ThreadLocal<Merged> MERGED = ThreadLocal.withInitial(Merged::new);
+
+  private volatile boolean misplacedReported;
+
+  /**
+   * Starts the filter and adds it to every appender attached to a logger of the given context.
+   *
+   * @param loggerContext the Logback context whose appenders get the filter
+   * @param filter the filter to install
+   * @param <F> the type of the filter
+   * @return the installed filter, which stops filtering when closed
+   */
+  public static <F extends ContextMdcFilter> F install(LoggerContext loggerContext, F filter) {
+    filter.setContext(loggerContext);
+    filter.start();
+    Set<Appender<ILoggingEvent>> appenders = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Logger logger : loggerContext.getLoggerList()) {
+      Iterator<Appender<ILoggingEvent>> attached = logger.iteratorForAppenders();
+      while (attached.hasNext()) {
+        Appender<ILoggingEvent> appender = attached.next();
+        if (appenders.add(appender)) {
+          appender.addFilter(filter);
+        }
+      }
+    }
+    return filter;
+  }
+
+  @Override
+  public final FilterReply decide(ILoggingEvent event) {
+    if (!isStarted() || !(event instanceof LoggingEvent loggingEvent)) {
+      return FilterReply.NEUTRAL;
+    }
+    WeakReference<ILoggingEvent> last = LAST_EVENT.get();
+    if (last != null && last.get() == event) {
+      return FilterReply.NEUTRAL;
+    }
+    Map<String, String> map = contextMap();
+    if (map == null) {
+      return FilterReply.NEUTRAL;
+    }
+    LAST_EVENT.set(new WeakReference<>(event));
+    try {
+      loggingEvent.setMDCPropertyMap(map);
+    } catch (IllegalStateException alreadyRead) {
+      if (!misplacedReported) {
+        misplacedReported = true;
+        addError("The MDC map of an event was read before " + getClass().getSimpleName()
+            + " ran, so it does not carry the logging context", alreadyRead);
+      }
+    }
+    return FilterReply.NEUTRAL;
+  }
+
+  /**
+   * Returns the MDC map to give the event being logged on the current thread.
+   *
+   * @return the map, or {@code null} to leave the event to the MDC
+   */
+  protected abstract Map<String, String> contextMap();
+
+  /**
+   * Merges the values put in the MDC directly, for example the trace ids of Micrometer Tracing,
+   * into {@code values}, which win over them. The merged map is kept per thread and reused until
+   * either map changes, so events logged in between cost two identity checks.
+   *
+   * @param values the values of the logging context
+   * @return {@code values} with the MDC values it does not hold
+   */
+  static Map<String, String> withMdc(PersistentContextMap values) {
+    Merged merged = MERGED.get();
+    Map<String, String> mdc = LoggingContextSnapshot.currentMdc();
+    if (merged.values != values || merged.mdc != mdc) {
+      merged.update(values, mdc);
+    }
+    return merged.map;
+  }
+
+  /**
+   * Stops the filter. Logback cannot detach a filter from an appender, so a stopped filter stays
+   * attached and lets every event through untouched.
+   */
+  @Override
+  public void close() {
+    stop();
+  }
+
+  /**
+   * The merge of the context values and the MDC last seen on a thread, keyed by the identity of
+   * both maps.
+   */
+  private static final class Merged {
+    private PersistentContextMap values;
+    private Map<String, String> mdc;
+    private Map<String, String> map;
+
+    void update(PersistentContextMap values, Map<String, String> mdc) {
+      this.values = values;
+      this.mdc = mdc;
+      PersistentContextMap map = values;
+      if (mdc != null) {
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+          if (!values.containsKey(entry.getKey())) {
+            map = map.with(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+      this.map = map;
+    }
+  }
+}
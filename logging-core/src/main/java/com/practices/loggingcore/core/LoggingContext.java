@@ -1,5 +1,7 @@
 package com.practices.loggingcore.core;
 
+import java.util.Map;
+
 /**
  * Defines the public contract for interacting with the logging context (MDC).
  *
@@ -16,6 +18,64 @@ public interface LoggingContext {
    */
   void set(String key, String value);
 
+  /**
+   * Adds or updates the value of a declared key in the logging context.
+   *
+   * @param key the declared context key
+   * @param value the context value
+   */
+  default void set(ContextKey key, String value) {
+    set(key.name(), value);
+  }
+
+  /**
+   * Adds or updates a whole number in the logging context, written as a JSON number by
+   * {@link TypedMdcEntryWriter}. The value is formatted once, without boxing.
+   *
+   * @param key the context key (must not be null)
+   * @param value the context value
+   */
+  default void setLong(String key, long value) {
+    ValueType.register(key, ValueType.LONG);
+    set(key, Long.toString(value));
+  }
+
+  /**
+   * Adds or updates a whole number in the logging context, written as a JSON number by
+   * {@link TypedMdcEntryWriter}. The value is formatted once, without boxing.
+   *
+   * @param key the context key (must not be null)
+   * @param value the context value
+   */
+  default void setInt(String key, int value) {
+    ValueType.register(key, ValueType.LONG);
+    set(key, Integer.toString(value));
+  }
+
+  /**
+   * Adds or updates a decimal number in the logging context, written as a JSON number by
+   * {@link TypedMdcEntryWriter} unless it is {@code NaN} or infinite.
+   *
+   * @param key the context key (must not be null)
+   * @param value the context value
+   */
+  default void setDouble(String key, double value) {
+    ValueType.register(key, ValueType.DOUBLE);
+    set(key, Double.toString(value));
+  }
+
+  /**
+   * Adds or updates a flag in the logging context, written as a JSON boolean by
+   * {@link TypedMdcEntryWriter}.
+   *
+   * @param key the context key (must not be null)
+   * @param value the context value
+   */
+  default void setBoolean(String key, boolean value) {
+    ValueType.register(key, ValueType.BOOLEAN);
+    set(key, value ? "true" : "false");
+  }
+
   /**
    * Retrieves a value from the context for a given key.
    *
@@ -24,6 +84,16 @@ public interface LoggingContext {
    */
   String get(String key);
 
+  /**
+   * Retrieves the value of a declared key from the context.
+   *
+   * @param key the declared context key
+   * @return the context value, or null if not present
+   */
+  default String get(ContextKey key) {
+    return get(key.name());
+  }
+
   /**
    * Removes a key from the logging context.
    *
@@ -33,7 +103,8 @@ public interface LoggingContext {
 
   /**
    * Adds a key-value pair to the context for the duration of a {@code try-with-resources} block.
-   * The key is automatically removed when the block is exited.
+   * The key is automatically removed when the block is exited, or given back the value it had
+   * before if the implementation keeps track of it.
    *
    * <p>Example usage:
    *
@@ -50,6 +121,133 @@ public interface LoggingContext {
    */
   AutoCloseable with(String key, String value);
 
+  /**
+   * Adds the value of a declared key to the context for the duration of a
+   * {@code try-with-resources} block, like {@link #with(String, String)}.
+   *
+   * @param key the declared context key
+   * @param value the context value
+   * @return an {@link AutoCloseable} that will remove the key upon being closed
+   */
+  default AutoCloseable with(ContextKey key, String value) {
+    return with(key.name(), value);
+  }
+
+  /**
+   * Adds or updates several key-value pairs in the logging context at once.
+   *
+   * @param values the keys and values to set (keys must not be null)
+   */
+  default void setAll(Map<String, String> values) {
+    values.forEach(this::set);
+  }
+
+  /**
+   * Adds several key-value pairs to the context for the duration of a {@code try-with-resources}
+   * block. The keys get their previous values back, or are removed, when the block is exited;
+   * other keys set inside the block are left as they are.
+   *
+   * <p>Example usage:
+   *
+   * <pre>{@code
+   * try (var ignored = loggingContext.withAll(Map.of("orderId", "123", "tenant", "acme"))) {
+   *   log.info("Processing order."); // This log will contain orderId=123 and tenant=acme
+   * }
+   * }</pre>
+   *
+   * @param values the keys and values to set (keys must not be null)
+   * @return a {@link LoggingContextScope} that will restore the previous values upon being closed
+   */
+  default LoggingContextScope withAll(Map<String, String> values) {
+    if (values.isEmpty()) {
+      return () -> { };
+    }
+    String[] keys = values.keySet().toArray(new String[0]);
+    String[] previous = new String[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      previous[i] = get(keys[i]);
+    }
+    setAll(values);
+    return () -> {
+      for (int i = keys.length - 1; i >= 0; i--) {
+        if (previous[i] != null) {
+          set(keys[i], previous[i]);
+        } else {
+          remove(keys[i]);
+        }
+      }
+    };
+  }
+
+  /**
+   * Opens a frame over {@code keys} whose values are then updated in place by slot, for loops that
+   * set the same keys for each item. See {@link LoggingContextFrame}.
+   *
+   * @param keys the context keys, each updated by its position (must not be null)
+   * @return the frame, which restores the previous values of the keys upon being closed
+   */
+  default LoggingContextFrame openFrame(String... keys) {
+    return new LoggingContextFrame(this, keys);
+  }
+
   /** Clears the entire logging context for the current thread. */
   void clearAll();
-}
\ No newline at end of file
+
+  /**
+   * Runs {@code task} in a scope of its own, for implementations that keep values in a scope
+   * bound around the work (such as {@code ScopedValueLoggingContext}) rather than on the thread.
+   * Inside the task the values of the enclosing scope are visible, and values set by the task are
+   * gone once it returns.
+   *
+   * <p>Implementations backed by the MDC of the thread, like the default, just run the task.
+   *
+   * @param task the work to run
+   * @param <X> the checked exception the task may throw
+   * @throws X if the task throws it
+   */
+  default <X extends Exception> void runInScope(ScopedTask<X> task) throws X {
+    task.run();
+  }
+
+  /**
+   * Captures the logging context of the current thread, so it can be restored on the thread that
+   * runs work handed off to an executor, an {@code @Async} method or a parallel stream.
+   *
+   * <p>Example usage:
+   *
+   * <pre>{@code
+   * LoggingContextSnapshot snapshot = loggingContext.capture();
+   * items.parallelStream().forEach(item -> {
+   *   try (var ignored = loggingContext.restore(snapshot)) {
+   *     log.info("Processing item."); // This log has the caller's context
+   *   }
+   * });
+   * }</pre>
+   *
+   * @return an immutable snapshot of the context
+   */
+  default LoggingContextSnapshot capture() {
+    return LoggingContextSnapshot.captureMdc();
+  }
+
+  /**
+   * Replaces the logging context of the current thread with a snapshot for the duration of a
+   * {@code try-with-resources} block. The previous context is put back when the block is exited.
+   *
+   * @param snapshot the snapshot to restore
+   * @return a {@link LoggingContextScope} that will restore the previous context upon being closed
+   */
+  default LoggingContextScope restore(LoggingContextSnapshot snapshot) {
+    return snapshot.restore();
+  }
+
+  /**
+   * Work run by {@link #runInScope(ScopedTask)}.
+   *
+   * @param <X> the checked exception the work may throw
+   */
+  @FunctionalInterface
+  interface ScopedTask<X extends Exception> {
+    void run() throws X;
+  }
+}
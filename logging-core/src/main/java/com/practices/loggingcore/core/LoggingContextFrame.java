@@ -0,0 +1,102 @@
+package com.practices.loggingcore.core;
+
+/**
+ * A fixed set of logging context keys whose values are updated in place, for loops that set the
+ * same keys for every item they process.
+ *
+ * <p>The keys are given once when the frame is opened, and each key is then updated by its slot,
+ * the position it was given at. Updating does not allocate, and a value equal to the one already
+ * set is not written again. Closing the frame gives every key back the value it had when the
+ * frame was opened, or removes it.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * try (LoggingContextFrame frame = loggingContext.openFrame("txnId", "msisdn")) {
+ *   for (Settlement settlement : batch) {
+ *     frame.set(0, settlement.txnId());
+ *     frame.set(1, settlement.msisdn());
+ *     log.info("Settling."); // This log has the txnId and msisdn of the settlement
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>A frame belongs to the thread that opened it. Keys it holds must not be changed through the
+ * logging context while it is open, or the frame may skip a write it considers unchanged.
+ */
+public final class LoggingContextFrame implements LoggingContextScope {
+
+  private final LoggingContext loggingContext;
+  private final String[] keys;
+  private final String[] previous;
+  private final String[] values;
+  private boolean closed;
+
+  LoggingContextFrame(LoggingContext loggingContext, String[] keys) {
+    this.loggingContext = loggingContext;
+    this.keys = keys.clone();
+    this.previous = new String[keys.length];
+    this.values = new String[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      previous[i] = loggingContext.get(keys[i]);
+      values[i] = previous[i];
+    }
+  }
+
+  /**
+   * Sets the value of the key at {@code slot}.
+   *
+   * @param slot the position of the key in {@link LoggingContext#openFrame(String...)}
+   * @param value the context value, or {@code null} to remove the key
+   * @throws IllegalStateException if the frame is closed
+   */
+  public void set(int slot, String value) {
+    if (closed) {
+      throw new IllegalStateException("The logging context frame is closed");
+    }
+    String current = values[slot];
+    if (value == null ? current == null : value.equals(current)) {
+      return;
+    }
+    values[slot] = value;
+    if (value != null) {
+      loggingContext.set(keys[slot], value);
+    } else {
+      loggingContext.remove(keys[slot]);
+    }
+  }
+
+  /**
+   * Removes the keys of the frame, until they are set again.
+   *
+   * @throws IllegalStateException if the frame is closed
+   */
+  public void clear() {
+    for (int i = 0; i < keys.length; i++) {
+      set(i, null);
+    }
+  }
+
+  /**
+   * Returns the number of keys in the frame.
+   *
+   * @return the number of slots
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  /**
+   * Gives every key back the value it had when the frame was opened. Closing again does nothing.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    for (int i = keys.length - 1; i >= 0; i--) {
+      set(i, previous[i]);
+    }
+    closed = true;
+  }
+}
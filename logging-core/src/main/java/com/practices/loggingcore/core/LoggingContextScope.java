@@ -0,0 +1,13 @@
+package com.practices.loggingcore.core;
+
+/**
+ * A block of code during which the logging context holds some values, closed to put back what it
+ * held before. Unlike {@link AutoCloseable}, closing it throws no checked exception.
+ */
+@FunctionalInterface
+public interface LoggingContextScope extends AutoCloseable {
+
+  /** Restores the logging context to what it was when the scope was opened. */
+  @Override
+  void close();
+}
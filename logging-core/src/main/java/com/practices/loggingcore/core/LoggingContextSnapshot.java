@@ -0,0 +1,158 @@
+package com.practices.loggingcore.core;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * An immutable copy of the logging context (MDC) of one thread, to be restored on another.
+ *
+ * <p>With Logback, capturing reuses the read-only map the MDC adapter already keeps for log
+ * events, so it does not copy anything unless the MDC changed since the last capture or log
+ * call. Restoring replaces the MDC of the current thread until the returned scope is closed.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * LoggingContextSnapshot snapshot = loggingContext.capture();
+ * executor.execute(snapshot.wrap(() -> log.info("Runs with the caller's context.")));
+ * }</pre>
+ */
+public final class LoggingContextSnapshot {
+
+  private static final LoggingContextSnapshot EMPTY = new LoggingContextSnapshot(Map.of());
+
+  private final Map<String, String> values;
+
+  private LoggingContextSnapshot(Map<String, String> values) {
+    this.values = values;
+  }
+
+  /**
+   * Captures the MDC of the current thread.
+   *
+   * @return the snapshot; empty if the MDC is empty
+   */
+  public static LoggingContextSnapshot captureMdc() {
+    Map<String, String> values = currentMdc();
+    return values == null || values.isEmpty() ? EMPTY : new LoggingContextSnapshot(values);
+  }
+
+  /**
+   * Creates a snapshot holding a copy of {@code values}.
+   *
+   * @param values the keys and values of the snapshot
+   * @return the snapshot
+   */
+  public static LoggingContextSnapshot of(Map<String, String> values) {
+    return values.isEmpty() ? EMPTY : new LoggingContextSnapshot(Map.copyOf(values));
+  }
+
+  /**
+   * Creates a snapshot holding {@code values} itself, which must never change.
+   */
+  static LoggingContextSnapshot share(Map<String, String> values) {
+    return values.isEmpty() ? EMPTY : new LoggingContextSnapshot(values);
+  }
+
+  /**
+   * Returns the captured keys and values.
+   *
+   * @return an unmodifiable map
+   */
+  public Map<String, String> asMap() {
+    return values;
+  }
+
+  /**
+   * Returns whether nothing was captured.
+   *
+   * @return {@code true} if the snapshot holds no values
+   */
+  public boolean isEmpty() {
+    return values.isEmpty();
+  }
+
+  /**
+   * Replaces the MDC of the current thread with this snapshot.
+   *
+   * @return the scope that puts back the previous MDC when closed
+   */
+  public LoggingContextScope restore() {
+    Map<String, String> previous = currentMdc();
+    if (previous == values) {
+      return () -> { };
+    }
+    replaceMdc(values);
+    return () -> replaceMdc(previous);
+  }
+
+  /**
+   * Returns a task that runs {@code task} with this snapshot restored.
+   *
+   * @param task the task to wrap
+   * @return the wrapped task
+   */
+  public Runnable wrap(Runnable task) {
+    return () -> {
+      try (LoggingContextScope ignored = restore()) {
+        task.run();
+      }
+    };
+  }
+
+  /**
+   * Returns a task that calls {@code task} with this snapshot restored.
+   *
+   * @param task the task to wrap
+   * @param <V> the result type
+   * @return the wrapped task
+   */
+  public <V> Callable<V> wrap(Callable<V> task) {
+    return () -> {
+      try (LoggingContextScope ignored = restore()) {
+        return task.call();
+      }
+    };
+  }
+
+  /**
+   * Returns a supplier that calls {@code supplier} with this snapshot restored, for
+   * {@code CompletableFuture.supplyAsync} and the like.
+   *
+   * @param supplier the supplier to wrap
+   * @param <V> the result type
+   * @return the wrapped supplier
+   */
+  public <V> Supplier<V> wrapSupplier(Supplier<V> supplier) {
+    return () -> {
+      try (LoggingContextScope ignored = restore()) {
+        return supplier.get();
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "LoggingContextSnapshot" + values;
+  }
+
+  static Map<String, String> currentMdc() {
+    // Logback never modifies this map; it builds a new one after the MDC changes
+    if (MDC.getMDCAdapter() instanceof LogbackMDCAdapter logback) {
+      return logback.getPropertyMap();
+    }
+    return MDC.getCopyOfContextMap();
+  }
+
+  static void replaceMdc(Map<String, String> values) {
+    if (values == null || values.isEmpty()) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(values);
+    }
+  }
+}
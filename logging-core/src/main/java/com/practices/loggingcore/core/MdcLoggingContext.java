@@ -2,11 +2,27 @@ package com.practices.loggingcore.core;
 
 import org.slf4j.MDC;
 
+import java.util.Arrays;
+import java.util.Map;
+
 /**
  * The default implementation of {@link LoggingContext} that uses SLF4J's {@link MDC} as the
  * underlying storage mechanism.
+ *
+ * <p>Bulk updates put each key into the MDC adapter's map in place, and {@link #withAll(Map)}
+ * puts the previous values of its keys back the same way, so neither copies the map. Logback
+ * copies it once, when the next log event reads it, however many keys changed.
+ *
+ * <p>The scopes opened by {@link #with(String, String)} are kept on a per-thread stack whose
+ * entries are reused; the handle returned for each is a small object stamped with the generation
+ * of its entry, which escape analysis usually removes. A handle that is closed again after its
+ * entry was reused by a newer scope is a no-op. Scopes belong to the thread that opened them and
+ * are closed in reverse order, as {@code try-with-resources} does.
  */
 public final class MdcLoggingContext implements LoggingContext {
+
+  private static final ThreadLocal<Scopes> SCOPES = ThreadLocal.withInitial(Scopes::new);
+
   @Override
   public void set(final String key, final String value) {
     MDC.put(key, value);
@@ -22,14 +38,127 @@ public final class MdcLoggingContext implements LoggingContext {
     MDC.remove(key);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If the key already had a value, that value is put back instead of removing the key.
+   */
   @Override
-  public AutoCloseable with(final String key, final String value) {
-    MDC.put(key, value);
-    return () -> MDC.remove(key);
+  public LoggingContextScope with(final String key, final String value) {
+    return SCOPES.get().open(key, value);
+  }
+
+  @Override
+  public void setAll(final Map<String, String> values) {
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      MDC.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public LoggingContextScope withAll(final Map<String, String> values) {
+    if (values.isEmpty()) {
+      return () -> { };
+    }
+    String[] keys = new String[values.size()];
+    String[] previous = new String[keys.length];
+    int i = 0;
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      keys[i] = entry.getKey();
+      previous[i] = MDC.get(keys[i]);
+      MDC.put(keys[i], entry.getValue());
+      i++;
+    }
+    return () -> restore(keys, previous);
   }
 
   @Override
   public void clearAll() {
     MDC.clear();
   }
+
+  private static void restore(final String[] keys, final String[] previous) {
+    for (int i = keys.length - 1; i >= 0; i--) {
+      if (previous[i] != null) {
+        MDC.put(keys[i], previous[i]);
+      } else {
+        MDC.remove(keys[i]);
+      }
+    }
+  }
+
+  /**
+   * The {@code with} scopes open on one thread, innermost last.
+   */
+  private static final class Scopes {
+    private Entry[] entries = new Entry[8];
+    private int depth;
+
+    LoggingContextScope open(final String key, final String value) {
+      String previous = MDC.get(key);
+      MDC.put(key, value);
+      if (depth == entries.length) {
+        entries = Arrays.copyOf(entries, depth * 2);
+      }
+      Entry entry = entries[depth];
+      if (entry == null) {
+        entry = new Entry();
+        entries[depth] = entry;
+      }
+      entry.key = key;
+      entry.previous = previous;
+      entry.generation++;
+      Handle handle = new Handle(this, depth, entry.generation);
+      depth++;
+      return handle;
+    }
+
+    void close(final int index, final long generation) {
+      // a handle whose entry was closed, or reused by a newer scope since, does nothing
+      if (index >= depth || entries[index].generation != generation) {
+        return;
+      }
+      // closing an outer scope first also closes the scopes nested in it
+      while (depth > index) {
+        Entry entry = entries[--depth];
+        if (entry.previous != null) {
+          MDC.put(entry.key, entry.previous);
+        } else {
+          MDC.remove(entry.key);
+        }
+        entry.key = null;
+        entry.previous = null;
+      }
+    }
+  }
+
+  /**
+   * One reusable entry of a thread's stack, with the number of scopes opened at its depth.
+   */
+  private static final class Entry {
+    private String key;
+    private String previous;
+    private long generation;
+  }
+
+  /**
+   * The handle of one {@code with} scope, closing its entry only while the entry still belongs to
+   * it.
+   */
+  private static final class Handle implements LoggingContextScope {
+    private final Scopes scopes;
+    private final int index;
+    private final long generation;
+
+    Handle(final Scopes scopes, final int index, final long generation) {
+      this.scopes = scopes;
+      this.index = index;
+      this.generation = generation;
+    }
+
+    @Override
+    public void close() {
+      scopes.close(index, generation);
+    }
+  }
 }
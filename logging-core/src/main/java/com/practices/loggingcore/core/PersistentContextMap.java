@@ -0,0 +1,374 @@
+package com.practices.loggingcore.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map of logging context values that is updated by creating a new map sharing most
+ * of its structure with the old one.
+ *
+ * <p>The map is a hash array mapped trie: {@link #with(String, String)} and
+ * {@link #without(String)} copy only the nodes on the path to the key, so every version of the
+ * map stays valid and can be handed to log events, snapshots and other threads by reference.
+ * The {@link Map} mutators throw {@link UnsupportedOperationException}.
+ */
+final class PersistentContextMap extends AbstractMap<String, String> {
+
+  static final PersistentContextMap EMPTY = new PersistentContextMap(null, 0);
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  // seven bitmap levels cover a 32-bit hash, plus one collision level
+  private static final int MAX_DEPTH = 8;
+
+  private final Node root;
+  private final int size;
+  private Set<Map.Entry<String, String>> entrySet;
+
+  private PersistentContextMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a map holding {@code values}, or {@code values} itself if it already is one.
+   */
+  static PersistentContextMap of(Map<String, String> values) {
+    if (values instanceof PersistentContextMap map) {
+      return map;
+    }
+    PersistentContextMap map = EMPTY;
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      map = map.with(entry.getKey(), entry.getValue());
+    }
+    return map;
+  }
+
+  /**
+   * Returns a map with {@code value} under {@code key}, or this map if it already holds it. A
+   * {@code null} value removes the key, so the map never holds {@code null} values.
+   */
+  PersistentContextMap with(String key, String value) {
+    if (value == null) {
+      return without(key);
+    }
+    int hash = hash(key);
+    if (root == null) {
+      Node node = new BitmapNode(bit(hash, 0), new Object[] {key, value});
+      return new PersistentContextMap(node, 1);
+    }
+    String current = root.find(0, hash, key);
+    if (value.equals(current)) {
+      return this;
+    }
+    return new PersistentContextMap(root.put(0, hash, key, value),
+        current == null ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map without {@code key}, or this map if it does not hold it.
+   */
+  PersistentContextMap without(String key) {
+    if (root == null) {
+      return this;
+    }
+    Node node = root.remove(0, hash(key), key);
+    if (node == root) {
+      return this;
+    }
+    return node == null ? EMPTY : new PersistentContextMap(node, size - 1);
+  }
+
+  @Override
+  public String get(Object key) {
+    return key instanceof String name && root != null ? root.find(0, hash(name), name) : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Map.Entry<String, String>> entrySet() {
+    Set<Map.Entry<String, String>> entries = entrySet;
+    if (entries == null) {
+      entries = new AbstractSet<>() {
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+          return new EntryIterator(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+      entrySet = entries;
+    }
+    return entries;
+  }
+
+  private static int hash(String key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * A trie node. Its array holds key and value pairs, or {@code null} and a child node.
+   */
+  private abstract static class Node {
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract String find(int shift, int hash, String key);
+
+    abstract Node put(int shift, int hash, String key, String value);
+
+    abstract Node remove(int shift, int hash, String key);
+  }
+
+  private static final class BitmapNode extends Node {
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1)) * 2;
+    }
+
+    @Override
+    String find(int shift, int hash, String key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      int i = index(bit);
+      Object k = array[i];
+      if (k == null) {
+        return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+      }
+      return key.equals(k) ? (String) array[i + 1] : null;
+    }
+
+    @Override
+    Node put(int shift, int hash, String key, String value) {
+      int bit = bit(hash, shift);
+      int i = index(bit);
+      if ((bitmap & bit) == 0) {
+        Object[] grown = new Object[array.length + 2];
+        System.arraycopy(array, 0, grown, 0, i);
+        grown[i] = key;
+        grown[i + 1] = value;
+        System.arraycopy(array, i, grown, i + 2, array.length - i);
+        return new BitmapNode(bitmap | bit, grown);
+      }
+      Object k = array[i];
+      Object v = array[i + 1];
+      if (k == null) {
+        Node child = ((Node) v).put(shift + BITS, hash, key, value);
+        return child == v ? this : replace(i, null, child);
+      }
+      if (key.equals(k)) {
+        return value.equals(v) ? this : replace(i, k, value);
+      }
+      return replace(i, null,
+          split(shift + BITS, (String) k, (String) v, hash, key, value));
+    }
+
+    @Override
+    Node remove(int shift, int hash, String key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int i = index(bit);
+      Object k = array[i];
+      if (k == null) {
+        Node child = (Node) array[i + 1];
+        Node removed = child.remove(shift + BITS, hash, key);
+        if (removed == child) {
+          return this;
+        }
+        return removed != null ? replace(i, null, removed) : shrink(bit, i);
+      }
+      return key.equals(k) ? shrink(bit, i) : this;
+    }
+
+    private Node replace(int i, Object key, Object value) {
+      Object[] copy = array.clone();
+      copy[i] = key;
+      copy[i + 1] = value;
+      return new BitmapNode(bitmap, copy);
+    }
+
+    private Node shrink(int bit, int i) {
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] shrunk = new Object[array.length - 2];
+      System.arraycopy(array, 0, shrunk, 0, i);
+      System.arraycopy(array, i + 2, shrunk, i, shrunk.length - i);
+      return new BitmapNode(bitmap ^ bit, shrunk);
+    }
+
+    private static Node split(int shift, String key1, String value1, int hash2, String key2,
+                              String value2) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+      }
+      return new BitmapNode(bit(hash1, shift), new Object[] {key1, value1})
+          .put(shift, hash2, key2, value2);
+    }
+  }
+
+  /**
+   * The keys whose hashes are equal, in a flat array.
+   */
+  private static final class CollisionNode extends Node {
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    String find(int shift, int hash, String key) {
+      if (hash != this.hash) {
+        return null;
+      }
+      int i = indexOf(key);
+      return i < 0 ? null : (String) array[i + 1];
+    }
+
+    @Override
+    Node put(int shift, int hash, String key, String value) {
+      if (hash != this.hash) {
+        return new BitmapNode(bit(this.hash, shift), new Object[] {null, this})
+            .put(shift, hash, key, value);
+      }
+      int i = indexOf(key);
+      if (i >= 0) {
+        if (value.equals(array[i + 1])) {
+          return this;
+        }
+        Object[] copy = array.clone();
+        copy[i + 1] = value;
+        return new CollisionNode(hash, copy);
+      }
+      Object[] grown = Arrays.copyOf(array, array.length + 2);
+      grown[array.length] = key;
+      grown[array.length + 1] = value;
+      return new CollisionNode(hash, grown);
+    }
+
+    @Override
+    Node remove(int shift, int hash, String key) {
+      int i = hash == this.hash ? indexOf(key) : -1;
+      if (i < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] shrunk = new Object[array.length - 2];
+      System.arraycopy(array, 0, shrunk, 0, i);
+      System.arraycopy(array, i + 2, shrunk, i, shrunk.length - i);
+      return new CollisionNode(hash, shrunk);
+    }
+  }
+
+  /**
+   * Walks the trie depth first, keeping one array and position per level.
+   */
+  private static final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+    private String nextKey;
+    private String nextValue;
+
+    EntryIterator(Node root) {
+      if (root != null) {
+        push(root);
+        advance();
+      }
+    }
+
+    private void push(Node node) {
+      arrays[++depth] = node.array;
+      positions[depth] = 0;
+    }
+
+    private void advance() {
+      nextKey = null;
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int position = positions[depth];
+        if (position == array.length) {
+          arrays[depth--] = null;
+          continue;
+        }
+        positions[depth] = position + 2;
+        if (array[position] == null) {
+          push((Node) array[position + 1]);
+        } else {
+          nextKey = (String) array[position];
+          nextValue = (String) array[position + 1];
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextKey != null;
+    }
+
+    @Override
+    public Map.Entry<String, String> next() {
+      if (nextKey == null) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<String, String> entry = new SimpleImmutableEntry<>(nextKey, nextValue);
+      advance();
+      return entry;
+    }
+  }
+}
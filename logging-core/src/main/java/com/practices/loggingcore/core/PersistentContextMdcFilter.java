@@ -0,0 +1,23 @@
+package com.practices.loggingcore.core;
+
+import java.util.Map;
+
+/**
+ * Logback appender filter that gives each event the values of the current
+ * {@link PersistentLoggingContext} as its MDC map, by reference, so encoders, layouts and the
+ * live-logs buffer read them like any MDC value without a copy per event. The auto-configuration
+ * installs it on the appenders when {@code log-manager.context.storage=persistent}; see
+ * {@link ContextMdcFilter}.
+ *
+ * <p>When the MDC holds values too, for example the trace ids of Micrometer Tracing, they are
+ * merged into the map. The merged map is kept per thread and reused until either map changes,
+ * so events logged in between cost two identity checks.
+ */
+public class PersistentContextMdcFilter extends ContextMdcFilter {
+
+  @Override
+  protected Map<String, String> contextMap() {
+    PersistentContextMap values = PersistentLoggingContext.currentValues();
+    return values.isEmpty() ? null : withMdc(values);
+  }
+}
@@ -0,0 +1,134 @@
+package com.practices.loggingcore.core;
+
+import java.util.Map;
+
+/**
+ * A {@link LoggingContext} that keeps the values of each thread in an immutable, structurally
+ * shared map instead of the MDC.
+ *
+ * <p>Every update creates a new version of the map that shares most of its nodes with the
+ * previous one, so capturing the context for a log event, an executor hand-off or the live-logs
+ * buffer hands out the current version by reference instead of copying it. Log events do not
+ * read it by themselves; {@link PersistentContextMdcFilter} gives it to them, and the
+ * auto-configuration installs it on the appenders when this storage is selected.
+ *
+ * <p>Values put in the MDC directly, for example by libraries, are not visible through
+ * {@link #get(String)}, but the filter still adds them to each event.
+ */
+public final class PersistentLoggingContext implements LoggingContext {
+
+  private static final ThreadLocal<Holder> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Returns the values of the current thread, without creating any state for threads that never
+   * used this context.
+   *
+   * @return the current version of the map, by reference
+   */
+  static PersistentContextMap currentValues() {
+    Holder holder = CURRENT.get();
+    return holder != null ? holder.values : PersistentContextMap.EMPTY;
+  }
+
+  private static Holder holder() {
+    Holder holder = CURRENT.get();
+    if (holder == null) {
+      holder = new Holder();
+      CURRENT.set(holder);
+    }
+    return holder;
+  }
+
+  @Override
+  public void set(final String key, final String value) {
+    Holder holder = holder();
+    holder.values = holder.values.with(key, value);
+  }
+
+  @Override
+  public String get(final String key) {
+    return currentValues().get(key);
+  }
+
+  @Override
+  public void remove(final String key) {
+    Holder holder = holder();
+    holder.values = holder.values.without(key);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If the key already had a value, that value is put back instead of removing the key.
+   */
+  @Override
+  public LoggingContextScope with(final String key, final String value) {
+    String previous = get(key);
+    set(key, value);
+    return () -> {
+      if (previous != null) {
+        set(key, previous);
+      } else {
+        remove(key);
+      }
+    };
+  }
+
+  @Override
+  public void setAll(final Map<String, String> values) {
+    Holder holder = holder();
+    PersistentContextMap current = holder.values;
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      current = current.with(entry.getKey(), entry.getValue());
+    }
+    holder.values = current;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The previous values of the keys are put back in one update of the map when the scope is
+   * closed.
+   */
+  @Override
+  public LoggingContextScope withAll(final Map<String, String> values) {
+    Holder holder = holder();
+    String[] keys = values.keySet().toArray(new String[0]);
+    String[] previous = new String[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      previous[i] = holder.values.get(keys[i]);
+    }
+    setAll(values);
+    return () -> {
+      PersistentContextMap restored = holder.values;
+      for (int i = 0; i < keys.length; i++) {
+        restored = previous[i] != null
+            ? restored.with(keys[i], previous[i])
+            : restored.without(keys[i]);
+      }
+      holder.values = restored;
+    };
+  }
+
+  @Override
+  public void clearAll() {
+    holder().values = PersistentContextMap.EMPTY;
+  }
+
+  @Override
+  public LoggingContextSnapshot capture() {
+    return LoggingContextSnapshot.share(currentValues());
+  }
+
+  @Override
+  public LoggingContextScope restore(final LoggingContextSnapshot snapshot) {
+    Holder holder = holder();
+    PersistentContextMap previous = holder.values;
+    holder.values = PersistentContextMap.of(snapshot.asMap());
+    return () -> holder.values = previous;
+  }
+
+  private static final class Holder {
+    private PersistentContextMap values = PersistentContextMap.EMPTY;
+  }
+}
@@ -0,0 +1,104 @@
+package com.practices.loggingcore.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import net.logstash.logback.composite.loggingevent.mdc.MdcEntryWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes MDC entries whose key has a recorded {@link ValueType} as JSON numbers and booleans
+ * instead of strings.
+ *
+ * <p>Numbers are checked to be valid JSON numbers and then written as they are, without being
+ * parsed; anything else, such as {@code NaN} or a value that was set as a plain string, is left to
+ * the next writer and ends up as a string. Register it with the Logstash encoder:
+ * <pre>
+ * {@code
+ * <encoder class="net.logstash.logback.encoder.LogstashEncoder">
+ *   <mdcEntryWriter class="com.practices.loggingcore.core.TypedMdcEntryWriter"/>
+ * </encoder>
+ * }
+ * </pre>
+ */
+public class TypedMdcEntryWriter implements MdcEntryWriter {
+
+  @Override
+  public boolean writeMdcEntry(JsonGenerator generator, String fieldName, String mdcKey,
+                               String mdcValue) throws IOException {
+    ValueType type = ValueType.of(mdcKey);
+    if (!accepts(type, mdcValue)) {
+      return false;
+    }
+    generator.writeFieldName(fieldName);
+    writeValue(generator, type, mdcValue);
+    return true;
+  }
+
+  /**
+   * Returns whether {@code value} can be written as a value of {@code type}.
+   */
+  static boolean accepts(ValueType type, String value) {
+    if (type == null) {
+      return false;
+    }
+    return switch (type) {
+      case LONG -> isJsonNumber(value, false);
+      case DOUBLE -> isJsonNumber(value, true);
+      case BOOLEAN -> "true".equals(value) || "false".equals(value);
+    };
+  }
+
+  /**
+   * Writes a value {@link #accepts(ValueType, String) accepted} for {@code type}, after its field
+   * name.
+   */
+  static void writeValue(JsonGenerator generator, ValueType type, String value)
+      throws IOException {
+    if (type == ValueType.BOOLEAN) {
+      generator.writeBoolean("true".equals(value));
+    } else {
+      generator.writeNumber(value);
+    }
+  }
+
+  // accepts what Long.toString and Double.toString produce; rejects NaN and Infinity
+  static boolean isJsonNumber(String value, boolean decimal) {
+    int length = value.length();
+    int i = value.startsWith("-") ? 1 : 0;
+    int digits = 0;
+    while (i < length && isDigit(value.charAt(i))) {
+      i++;
+      digits++;
+    }
+    if (digits == 0 || (digits > 1 && value.charAt(i - digits) == '0')) {
+      return false;
+    }
+    if (decimal && i < length && value.charAt(i) == '.') {
+      int fraction = ++i;
+      while (i < length && isDigit(value.charAt(i))) {
+        i++;
+      }
+      if (i == fraction) {
+        return false;
+      }
+    }
+    if (decimal && i < length && (value.charAt(i) == 'E' || value.charAt(i) == 'e')) {
+      i++;
+      if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+        i++;
+      }
+      int exponent = i;
+      while (i < length && isDigit(value.charAt(i))) {
+        i++;
+      }
+      if (i == exponent) {
+        return false;
+      }
+    }
+    return i == length;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,85 @@
+package com.practices.loggingcore.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The JSON type of the values stored under a logging context key.
+ *
+ * <p>The MDC only holds strings, so the type is recorded per key the first time a typed value is
+ * stored under it, for example through {@link LoggingContext#setLong(String, long)}. JSON output
+ * then writes the values of that key as numbers or booleans; see {@link TypedMdcEntryWriter}.
+ * The first type recorded for a key is kept for the lifetime of the application, so its values
+ * are always written the same way; a different type recorded later is logged once and ignored.
+ */
+@Slf4j
+public enum ValueType {
+
+  /** A whole number, written as a JSON number. */
+  LONG,
+  /** A decimal number, written as a JSON number. */
+  DOUBLE,
+  /** Written as a JSON boolean. */
+  BOOLEAN;
+
+  private static final Map<String, ValueType> TYPES = new ConcurrentHashMap<>();
+  private static final Set<String> CONFLICTS = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Records the type of the values stored under {@code key}, unless a type was recorded for it
+   * already.
+   *
+   * @param key the context key
+   * @param type the type of its values
+   */
+  public static void register(String key, ValueType type) {
+    ValueType current = TYPES.get(key);
+    if (current == type) {
+      return;
+    }
+    if (current == null) {
+      current = TYPES.putIfAbsent(key, type);
+    }
+    if (current != null && current != type && CONFLICTS.add(key)) {
+      log.warn("Context key '{}' is already registered as {}; ignoring type {}", key, current,
+          type);
+    }
+  }
+
+  /**
+   * Returns the type of the values of a Java type, if it is a number or a boolean.
+   *
+   * @param type the Java type, primitive or not
+   * @return the type, or {@code null} for values written as strings
+   */
+  public static ValueType forType(Class<?> type) {
+    if (type == long.class || type == int.class || type == short.class || type == byte.class
+        || type == Long.class || type == Integer.class || type == Short.class
+        || type == Byte.class || type == BigInteger.class) {
+      return LONG;
+    }
+    if (type == double.class || type == float.class || type == Double.class
+        || type == Float.class || type == BigDecimal.class) {
+      return DOUBLE;
+    }
+    if (type == boolean.class || type == Boolean.class) {
+      return BOOLEAN;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the recorded type of the values stored under {@code key}.
+   *
+   * @param key the context key
+   * @return the type, or {@code null} for plain strings
+   */
+  public static ValueType of(String key) {
+    return TYPES.get(key);
+  }
+}
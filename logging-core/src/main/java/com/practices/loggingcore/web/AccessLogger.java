@@ -0,0 +1,109 @@
+package com.practices.loggingcore.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Writes one structured access event per request from the web filters, and records its latency
+ * in a Micrometer timer in the same pass, so the access log of the server is not needed.
+ *
+ * <p>Events are logged at {@code INFO} to the {@value #LOGGER_NAME} logger while the logging
+ * context of the request is still in place, so they carry its values like every other event of
+ * the request. {@code logback-spring.xml} sends that logger to its own asynchronous appender that
+ * drops events rather than block a request thread when its queue is full. The fields are method,
+ * route, path, status, bytes and {@code durationMs}; the message shows them as
+ * {@code key=value} pairs and the JSON encoder writes them as fields.
+ *
+ * <p>The {@value #METRIC_NAME} timer is tagged with the method, route and status, and publishes a
+ * percentile histogram. The route is the pattern of the handler that served the request, or
+ * {@value #UNKNOWN_ROUTE} if there was none, so that the tags stay bounded. Each timer is
+ * registered once and kept by route, method and status, so a request only records into it.
+ */
+@Slf4j(topic = AccessLogger.LOGGER_NAME)
+public class AccessLogger {
+
+  /** Name of the logger the access events are written to. */
+  public static final String LOGGER_NAME = "log-manager.access";
+
+  /** Name of the request latency timer. */
+  public static final String METRIC_NAME = "log-manager.access.latency";
+
+  /** The route of requests that no handler pattern matched. */
+  public static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+  private static final int MIN_STATUS = 100;
+  private static final int MAX_STATUS = 599;
+
+  private final MeterRegistry meterRegistry;
+  // route -> method -> timer by status
+  private final Map<String, Map<String, AtomicReferenceArray<Timer>>> timers =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Creates an access logger.
+   *
+   * @param meterRegistry the registry of the latency timer, or {@code null} for none
+   */
+  public AccessLogger(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Logs the access event of a finished request and records its latency.
+   *
+   * @param method the request method
+   * @param route the matched handler pattern, or {@code null} if there was none
+   * @param path the request path
+   * @param status the response status
+   * @param bytes the bytes of response body written, or {@code -1} if not known
+   * @param durationNanos the time the request took, from {@link System#nanoTime()}
+   */
+  public void record(String method, String route, String path, int status, long bytes,
+                     long durationNanos) {
+    String matched = route != null ? route : UNKNOWN_ROUTE;
+    if (log.isInfoEnabled()) {
+      log.info("{} {} {} {} {} {}", kv("method", method), kv("route", matched), kv("path", path),
+          kv("status", status), kv("bytes", bytes),
+          kv("durationMs", durationNanos / NANOS_PER_MILLI));
+    }
+    if (meterRegistry != null) {
+      timer(method, matched, status).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private Timer timer(String method, String route, int status) {
+    if (status < MIN_STATUS || status > MAX_STATUS) {
+      return register(method, route, status);
+    }
+    AtomicReferenceArray<Timer> byStatus = timers
+        .computeIfAbsent(route, ignored -> new ConcurrentHashMap<>())
+        .computeIfAbsent(method,
+            ignored -> new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1));
+    Timer timer = byStatus.get(status - MIN_STATUS);
+    if (timer == null) {
+      // racing registrations get the same timer back from the registry
+      timer = register(method, route, status);
+      byStatus.set(status - MIN_STATUS, timer);
+    }
+    return timer;
+  }
+
+  private Timer register(String method, String route, int status) {
+    return Timer.builder(METRIC_NAME)
+        .description("Latency of the requests written to the access log")
+        .tag("method", method)
+        .tag("route", route)
+        .tag("status", Integer.toString(status))
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
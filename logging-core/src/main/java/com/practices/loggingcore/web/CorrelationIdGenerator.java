@@ -0,0 +1,50 @@
+package com.practices.loggingcore.web;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates correlation IDs for requests that arrive without one.
+ *
+ * <p>The IDs have the layout of a ULID: 26 characters of Crockford base32, the first ten encoding
+ * the time in milliseconds and the rest 80 random bits, so they sort by creation time and are
+ * safe in URLs and log searches. The random bits come from {@link ThreadLocalRandom}, which
+ * threads never contend on, instead of the {@code SecureRandom} behind
+ * {@link java.util.UUID#randomUUID()}. They are unique for correlation, not unguessable, so the
+ * IDs must not be used as secrets. Each ID is encoded straight into its characters, with no
+ * intermediate strings.
+ */
+public final class CorrelationIdGenerator {
+
+  /** The length of generated IDs. */
+  public static final int LENGTH = 26;
+
+  private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+  private static final int TIME_LENGTH = 10;
+  private static final int RANDOM_HALF_LENGTH = 8;
+
+  /**
+   * Generates an ID for the current time.
+   *
+   * @return the ID
+   */
+  public String generate() {
+    return generate(System.currentTimeMillis(), ThreadLocalRandom.current().nextLong(),
+        ThreadLocalRandom.current().nextLong());
+  }
+
+  static String generate(long time, long random1, long random2) {
+    char[] chars = new char[LENGTH];
+    encode(chars, 0, TIME_LENGTH, time);
+    encode(chars, TIME_LENGTH, RANDOM_HALF_LENGTH, random1);
+    encode(chars, TIME_LENGTH + RANDOM_HALF_LENGTH, RANDOM_HALF_LENGTH, random2);
+    return new String(chars);
+  }
+
+  // writes the low 5 * count bits of value, most significant first
+  private static void encode(char[] chars, int offset, int count, long value) {
+    for (int i = offset + count - 1; i >= offset; i--) {
+      chars[i] = ALPHABET[(int) (value & 31)];
+      value >>>= 5;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.practices.loggingcore.web;
+
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * A servlet filter that checks, before anything else in the chain sets it, that the logging
+ * context of the request thread is empty; see {@link LoggingContextLeakDetector}.
+ * {@link LoggingContextLeakFilterReactive} does the same for WebFlux.
+ */
+public class LoggingContextLeakFilter extends OncePerRequestFilter {
+
+  /** The boundary requests are reported at. */
+  public static final String BOUNDARY = "request";
+
+  private final LoggingContextLeakDetector leakDetector;
+
+  public LoggingContextLeakFilter(LoggingContextLeakDetector leakDetector) {
+    this.leakDetector = leakDetector;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain
+  ) throws ServletException, IOException {
+    leakDetector.check(BOUNDARY);
+    filterChain.doFilter(request, response);
+  }
+}
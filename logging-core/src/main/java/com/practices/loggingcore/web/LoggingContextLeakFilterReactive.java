@@ -0,0 +1,31 @@
+package com.practices.loggingcore.web;
+
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * A reactive web filter that checks, before anything else in the chain sets it, that the logging
+ * context of the thread that starts handling the request is empty; see
+ * {@link LoggingContextLeakDetector}. On an event loop, that is a thread that serves many other
+ * requests, so values left behind there show up in their logs.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LoggingContextLeakFilterReactive implements WebFilter {
+
+  private final LoggingContextLeakDetector leakDetector;
+
+  public LoggingContextLeakFilterReactive(LoggingContextLeakDetector leakDetector) {
+    this.leakDetector = leakDetector;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    leakDetector.check(LoggingContextLeakFilter.BOUNDARY);
+    return chain.filter(exchange);
+  }
+}
@@ -0,0 +1,38 @@
+package com.practices.loggingcore.web;
+
+import com.practices.loggingcore.core.LoggingContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * A servlet filter that runs the rest of the chain in a scope of its own of the logging context,
+ * for implementations that keep values in a scope bound around the request rather than on the
+ * thread. It runs before {@link MdcPopulatingFilterServlet}, so the values that filter sets
+ * belong to the request's scope.
+ */
+public class LoggingContextScopeFilter extends OncePerRequestFilter {
+
+  private final LoggingContext loggingContext;
+
+  public LoggingContextScopeFilter(LoggingContext loggingContext) {
+    this.loggingContext = loggingContext;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain
+  ) throws ServletException, IOException {
+    try {
+      loggingContext.runInScope(() -> filterChain.doFilter(request, response));
+    } catch (ServletException | IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ServletException(e);
+    }
+  }
+}
@@ -1,42 +1,89 @@
 package com.practices.loggingcore.web;
 
+import com.practices.loggingcore.aspect.LogContextAsyncSupport;
+import com.practices.loggingcore.aspect.LogContextThreadLocalAccessor;
 import com.practices.loggingcore.core.LoggingContext;
+import org.reactivestreams.Publisher;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * A reactive web filter that populates the logging context (MDC) with user information
- * extracted from request headers.
+ * A reactive web filter that populates the logging context (MDC) with the request headers mapped
+ * by a {@link RequestHeaderExtractor}, and with the correlation ID when the extractor has one,
+ * which is also set on the response.
  * <p>
  * This filter runs with high precedence to ensure the logging context is available
- * for all later processing, including other filters and controllers. It reliably
- * clears the context at the end of the request lifecycle, regardless of whether the
- * request completes successfully or results in an error.
+ * for all later processing, including other filters and controllers. The values live in the
+ * Reactor context of the request's pipeline, under {@link LogContextAsyncSupport#CONTEXT_KEY},
+ * and are put in the thread's logging context only around the work done for the request: while
+ * the chain is created, subscribed, requested and cancelled, and while its completion or error is
+ * delivered back to the server, on whichever thread that happens. What the thread held before is
+ * restored after each step rather than cleared, so the values never leak to, or wipe the values
+ * of, other requests served by the same event loop. Operators inside the chain that run after a
+ * thread hop see them through {@link LogContextThreadLocalAccessor} when Reactor's automatic
+ * context propagation is enabled, or with {@link LogContextAsyncSupport#restore} otherwise.
+ * <p>
+ * With an {@link AccessLogger}, the filter also writes the access event of each request when it
+ * completes or fails, inside the same scope. A failed request is logged with the status of its
+ * error when it is an {@link ErrorResponse}, such as a {@code ResponseStatusException}, which the
+ * exception handlers answer with, and as 500 otherwise. A request cancelled before it finished,
+ * usually because the client closed the connection, is logged with status
+ * {@value #CLIENT_CLOSED_REQUEST}, the status nginx uses for it, and the body bytes written until
+ * then. Each request is logged once, by whichever of these signals comes first.
  */
 
 @Order(Ordered.HIGHEST_PRECEDENCE + 10)
 public class MdcPopulatingFilterReactive implements WebFilter {
-  private static final String HEADER_USER_ID = "X-User-ID";
-  private static final String MDC_USER_ID = "userID";
+
+  /** The status cancelled requests are logged with, which no response is sent with. */
+  public static final int CLIENT_CLOSED_REQUEST = 499;
 
   private final LoggingContext loggingContext;
+  private final RequestHeaderExtractor headerExtractor;
+  private final AccessLogger accessLogger;
 
   public MdcPopulatingFilterReactive(LoggingContext loggingContext) {
+    this(loggingContext, RequestHeaderExtractor.defaults());
+  }
+
+  public MdcPopulatingFilterReactive(LoggingContext loggingContext,
+                                     RequestHeaderExtractor headerExtractor) {
+    this(loggingContext, headerExtractor, null);
+  }
+
+  public MdcPopulatingFilterReactive(LoggingContext loggingContext,
+                                     RequestHeaderExtractor headerExtractor,
+                                     AccessLogger accessLogger) {
     this.loggingContext = loggingContext;
+    this.headerExtractor = headerExtractor;
+    this.accessLogger = accessLogger;
   }
 
   /**
    * Intercepts the incoming request to populate the logging context.
    * <p>
-   * It extracts the user ID from the {@code X-User-ID} header and sets it in the
-   * {@link LoggingContext}. The context is populated at the beginning of the reactive
-   * stream execution (upon subscription) and is guaranteed to be cleared when the stream
-   * terminates (via success, error, or cancellation) using a {@code doFinally} operator.
-   * This ensures that contextual information does not leak between requests.
+   * It extracts the values of the mapped headers, such as the user ID from {@code X-User-ID}, and
+   * scopes the rest of the chain with them: the chain is created, subscribed, requested,
+   * cancelled and completes with the values in the {@link LoggingContext}, and the previous values
+   * are restored after each of these steps, whether the request succeeds, fails or is cancelled.
    *
    * @param exchange the current server exchange, providing access to the request.
    * @param chain    the filter chain to pass control to the next filter.
@@ -44,14 +91,114 @@ public class MdcPopulatingFilterReactive implements WebFilter {
    */
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-    return Mono.defer(() -> {
-          String userId = exchange.getRequest().getHeaders().getFirst(HEADER_USER_ID);
-          if (userId != null && !userId.isBlank()) {
-            loggingContext.set(MDC_USER_ID, userId);
-          }
-          return chain.filter(exchange);
-        })
-        .doFinally(signalType -> loggingContext.clearAll());
+    HttpHeaders headers = exchange.getRequest().getHeaders();
+    Map<String, String> values = null;
+    for (int i = 0; i < headerExtractor.size(); i++) {
+      String value = headerExtractor.value(i, headers.getFirst(headerExtractor.header(i)));
+      if (value != null) {
+        if (values == null) {
+          values = new HashMap<>();
+        }
+        values.put(headerExtractor.key(i), value);
+      }
+    }
+    if (headerExtractor.parsesTraceHeaders()) {
+      Map<String, String> withTraceIds = values != null ? values : new HashMap<>();
+      if (TraceHeaderParser.parse(headers::getFirst, withTraceIds::put)) {
+        values = withTraceIds;
+      }
+    }
+    if (headerExtractor.hasCorrelationId()) {
+      String header = headerExtractor.correlationHeader();
+      String correlationId = headerExtractor.correlationId(headers.getFirst(header));
+      exchange.getResponse().getHeaders().set(header, correlationId);
+      if (values == null) {
+        values = new HashMap<>();
+      }
+      values.put(headerExtractor.correlationKey(), correlationId);
+    }
+    if (accessLogger != null) {
+      return filterLogged(exchange, chain, values);
+    }
+    if (values == null) {
+      return chain.filter(exchange);
+    }
+    return LogContextAsyncSupport.scope(Mono.defer(() -> chain.filter(exchange)),
+        values, loggingContext, true);
+  }
+
+  private Mono<Void> filterLogged(ServerWebExchange exchange, WebFilterChain chain,
+                                  Map<String, String> values) {
+    long start = System.nanoTime();
+    CountingResponse response = new CountingResponse(exchange.getResponse());
+    ServerWebExchange counted = exchange.mutate().response(response).build();
+    // a cancellation travels upstream, so it is seen inside the scope only below it
+    Mono<Void> chained = Mono.defer(() -> chain.filter(counted))
+        .doOnCancel(() -> logAccess(counted, CLIENT_CLOSED_REQUEST, response, start));
+    Mono<Void> filtered = values == null ? chained
+        : LogContextAsyncSupport.scope(chained, values, loggingContext, true);
+    // inside the scope, since it also covers the signals delivered downstream
+    return filtered
+        .doOnSuccess(ignored -> logAccess(counted, responseStatus(response), response, start))
+        .doOnError(error -> logAccess(counted, errorStatus(error), response, start));
+  }
+
+  private void logAccess(ServerWebExchange exchange, int status, CountingResponse response,
+                         long start) {
+    if (!response.logged.compareAndSet(false, true)) {
+      return;
+    }
+    Object route = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    accessLogger.record(exchange.getRequest().getMethod().name(),
+        route != null ? route.toString() : null, exchange.getRequest().getPath().value(), status,
+        response.bytes.sum(), System.nanoTime() - start);
+  }
+
+  private static int responseStatus(ServerHttpResponse response) {
+    HttpStatusCode status = response.getStatusCode();
+    return status != null ? status.value() : HttpStatus.OK.value();
   }
-}
 
+  /**
+   * Returns the status the exception handlers will answer an error with: the status of a
+   * {@link ErrorResponse}, such as a {@code ResponseStatusException}, or 500 for anything else.
+   */
+  private static int errorStatus(Throwable error) {
+    if (error instanceof ErrorResponse errorResponse) {
+      return errorResponse.getStatusCode().value();
+    }
+    return HttpStatus.INTERNAL_SERVER_ERROR.value();
+  }
+
+  /**
+   * Counts the bytes of response body written, and whether the request was logged. The inner
+   * publishers of {@code writeAndFlushWith} may emit on different threads, so the count is a
+   * {@link LongAdder}.
+   */
+  private static final class CountingResponse extends ServerHttpResponseDecorator {
+    private final LongAdder bytes = new LongAdder();
+    private final AtomicBoolean logged = new AtomicBoolean();
+
+    CountingResponse(ServerHttpResponse delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      if (body instanceof Mono<? extends DataBuffer> mono) {
+        return super.writeWith(mono.doOnNext(this::count));
+      }
+      return super.writeWith(Flux.from(body).doOnNext(this::count));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+      return super.writeAndFlushWith(
+          Flux.from(body).map(buffers -> Flux.from(buffers).doOnNext(this::count)));
+    }
+
+    private void count(DataBuffer buffer) {
+      bytes.add(buffer.readableByteCount());
+    }
+  }
+}
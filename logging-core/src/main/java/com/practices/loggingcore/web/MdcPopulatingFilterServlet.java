@@ -1,43 +1,231 @@
 package com.practices.loggingcore.web;
 
 import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextScope;
+import com.practices.loggingcore.core.LoggingContextSnapshot;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
  * A servlet filter that adds context to the logging context for every incoming HTTP request
- * with common web-related attributes. This class only makes sure the filtering works with
- * Servlet (non-reactive) web apps.
+ * with common web-related attributes, taken from the headers mapped by a
+ * {@link RequestHeaderExtractor}, the trace and span IDs when it parses trace headers, and the
+ * correlation ID when it has one, which is also set on the response. With an
+ * {@link AccessLogger}, it also writes the access event of each request once it completes, with
+ * the request's logging context still in place.
+ * This class only makes sure the filtering works with Servlet (non-reactive) web apps.
  */
 
 public class MdcPopulatingFilterServlet extends OncePerRequestFilter {
 
-  private static final String HEADER_USER_ID = "X-User-ID";
-  private static final String MDC_USER_ID = "userID";
-
   private final LoggingContext loggingContext;
+  private final RequestHeaderExtractor headerExtractor;
+  private final AccessLogger accessLogger;
 
   public MdcPopulatingFilterServlet(LoggingContext loggingContext) {
+    this(loggingContext, RequestHeaderExtractor.defaults());
+  }
+
+  public MdcPopulatingFilterServlet(LoggingContext loggingContext,
+                                    RequestHeaderExtractor headerExtractor) {
+    this(loggingContext, headerExtractor, null);
+  }
+
+  public MdcPopulatingFilterServlet(LoggingContext loggingContext,
+                                    RequestHeaderExtractor headerExtractor,
+                                    AccessLogger accessLogger) {
     this.loggingContext = loggingContext;
+    this.headerExtractor = headerExtractor;
+    this.accessLogger = accessLogger;
   }
 
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain
   ) throws ServletException, IOException {
+    if (accessLogger != null) {
+      doFilterLogged(request, new CountingResponse(response), filterChain, System.nanoTime());
+      return;
+    }
     try {
-      final String userId = request.getHeader(HEADER_USER_ID);
-      if (userId != null && !userId.isBlank()) {
-        loggingContext.set(MDC_USER_ID, userId);
-      }
+      populate(request, response);
       filterChain.doFilter(request, response);
     } finally {
       loggingContext.clearAll();
     }
   }
+
+  private void doFilterLogged(HttpServletRequest request, CountingResponse response,
+                              FilterChain filterChain, long start)
+      throws ServletException, IOException {
+    boolean failed = true;
+    try {
+      populate(request, response);
+      filterChain.doFilter(request, response);
+      failed = false;
+    } finally {
+      try {
+        if (!failed && request.isAsyncStarted()) {
+          request.getAsyncContext().addListener(
+              new AsyncAccessListener(request, response, start, loggingContext.capture()));
+        } else {
+          logAccess(request, response, failed, start);
+        }
+      } finally {
+        loggingContext.clearAll();
+      }
+    }
+  }
+
+  private void populate(HttpServletRequest request, HttpServletResponse response) {
+    for (int i = 0; i < headerExtractor.size(); i++) {
+      final String value = headerExtractor.value(i, request.getHeader(headerExtractor.header(i)));
+      if (value != null) {
+        loggingContext.set(headerExtractor.key(i), value);
+      }
+    }
+    if (headerExtractor.parsesTraceHeaders()) {
+      TraceHeaderParser.parse(request::getHeader, loggingContext::set);
+    }
+    if (headerExtractor.hasCorrelationId()) {
+      final String header = headerExtractor.correlationHeader();
+      final String correlationId = headerExtractor.correlationId(request.getHeader(header));
+      loggingContext.set(headerExtractor.correlationKey(), correlationId);
+      response.setHeader(header, correlationId);
+    }
+  }
+
+  private void logAccess(HttpServletRequest request, CountingResponse response, boolean failed,
+                         long start) {
+    Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    accessLogger.record(request.getMethod(), route != null ? route.toString() : null,
+        request.getRequestURI(), failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+            : response.getStatus(), response.bytes(), System.nanoTime() - start);
+  }
+
+  /**
+   * Writes the access event of a request that went asynchronous when it completes, with the
+   * logging context the request had when it left the filter.
+   */
+  private final class AsyncAccessListener implements AsyncListener {
+    private final HttpServletRequest request;
+    private final CountingResponse response;
+    private final long start;
+    private final LoggingContextSnapshot snapshot;
+    private boolean failed;
+
+    AsyncAccessListener(HttpServletRequest request, CountingResponse response, long start,
+                        LoggingContextSnapshot snapshot) {
+      this.request = request;
+      this.response = response;
+      this.start = start;
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      try (LoggingContextScope ignored = loggingContext.restore(snapshot)) {
+        logAccess(request, response, failed, start);
+      }
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      failed = true;
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      failed = true;
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      event.getAsyncContext().addListener(this);
+    }
+  }
+
+  /**
+   * Counts the bytes of response body written through the output stream. Bodies written through
+   * the writer are counted by their {@code Content-Length}, or reported as unknown.
+   */
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+    private CountingOutputStream outputStream;
+
+    CountingResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        outputStream = new CountingOutputStream(super.getOutputStream());
+      }
+      return outputStream;
+    }
+
+    long bytes() {
+      if (outputStream != null) {
+        return outputStream.count;
+      }
+      String contentLength = getHeader("Content-Length");
+      try {
+        return contentLength != null ? Long.parseLong(contentLength) : -1;
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+  }
+
+  private static final class CountingOutputStream extends ServletOutputStream {
+    private final ServletOutputStream delegate;
+    private long count;
+
+    CountingOutputStream(ServletOutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+      count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      delegate.setWriteListener(writeListener);
+    }
+  }
 }
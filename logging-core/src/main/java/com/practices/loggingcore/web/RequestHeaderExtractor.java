@@ -0,0 +1,273 @@
+package com.practices.loggingcore.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps request headers to logging context keys, compiled once from the configured mapping into
+ * flat arrays that the web filters walk for every request.
+ *
+ * <p>Header values are sanitised before they reach the logging context: blank values are ignored,
+ * values longer than the limit of their header are cut at the limit, and control characters,
+ * which could forge extra lines in plain-text logs, are replaced with {@code _}. A value that is
+ * already clean and short enough is used as it is, so a request costs one header lookup per
+ * mapping and allocates nothing but the values that had to be changed.
+ *
+ * <p>The filters walk the mappings by index:
+ *
+ * <pre>{@code
+ * for (int i = 0; i < extractor.size(); i++) {
+ *   String value = extractor.value(i, request.getHeader(extractor.header(i)));
+ *   if (value != null) {
+ *     loggingContext.set(extractor.key(i), value);
+ *   }
+ * }
+ * }</pre>
+ *
+ * <p>It can also read the trace and span IDs from the trace headers of the request, see
+ * {@link TraceHeaderParser}, and give each request a correlation ID, taken from its correlation
+ * header or generated by a {@link CorrelationIdGenerator}, that the filters echo in the response.
+ */
+public final class RequestHeaderExtractor {
+
+  /** The header of the default mapping. */
+  public static final String USER_ID_HEADER = "X-User-ID";
+  /** The logging context key of the default mapping. */
+  public static final String USER_ID_KEY = "userID";
+  /** The value length limit of mappings that do not set their own. */
+  public static final int DEFAULT_MAX_LENGTH = 1024;
+
+  private static final char REPLACEMENT = '_';
+  private static final char LINE_SEPARATOR = (char) 0x2028;
+  private static final char PARAGRAPH_SEPARATOR = (char) 0x2029;
+
+  private final String[] headers;
+  private final String[] keys;
+  private final int[] maxLengths;
+  private final boolean traceHeaders;
+  private final String correlationHeader;
+  private final String correlationKey;
+  private final int correlationMaxLength;
+  private final CorrelationIdGenerator correlationIdGenerator;
+
+  private RequestHeaderExtractor(Builder builder) {
+    this.headers = builder.headers.toArray(String[]::new);
+    this.keys = builder.keys.toArray(String[]::new);
+    this.maxLengths = builder.maxLengths.stream().mapToInt(Integer::intValue).toArray();
+    this.traceHeaders = builder.traceHeaders;
+    this.correlationHeader = builder.correlationHeader;
+    this.correlationKey = builder.correlationKey;
+    this.correlationMaxLength = builder.correlationMaxLength;
+    this.correlationIdGenerator = builder.correlationIdGenerator;
+  }
+
+  /**
+   * Returns the default mapping, of {@value #USER_ID_HEADER} to {@value #USER_ID_KEY}.
+   *
+   * @return the extractor
+   */
+  public static RequestHeaderExtractor defaults() {
+    return builder().map(USER_ID_HEADER, USER_ID_KEY, DEFAULT_MAX_LENGTH).build();
+  }
+
+  /**
+   * Returns a builder for an extractor with the given mappings, in order.
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns the number of mappings. */
+  public int size() {
+    return headers.length;
+  }
+
+  /** Returns whether the trace and span IDs are read from the trace headers. */
+  public boolean parsesTraceHeaders() {
+    return traceHeaders;
+  }
+
+  /** Returns whether each request gets a correlation ID. */
+  public boolean hasCorrelationId() {
+    return correlationHeader != null;
+  }
+
+  /** Returns the header the correlation ID is read from and echoed in. */
+  public String correlationHeader() {
+    return correlationHeader;
+  }
+
+  /** Returns the logging context key of the correlation ID. */
+  public String correlationKey() {
+    return correlationKey;
+  }
+
+  /**
+   * Returns the correlation ID of a request: the sanitised value of its correlation header, or a
+   * generated one if it has none.
+   *
+   * @param raw the correlation header value, or {@code null} if the request does not have it
+   * @return the correlation ID
+   */
+  public String correlationId(String raw) {
+    String value = sanitise(raw, correlationMaxLength);
+    return value != null ? value : correlationIdGenerator.generate();
+  }
+
+  /**
+   * Returns the logging context keys the mappings and the correlation ID are written to. The
+   * trace and span IDs are not included.
+   *
+   * @return the keys, in mapping order
+   */
+  public List<String> contextKeys() {
+    List<String> contextKeys = new ArrayList<>(List.of(keys));
+    if (correlationKey != null) {
+      contextKeys.add(correlationKey);
+    }
+    return List.copyOf(contextKeys);
+  }
+
+  /** Returns the header name of the mapping at {@code index}. */
+  public String header(int index) {
+    return headers[index];
+  }
+
+  /** Returns the logging context key of the mapping at {@code index}. */
+  public String key(int index) {
+    return keys[index];
+  }
+
+  /**
+   * Sanitises a value of the header of the mapping at {@code index}.
+   *
+   * @param index the mapping
+   * @param raw the header value, or {@code null} if the request does not have the header
+   * @return the value to put in the logging context, or {@code null} if there is none
+   */
+  public String value(int index, String raw) {
+    return sanitise(raw, maxLengths[index]);
+  }
+
+  private static String sanitise(String raw, int maxLength) {
+    if (raw == null || raw.isBlank()) {
+      return null;
+    }
+    int length = Math.min(raw.length(), maxLength);
+    if (length < raw.length() && length > 0 && Character.isHighSurrogate(raw.charAt(length - 1))) {
+      length--;
+    }
+    int unsafe = firstUnsafe(raw, length);
+    if (unsafe < 0) {
+      return length == raw.length() ? raw : raw.substring(0, length);
+    }
+    char[] chars = new char[length];
+    raw.getChars(0, length, chars, 0);
+    for (int i = unsafe; i < length; i++) {
+      if (isUnsafe(chars[i])) {
+        chars[i] = REPLACEMENT;
+      }
+    }
+    return new String(chars);
+  }
+
+  private static int firstUnsafe(String value, int length) {
+    for (int i = 0; i < length; i++) {
+      if (isUnsafe(value.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isUnsafe(char c) {
+    // the Unicode line and paragraph separators end lines for some log viewers
+    return Character.isISOControl(c) || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR;
+  }
+
+  /** Collects the mappings of a {@link RequestHeaderExtractor}. */
+  public static final class Builder {
+    private final List<String> headers = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<Integer> maxLengths = new ArrayList<>();
+    private boolean traceHeaders;
+    private String correlationHeader;
+    private String correlationKey;
+    private int correlationMaxLength;
+    private CorrelationIdGenerator correlationIdGenerator;
+
+    private Builder() {
+    }
+
+    /**
+     * Gives each request a correlation ID from {@code header}, or generated if the request does
+     * not have it, put in the logging context under {@code key} and echoed in the response.
+     *
+     * @param header the request and response header name
+     * @param key the logging context key
+     * @param maxLength the length received IDs are cut at
+     * @param generator generates the IDs of requests without one
+     * @return this builder
+     * @throws IllegalArgumentException if a name is blank or the limit is not positive
+     */
+    public Builder correlationId(String header, String key, int maxLength,
+                                 CorrelationIdGenerator generator) {
+      validate(header, key, maxLength);
+      this.correlationHeader = header;
+      this.correlationKey = key;
+      this.correlationMaxLength = maxLength;
+      this.correlationIdGenerator = generator;
+      return this;
+    }
+
+    /**
+     * Sets whether the trace and span IDs are read from the trace headers of the request.
+     *
+     * @param traceHeaders whether to parse the trace headers
+     * @return this builder
+     */
+    public Builder traceHeaders(boolean traceHeaders) {
+      this.traceHeaders = traceHeaders;
+      return this;
+    }
+
+    /**
+     * Maps {@code header} to the logging context key {@code key}.
+     *
+     * @param header the request header name, matched case-insensitively
+     * @param key the logging context key
+     * @param maxLength the length values are cut at
+     * @return this builder
+     * @throws IllegalArgumentException if a name is blank or the limit is not positive
+     */
+    public Builder map(String header, String key, int maxLength) {
+      validate(header, key, maxLength);
+      headers.add(header);
+      keys.add(key);
+      maxLengths.add(maxLength);
+      return this;
+    }
+
+    private static void validate(String header, String key, int maxLength) {
+      if (header == null || header.isBlank() || key == null || key.isBlank()) {
+        throw new IllegalArgumentException(
+            "Header mappings need a header and a key, got " + header + " -> " + key);
+      }
+      if (maxLength < 1) {
+        throw new IllegalArgumentException(
+            "The max length of header " + header + " must be positive, was " + maxLength);
+      }
+    }
+
+    /**
+     * Compiles the mappings.
+     *
+     * @return the extractor
+     */
+    public RequestHeaderExtractor build() {
+      return new RequestHeaderExtractor(this);
+    }
+  }
+}
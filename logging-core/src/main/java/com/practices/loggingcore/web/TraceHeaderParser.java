@@ -0,0 +1,152 @@
+package com.practices.loggingcore.web;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the trace and span IDs of a request from its W3C {@code traceparent} header, or else from
+ * its B3 headers, for applications that want them in their logs without running a tracer.
+ *
+ * <p>The headers are validated by hand, character by character: IDs must be lowercase hex of the
+ * right length and not all zeros, and anything else is ignored rather than logged. Parsing does
+ * not allocate; only the two IDs that are put in the logging context are new strings. The keys
+ * are the ones Micrometer Tracing uses, so log formats work the same with and without a tracer.
+ */
+public final class TraceHeaderParser {
+
+  /** The W3C Trace Context header. */
+  public static final String TRACEPARENT = "traceparent";
+  /** The B3 single header. */
+  public static final String B3 = "b3";
+  /** The B3 multi-header trace ID. */
+  public static final String B3_TRACE_ID = "X-B3-TraceId";
+  /** The B3 multi-header span ID. */
+  public static final String B3_SPAN_ID = "X-B3-SpanId";
+  /** The logging context key of the trace ID. */
+  public static final String TRACE_ID_KEY = "traceId";
+  /** The logging context key of the span ID. */
+  public static final String SPAN_ID_KEY = "spanId";
+
+  // version "00": 2 + 1 + 32 + 1 + 16 + 1 + 2
+  private static final int TRACEPARENT_LENGTH = 55;
+
+  private TraceHeaderParser() {
+  }
+
+  /**
+   * Looks up the trace headers of a request and passes the trace and span IDs of the first valid
+   * one to {@code sink}, under {@link #TRACE_ID_KEY} and {@link #SPAN_ID_KEY}.
+   *
+   * @param headers looks up a request header value by name, or returns {@code null}
+   * @param sink receives the keys and IDs
+   * @return whether valid IDs were found
+   */
+  public static boolean parse(HeaderLookup headers, BiConsumer<String, String> sink) {
+    String traceparent = headers.get(TRACEPARENT);
+    if (traceparent != null && isTraceparent(traceparent)) {
+      sink.accept(TRACE_ID_KEY, traceparent.substring(3, 35));
+      sink.accept(SPAN_ID_KEY, traceparent.substring(36, 52));
+      return true;
+    }
+    String b3 = headers.get(B3);
+    if (b3 != null) {
+      int traceIdEnd = b3TraceIdEnd(b3);
+      if (traceIdEnd > 0) {
+        sink.accept(TRACE_ID_KEY, b3.substring(0, traceIdEnd));
+        sink.accept(SPAN_ID_KEY, b3.substring(traceIdEnd + 1, traceIdEnd + 17));
+        return true;
+      }
+    }
+    String traceId = headers.get(B3_TRACE_ID);
+    if (traceId == null || !isB3TraceId(traceId, 0, traceId.length())) {
+      return false;
+    }
+    String spanId = headers.get(B3_SPAN_ID);
+    if (spanId == null || spanId.length() != 16 || !isId(spanId, 0, 16)) {
+      return false;
+    }
+    sink.accept(TRACE_ID_KEY, traceId);
+    sink.accept(SPAN_ID_KEY, spanId);
+    return true;
+  }
+
+  /**
+   * Returns whether {@code value} is a valid {@code traceparent} header: version {@code 00} with
+   * exactly four fields, or a later version with at least those four.
+   */
+  static boolean isTraceparent(String value) {
+    int length = value.length();
+    if (length < TRACEPARENT_LENGTH
+        || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-'
+        || !isHex(value, 0, 2) || !isHex(value, 53, 55)) {
+      return false;
+    }
+    boolean version00 = value.charAt(0) == '0' && value.charAt(1) == '0';
+    boolean invalidVersion = value.charAt(0) == 'f' && value.charAt(1) == 'f';
+    if (invalidVersion || (version00 ? length != TRACEPARENT_LENGTH
+        : length > TRACEPARENT_LENGTH && value.charAt(TRACEPARENT_LENGTH) != '-')) {
+      return false;
+    }
+    return isId(value, 3, 35) && isId(value, 36, 52);
+  }
+
+  /**
+   * Returns the end of the trace ID in a B3 single header of at least a trace ID and a span ID,
+   * or {@code -1} if the header is not one.
+   */
+  static int b3TraceIdEnd(String value) {
+    int length = value.length();
+    int traceIdEnd = length > 32 && value.charAt(32) == '-' ? 32
+        : length > 16 && value.charAt(16) == '-' ? 16 : -1;
+    if (traceIdEnd < 0 || !isB3TraceId(value, 0, traceIdEnd)) {
+      return -1;
+    }
+    int spanIdEnd = traceIdEnd + 17;
+    if (length < spanIdEnd || (length > spanIdEnd && value.charAt(spanIdEnd) != '-')
+        || !isId(value, traceIdEnd + 1, spanIdEnd)) {
+      return -1;
+    }
+    return traceIdEnd;
+  }
+
+  private static boolean isB3TraceId(String value, int from, int to) {
+    int length = to - from;
+    return (length == 16 || length == 32) && isId(value, from, to);
+  }
+
+  // lowercase hex and not all zeros
+  private static boolean isId(String value, int from, int to) {
+    boolean nonZero = false;
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      if (!isHex(c)) {
+        return false;
+      }
+      nonZero |= c != '0';
+    }
+    return nonZero;
+  }
+
+  private static boolean isHex(String value, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (!isHex(value.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isHex(char c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+  }
+
+  /**
+   * Looks up a request header value by name.
+   */
+  @FunctionalInterface
+  public interface HeaderLookup {
+    /**
+     * Returns the first value of the header {@code name}, or {@code null} if there is none.
+     */
+    String get(String name);
+  }
+}
@@ -0,0 +1,146 @@
+package com.practices.loggingcore.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An implementation of {@link LoggingContext} that keeps values in a {@link ScopedValue} bound by
+ * {@link #runInScope(ScopedTask)}, instead of in the MDC of the thread.
+ *
+ * <p>Meant for request handling on virtual threads: a scope holds its values only while it runs,
+ * nothing is left on the thread afterwards, and subtasks forked in a
+ * {@code StructuredTaskScope} see the values of the scope that forked them. A subtask that writes
+ * a value gets its own copy of them on its first write, so its writes are never seen by the
+ * scope that forked it or by its sibling subtasks; a subtask that forks subtasks of its own should
+ * call {@link #runInScope(ScopedTask)} first to hand its values on. Outside of a scope, every call
+ * falls back to {@link MdcLoggingContext}.
+ *
+ * <p>Log events do not read scoped values by themselves; {@link ScopedValueMdcFilter} gives them
+ * to events, and the auto-configuration installs it on the appenders whenever this storage is
+ * selected. Requires Java 25, where {@link ScopedValue} is final.
+ */
+public final class ScopedValueLoggingContext implements LoggingContext {
+
+  private static final ScopedValue<Values> CURRENT = ScopedValue.newInstance();
+
+  private final MdcLoggingContext fallback = new MdcLoggingContext();
+
+  /**
+   * Returns the values of the scope bound to the current thread.
+   *
+   * @return an unmodifiable map; empty outside of a scope
+   */
+  public static Map<String, String> currentValues() {
+    return currentMap();
+  }
+
+  static PersistentContextMap currentMap() {
+    return CURRENT.isBound() ? CURRENT.get().read().map : PersistentContextMap.EMPTY;
+  }
+
+  @Override
+  public void set(final String key, final String value) {
+    if (CURRENT.isBound()) {
+      Values values = CURRENT.get().write();
+      values.map = values.map.with(key, value);
+    } else {
+      fallback.set(key, value);
+    }
+  }
+
+  @Override
+  public String get(final String key) {
+    return CURRENT.isBound() ? CURRENT.get().read().map.get(key) : fallback.get(key);
+  }
+
+  @Override
+  public void remove(final String key) {
+    if (CURRENT.isBound()) {
+      Values values = CURRENT.get().write();
+      values.map = values.map.without(key);
+    } else {
+      fallback.remove(key);
+    }
+  }
+
+  @Override
+  public LoggingContextScope with(final String key, final String value) {
+    if (!CURRENT.isBound()) {
+      return fallback.with(key, value);
+    }
+    Values values = CURRENT.get().write();
+    String previous = values.map.get(key);
+    values.map = values.map.with(key, value);
+    return () -> values.map =
+        previous != null ? values.map.with(key, previous) : values.map.without(key);
+  }
+
+  @Override
+  public void clearAll() {
+    if (CURRENT.isBound()) {
+      CURRENT.get().write().map = PersistentContextMap.EMPTY;
+    } else {
+      fallback.clearAll();
+    }
+  }
+
+  @Override
+  public LoggingContextSnapshot capture() {
+    return CURRENT.isBound()
+        ? LoggingContextSnapshot.share(CURRENT.get().read().map)
+        : fallback.capture();
+  }
+
+  @Override
+  public LoggingContextScope restore(final LoggingContextSnapshot snapshot) {
+    if (!CURRENT.isBound()) {
+      return fallback.restore(snapshot);
+    }
+    Values values = CURRENT.get().write();
+    PersistentContextMap previous = values.map;
+    values.map = PersistentContextMap.of(snapshot.asMap());
+    return () -> values.map = previous;
+  }
+
+  @Override
+  public <X extends Exception> void runInScope(final ScopedTask<X> task) throws X {
+    PersistentContextMap inherited =
+        CURRENT.isBound() ? CURRENT.get().read().map : PersistentContextMap.EMPTY;
+    ScopedValue.where(CURRENT, new Values(inherited))
+        .call(() -> {
+          task.run();
+          return null;
+        });
+  }
+
+  /**
+   * The values of one scope, written only by the thread that bound it. Subtasks forked from the
+   * scope share the binding, so each of them gets its own {@code Values} on its first write,
+   * kept by the scope until it ends. Writes replace the immutable map, so a reader on another
+   * thread always sees a consistent version of it.
+   */
+  private static final class Values {
+    private final Thread owner = Thread.currentThread();
+    private final Map<Thread, Values> forks = new ConcurrentHashMap<>();
+    private volatile PersistentContextMap map;
+
+    Values(final PersistentContextMap map) {
+      this.map = map;
+    }
+
+    Values read() {
+      if (owner == Thread.currentThread()) {
+        return this;
+      }
+      Values fork = forks.get(Thread.currentThread());
+      return fork != null ? fork : this;
+    }
+
+    Values write() {
+      if (owner == Thread.currentThread()) {
+        return this;
+      }
+      return forks.computeIfAbsent(Thread.currentThread(), ignored -> new Values(map));
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.practices.loggingcore.core;
+
+import java.util.Map;
+
+/**
+ * Logback appender filter that gives each event the values of the current
+ * {@link ScopedValueLoggingContext} scope as its MDC map, so encoders and layouts read them like
+ * any MDC value. The auto-configuration installs it on the appenders whenever the scoped-value
+ * storage is selected; see {@link ContextMdcFilter}.
+ *
+ * <p>Values put in the MDC directly, for example the trace ids of Micrometer Tracing, are merged
+ * into the map.
+ */
+public class ScopedValueMdcFilter extends ContextMdcFilter {
+
+  @Override
+  protected Map<String, String> contextMap() {
+    PersistentContextMap values = ScopedValueLoggingContext.currentMap();
+    return values.isEmpty() ? null : withMdc(values);
+  }
+}
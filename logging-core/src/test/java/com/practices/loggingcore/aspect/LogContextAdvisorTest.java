@@ -0,0 +1,72 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.LoggingContextImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogContext Advisor")
+class LogContextAdvisorTest {
+
+  private final LogContextRegistry registry = new LogContextRegistry();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should only apply to annotated classes in the base packages")
+  void shouldApplyOnlyInsideBasePackages() {
+    assertThat(AopUtils.canApply(advisor("com.practices.loggingcore.aspect"), OrderService.class))
+        .isTrue();
+    assertThat(AopUtils.canApply(advisor("com.practices.loggingcore.aspect"), PlainService.class))
+        .isFalse();
+    assertThat(AopUtils.canApply(advisor("com.practices.loggingcore.web"), OrderService.class))
+        .isFalse();
+    assertThat(AopUtils.canApply(advisor("com.practices.loggingcore.asp"), OrderService.class))
+        .isFalse();
+  }
+
+  @Test
+  @DisplayName("Should populate the context for advised calls and clean it up afterwards")
+  void shouldPopulateContext() {
+    ProxyFactory factory = new ProxyFactory(new OrderService());
+    factory.setProxyTargetClass(true);
+    factory.addAdvisor(advisor("com.practices.loggingcore"));
+    OrderService service = (OrderService) factory.getProxy();
+
+    assertThat(service.place("o-1")).isEqualTo("o-1");
+    assertThat(service.unannotated()).isNull();
+    assertThat(MDC.get("orderId")).isNull();
+  }
+
+  private LogContextAdvisor advisor(String basePackage) {
+    return new LogContextAdvisor(new LogContextAspect(new LoggingContextImpl(), registry),
+        registry, List.of(basePackage));
+  }
+
+  public static class OrderService {
+    @LogContext(expressions = {"orderId=#orderId"})
+    public String place(String orderId) {
+      return MDC.get("orderId");
+    }
+
+    public String unannotated() {
+      return MDC.get("orderId");
+    }
+  }
+
+  public static class PlainService {
+    public void run() {
+    }
+  }
+}
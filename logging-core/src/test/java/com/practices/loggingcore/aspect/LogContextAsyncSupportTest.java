@@ -0,0 +1,123 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogContext with asynchronous return types")
+class LogContextAsyncSupportTest {
+
+  private OrderService orderService;
+
+  @BeforeEach
+  void setUp() {
+    AspectJProxyFactory factory = new AspectJProxyFactory(new OrderService());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new LogContextAspect(new MdcLoggingContext()));
+    orderService = factory.getProxy();
+  }
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should expose the values to a Mono when it is subscribed after the call returned")
+  void shouldScopeMonoSubscription() {
+    Mono<String> result = orderService.find("o-1");
+
+    assertThat(MDC.get("orderId")).isNull();
+    StepVerifier.create(result).expectNext("o-1").verifyComplete();
+    assertThat(MDC.get("orderId")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should expose the values to each element a Flux emits on request")
+  void shouldScopeFluxRequests() {
+    StepVerifier.create(orderService.lines("o-2"), 0)
+        .thenRequest(1).expectNext("o-2:1")
+        .then(() -> assertThat(MDC.get("orderId")).isNull())
+        .thenRequest(2).expectNext("o-2:2", "o-2:3")
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Should write the values to the Reactor context, merged over enclosing scopes")
+  void shouldWriteReactorContext() {
+    Mono<Map<String, String>> result = orderService.contextValues("o-3")
+        .contextWrite(context -> context.put(LogContextAsyncSupport.CONTEXT_KEY,
+            Map.of("tenant", "acme", "orderId", "outer")));
+
+    StepVerifier.create(result)
+        .expectNext(Map.of("tenant", "acme", "orderId", "o-3"))
+        .verifyComplete();
+  }
+
+  @Test
+  @DisplayName("Should restore the previous values after a signal on the same thread")
+  void shouldNotLeakToTheSubscribingThread() {
+    MDC.put("orderId", "unrelated");
+
+    StepVerifier.create(orderService.find("o-4")).expectNext("o-4").verifyComplete();
+
+    assertThat(MDC.get("orderId")).isEqualTo("unrelated");
+  }
+
+  @Test
+  @DisplayName("Should expose the values to stages that run when the future completes")
+  void shouldScopeFutureCompletion() throws Exception {
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    CompletableFuture<String> seen = orderService.later("o-5", pending)
+        .thenApply(ignored -> MDC.get("orderId"));
+    assertThat(MDC.get("orderId")).isNull();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> pending.complete("done")).get(5, TimeUnit.SECONDS);
+      assertThat(seen.get(5, TimeUnit.SECONDS)).isEqualTo("o-5");
+      assertThat(executor.submit(() -> MDC.get("orderId")).get(5, TimeUnit.SECONDS)).isNull();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  public static class OrderService {
+    @LogContext(expressions = {"orderId=#orderId"})
+    public Mono<String> find(String orderId) {
+      return Mono.fromCallable(() -> MDC.get("orderId"));
+    }
+
+    @LogContext(expressions = {"orderId=#orderId"})
+    public Flux<String> lines(String orderId) {
+      return Flux.range(1, 3).map(line -> MDC.get("orderId") + ":" + line);
+    }
+
+    @LogContext(expressions = {"orderId=#orderId"})
+    public Mono<Map<String, String>> contextValues(String orderId) {
+      return Mono.deferContextual(context ->
+          Mono.just(context.<Map<String, String>>get(LogContextAsyncSupport.CONTEXT_KEY)));
+    }
+
+    @LogContext(expressions = {"orderId=#orderId"})
+    public CompletableFuture<String> later(String orderId, CompletableFuture<String> pending) {
+      return pending;
+    }
+  }
+}
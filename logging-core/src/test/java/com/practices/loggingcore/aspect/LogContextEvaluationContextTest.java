@@ -0,0 +1,98 @@
+package com.practices.loggingcore.aspect;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LogContextEvaluationContext - read-only argument binding")
+class LogContextEvaluationContextTest {
+
+  private static final String[] PARAMETER_NAMES = {"id", "customer"};
+
+  private final SpelExpressionParser parser = new SpelExpressionParser();
+
+  public record Customer(String name) {}
+
+  private Object evaluate(Expression expression, Object... args) {
+    LogContextEvaluationContext context = LogContextEvaluationContext.bind(PARAMETER_NAMES, args);
+    try {
+      return expression.getValue(context);
+    } finally {
+      context.release();
+    }
+  }
+
+  @Test
+  @DisplayName("should resolve variables, properties and instance methods from the arguments")
+  void shouldResolveArguments() {
+    Customer customer = new Customer("Almaz");
+
+    assertThat(evaluate(parser.parseExpression("#id"), "order-1", customer)).isEqualTo("order-1");
+    assertThat(evaluate(parser.parseExpression("#customer.name"), "order-1", customer)).isEqualTo("Almaz");
+    assertThat(evaluate(parser.parseExpression("#id.toUpperCase()"), "order-1", customer)).isEqualTo("ORDER-1");
+    assertThat(evaluate(parser.parseExpression("#unknown"), "order-1", customer)).isNull();
+  }
+
+  @Test
+  @DisplayName("should reject type references and assignments")
+  void shouldRejectTypeReferencesAndAssignments() {
+    assertThatThrownBy(() -> evaluate(parser.parseExpression("T(java.lang.System).currentTimeMillis()"), "a", null))
+        .isInstanceOf(Exception.class);
+    assertThatThrownBy(() -> evaluate(parser.parseExpression("#id = 'other'"), "a", null))
+        .isInstanceOf(Exception.class);
+  }
+
+  @Test
+  @DisplayName("should reject assigning a variable as not assignable and keep the argument")
+  void shouldRejectVariableAssignment() {
+    Object[] args = {"a", null};
+    LogContextEvaluationContext context = LogContextEvaluationContext.bind(PARAMETER_NAMES, args);
+    try {
+      assertThat(context.isAssignmentEnabled()).isFalse();
+      assertThatThrownBy(() -> parser.parseExpression("#p = 1").getValue(context))
+          .isInstanceOfSatisfying(SpelEvaluationException.class,
+              e -> assertThat(e.getMessageCode()).isEqualTo(SpelMessage.NOT_ASSIGNABLE));
+
+      context.setVariable("id", "other");
+      assertThat(context.lookupVariable("id")).isEqualTo("a");
+    } finally {
+      context.release();
+    }
+  }
+
+  @Test
+  @DisplayName("should work with compiled expressions")
+  void shouldSupportCompiledExpressions() {
+    Expression expression = new SpelExpressionParser(
+        new SpelParserConfiguration(SpelCompilerMode.MIXED, null)).parseExpression("#customer.name");
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(evaluate(expression, "order", new Customer("customer-" + i))).isEqualTo("customer-" + i);
+    }
+  }
+
+  @Test
+  @DisplayName("should reuse the thread's context and hand out a fresh one when re-entered")
+  void shouldReuseContextPerThread() {
+    LogContextEvaluationContext first = LogContextEvaluationContext.bind(PARAMETER_NAMES, new Object[] {"a", null});
+    LogContextEvaluationContext nested = LogContextEvaluationContext.bind(PARAMETER_NAMES, new Object[] {"b", null});
+
+    assertThat(nested).isNotSameAs(first);
+    assertThat(first.lookupVariable("id")).isEqualTo("a");
+    assertThat(nested.lookupVariable("id")).isEqualTo("b");
+
+    nested.release();
+    first.release();
+
+    assertThat(LogContextEvaluationContext.bind(PARAMETER_NAMES, new Object[] {"c", null})).isSameAs(first);
+    first.release();
+  }
+}
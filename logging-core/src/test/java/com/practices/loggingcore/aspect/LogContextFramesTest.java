@@ -0,0 +1,159 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.LoggingContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogContext frame stack")
+class LogContextFramesTest {
+
+  private static final Method OUTER = method("outer", String.class);
+  private static final Method INNER = method("inner", String.class, String.class);
+  private static final Service SERVICE = new Service();
+  private static final Object[] OUTER_ARGS = {"alice"};
+  private static final Object[] INNER_ARGS = {"bob", "globex"};
+
+  private final ArrayLoggingContext loggingContext = new ArrayLoggingContext();
+
+  @Test
+  @DisplayName("Should restore the outer value a nested scope shadowed")
+  void shouldRestoreShadowedValues() throws Throwable {
+    LogContextAspect aspect = new LogContextAspect(loggingContext, new LogContextRegistry());
+    loggingContext.set("tenant", "acme");
+
+    aspect.invoke(OUTER, SERVICE, new Object[] {"alice"}, aspect, outer -> {
+      assertThat(loggingContext.get("user")).isEqualTo("alice");
+
+      outer.invoke(INNER, SERVICE, new Object[] {"bob", "globex"}, null, inner -> {
+        assertThat(loggingContext.get("user")).isEqualTo("bob");
+        assertThat(loggingContext.get("tenant")).isEqualTo("globex");
+        return null;
+      });
+
+      assertThat(loggingContext.get("user")).isEqualTo("alice");
+      assertThat(loggingContext.get("tenant")).isEqualTo("acme");
+      return null;
+    });
+
+    assertThat(loggingContext.get("user")).isNull();
+    assertThat(loggingContext.get("tenant")).isEqualTo("acme");
+  }
+
+  @ParameterizedTest(name = "deferred={0}")
+  @ValueSource(booleans = {false, true})
+  @DisplayName("Should not allocate per call once the frames are in place")
+  void shouldNotAllocatePerCall(boolean deferred) throws Throwable {
+    LogContextAspect aspect =
+        new LogContextAspect(loggingContext, new LogContextRegistry(), deferred);
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    for (int i = 0; i < 20_000; i++) {
+      callNested(aspect);
+    }
+    long before = threads.getThreadAllocatedBytes(threadId);
+    int calls = 100_000;
+    for (int i = 0; i < calls; i++) {
+      callNested(aspect);
+    }
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    // any allocation per call would add up to at least 16 bytes times the number of calls
+    assertThat(allocated).isLessThan(calls);
+    assertThat(loggingContext.get("user")).isNull();
+  }
+
+  // method references only, so the calls themselves create no lambdas
+  private static void callNested(LogContextAspect aspect) throws Throwable {
+    aspect.invoke(OUTER, SERVICE, OUTER_ARGS, aspect, LogContextFramesTest::callInner);
+  }
+
+  private static Object callInner(LogContextAspect aspect) throws Throwable {
+    return aspect.invoke(INNER, SERVICE, INNER_ARGS, SERVICE, LogContextFramesTest::proceed);
+  }
+
+  private static Object proceed(Service service) {
+    return null;
+  }
+
+  private static Method method(String name, Class<?>... parameterTypes) {
+    try {
+      return Service.class.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static class Service {
+    @LogContext(expressions = {"user=#user"})
+    public void outer(String user) {
+    }
+
+    @LogContext(expressions = {"user=#user", "tenant=#tenant"})
+    public void inner(String user, String tenant) {
+    }
+  }
+
+  /** Stores values in fixed arrays, so the context itself does not allocate. */
+  static class ArrayLoggingContext implements LoggingContext {
+    private final String[] keys = new String[8];
+    private final String[] values = new String[8];
+
+    @Override
+    public void set(String key, String value) {
+      int free = -1;
+      for (int i = 0; i < keys.length; i++) {
+        if (key.equals(keys[i])) {
+          values[i] = value;
+          return;
+        }
+        if (free < 0 && keys[i] == null) {
+          free = i;
+        }
+      }
+      keys[free] = key;
+      values[free] = value;
+    }
+
+    @Override
+    public String get(String key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (key.equals(keys[i])) {
+          return values[i];
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public void remove(String key) {
+      for (int i = 0; i < keys.length; i++) {
+        if (key.equals(keys[i])) {
+          keys[i] = null;
+          values[i] = null;
+        }
+      }
+    }
+
+    @Override
+    public AutoCloseable with(String key, String value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clearAll() {
+      Arrays.fill(keys, null);
+      Arrays.fill(values, null);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.practices.loggingcore.aspect;
+
+/**
+ * Stands in for the class the logging-processor would generate for
+ * {@link LogContextFramesTest.Service}.
+ */
+public final class LogContextFramesTest_Service_LogContextExtractors implements LogContextExtractors {
+
+  @Override
+  public LogContextExtractor find(String method, String expression) {
+    switch (method + ' ' + expression) {
+      case "outer(java.lang.String) #user":
+      case "inner(java.lang.String,java.lang.String) #user":
+        return args -> args[0];
+      case "inner(java.lang.String,java.lang.String) #tenant":
+        return args -> args[1];
+      default:
+        return null;
+    }
+  }
+}
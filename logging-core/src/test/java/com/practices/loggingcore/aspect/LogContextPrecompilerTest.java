@@ -0,0 +1,85 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.config.CoreLoggingAutoConfiguration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogContextPrecompiler - startup validation of @LogContext")
+class LogContextPrecompilerTest {
+
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(CoreLoggingAutoConfiguration.class));
+
+  static class ValidService {
+    @LogContext(expressions = {"orderId=#id"})
+    public void process(String id) {
+    }
+
+    public void notAnnotated(String id) {
+    }
+  }
+
+  static class InvalidService {
+    @LogContext(expressions = {"orderId=#id", "orderId=#id.length()", "noSeparator"})
+    public void process(String id) {
+    }
+  }
+
+  @Test
+  @DisplayName("should resolve annotated bean methods into the registry at startup")
+  void shouldPrecompileAnnotatedMethods() {
+    contextRunner
+        .withBean(ValidService.class)
+        .run(context -> {
+          assertThat(context).hasNotFailed();
+          LogContextRegistry registry = context.getBean(LogContextRegistry.class);
+          Method method = ValidService.class.getMethod("process", String.class);
+
+          LogContextMetadata metadata = registry.resolve(method, ValidService.class);
+
+          assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::key)
+              .containsExactly("orderId");
+          assertThat(registry.resolve(method, ValidService.class)).isSameAs(metadata);
+        });
+  }
+
+  @Test
+  @DisplayName("should only warn about invalid declarations by default")
+  void shouldWarnOnInvalidDeclarationsByDefault() {
+    contextRunner
+        .withBean(InvalidService.class)
+        .run(context -> assertThat(context).hasNotFailed());
+  }
+
+  @Test
+  @DisplayName("should fail the startup on invalid declarations when configured to")
+  void shouldFailOnInvalidDeclarationsWhenConfigured() {
+    contextRunner
+        .withBean(InvalidService.class)
+        .withPropertyValues("log-manager.context.validation=fail")
+        .run(context -> {
+          assertThat(context).hasFailed();
+          assertThat(context.getStartupFailure())
+              .isInstanceOf(IllegalStateException.class)
+              .hasMessageContaining("Duplicate key 'orderId'")
+              .hasMessageContaining("noSeparator");
+        });
+  }
+
+  @Test
+  @DisplayName("should start when configured to fail and all declarations are valid")
+  void shouldStartWhenAllDeclarationsAreValid() {
+    contextRunner
+        .withBean(ValidService.class)
+        .withPropertyValues("log-manager.context.validation=fail")
+        .run(context -> assertThat(context).hasNotFailed());
+  }
+}
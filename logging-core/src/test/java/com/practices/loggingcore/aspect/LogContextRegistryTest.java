@@ -0,0 +1,173 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.ValueType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogContextRegistry - annotation resolution cache")
+class LogContextRegistryTest {
+
+  private final LogContextRegistry registry = new LogContextRegistry();
+
+  interface Greeter {
+    void greet(String name);
+  }
+
+  static class MethodAnnotated implements Greeter {
+    @Override
+    @LogContext(expressions = {"name=#name"})
+    public void greet(String name) {
+    }
+  }
+
+  @LogContext(expressions = {"scope=\"class\""})
+  static class ClassAnnotated implements Greeter {
+    @Override
+    public void greet(String name) {
+    }
+  }
+
+  static class NotAnnotated implements Greeter {
+    @Override
+    public void greet(String name) {
+    }
+  }
+
+  @Test
+  @DisplayName("should resolve the annotation from the target method when invoked through an interface")
+  void shouldResolveTargetMethodAnnotation() throws Exception {
+    Method method = Greeter.class.getMethod("greet", String.class);
+
+    LogContextMetadata metadata = registry.resolve(method, MethodAnnotated.class);
+
+    assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::key).containsExactly("name");
+    assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::source).containsExactly("#name");
+  }
+
+  @Test
+  @DisplayName("should fall back to the class-level annotation")
+  void shouldResolveClassLevelAnnotation() throws Exception {
+    Method method = Greeter.class.getMethod("greet", String.class);
+
+    LogContextMetadata metadata = registry.resolve(method, ClassAnnotated.class);
+
+    assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::key).containsExactly("scope");
+  }
+
+  @Test
+  @DisplayName("should return the shared empty metadata when no annotation applies")
+  void shouldReturnNoneWhenNotAnnotated() throws Exception {
+    Method method = Greeter.class.getMethod("greet", String.class);
+
+    assertThat(registry.resolve(method, NotAnnotated.class)).isSameAs(LogContextMetadata.NONE);
+  }
+
+  @Test
+  @DisplayName("should cache the resolution per target class and method")
+  void shouldCachePerTargetClassAndMethod() throws Exception {
+    Method method = Greeter.class.getMethod("greet", String.class);
+
+    LogContextMetadata first = registry.resolve(method, MethodAnnotated.class);
+    LogContextMetadata second = registry.resolve(method, MethodAnnotated.class);
+    LogContextMetadata otherTarget = registry.resolve(method, ClassAnnotated.class);
+
+    assertThat(second).isSameAs(first);
+    assertThat(otherTarget).isNotSameAs(first);
+  }
+
+  static class Faulty {
+    @LogContext(expressions = {"missingSeparator", "broken=(#name", "valid=#name", "valid=\"again\""})
+    public void greet(String name) {
+    }
+  }
+
+  @Test
+  @DisplayName("should drop malformed, unparsable and duplicate entries, keeping the valid ones")
+  void shouldDropInvalidEntries() throws Exception {
+    Method method = Faulty.class.getMethod("greet", String.class);
+
+    LogContextMetadata metadata = registry.resolve(method, Faulty.class);
+
+    assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::key).containsExactly("valid");
+    assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::source).containsExactly("#name");
+    assertThat(metadata.problems()).hasSize(3);
+    assertThat(metadata.problems().get(0)).contains("missingSeparator");
+    assertThat(metadata.problems().get(1)).contains("(#name");
+    assertThat(metadata.problems().get(2)).contains("Duplicate key 'valid'");
+  }
+
+  @Test
+  @DisplayName("should evaluate expressions parsed in compiled mode")
+  void shouldEvaluateCompiledExpressions() throws Exception {
+    LogContextRegistry compiling = new LogContextRegistry(SpelCompilerMode.MIXED);
+    Method method = Greeter.class.getMethod("greet", String.class);
+    LogContextMetadata.Entry entry = compiling.resolve(method, MethodAnnotated.class).entries()[0];
+
+    for (int i = 0; i < 3; i++) {
+      StandardEvaluationContext context = new StandardEvaluationContext();
+      context.setVariable("name", "caller-" + i);
+      assertThat(entry.expression().getValue(context)).isEqualTo("caller-" + i);
+    }
+  }
+
+  static class Generated {
+    @LogContext(expressions = {"name=#name", "upper=#name.toUpperCase()"})
+    public void greet(String name) {
+    }
+  }
+
+  @Test
+  @DisplayName("should use a generated extractor when one exists and SpEL for the rest")
+  void shouldUseGeneratedExtractors() throws Exception {
+    Method method = Generated.class.getMethod("greet", String.class);
+
+    LogContextMetadata metadata = registry.resolve(method, Generated.class);
+
+    assertThat(metadata.entries()[0].extractor()).isNotNull();
+    assertThat(metadata.entries()[0].extractor().extract(new Object[] {"Abebe"})).isEqualTo("Abebe");
+    assertThat(metadata.entries()[1].extractor()).isNull();
+    assertThat(metadata.requiresEvaluationContext()).isTrue();
+  }
+
+  public static class Order {
+    public long getId() {
+      return 1L;
+    }
+
+    public boolean isPaid() {
+      return true;
+    }
+
+    public String reference() {
+      return "r-1";
+    }
+  }
+
+  static class Typed {
+    @LogContext(expressions = {"typed.orderId=#order.id", "typed.paid=#order.paid",
+        "typed.reference=#order.reference", "typed.attempt=#attempt", "typed.next=#attempt + 1"})
+    public void place(Order order, int attempt) {
+    }
+  }
+
+  @Test
+  @DisplayName("should resolve and register the type of property paths when the method is resolved")
+  void shouldResolveTypesOfPropertyPaths() throws Exception {
+    Method method = Typed.class.getMethod("place", Order.class, int.class);
+
+    LogContextMetadata metadata = registry.resolve(method, Typed.class);
+
+    assertThat(metadata.entries()).extracting(LogContextMetadata.Entry::type).containsExactly(
+        ValueType.LONG, ValueType.BOOLEAN, null, ValueType.LONG, null);
+    assertThat(ValueType.of("typed.orderId")).isEqualTo(ValueType.LONG);
+    assertThat(ValueType.of("typed.paid")).isEqualTo(ValueType.BOOLEAN);
+    assertThat(ValueType.of("typed.reference")).isNull();
+  }
+}
@@ -0,0 +1,18 @@
+package com.practices.loggingcore.aspect;
+
+/**
+ * Stands in for the class the logging-processor would generate for
+ * {@link LogContextRegistryTest.Generated}.
+ */
+public final class LogContextRegistryTest_Generated_LogContextExtractors implements LogContextExtractors {
+
+  @Override
+  public LogContextExtractor find(String method, String expression) {
+    switch (method + ' ' + expression) {
+      case "greet(java.lang.String) #name":
+        return args -> args[0];
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LogContext thread-local accessor")
+class LogContextThreadLocalAccessorTest {
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should carry the context to another thread through a context snapshot")
+  void shouldPropagateThroughContextSnapshot() throws Exception {
+    ContextRegistry registry = new ContextRegistry();
+    LogContextThreadLocalAccessor.register(registry, loggingContext, List.of("userID"));
+    ContextSnapshotFactory factory = ContextSnapshotFactory.builder()
+        .contextRegistry(registry).build();
+
+    MDC.put("userID", "alice");
+    ContextSnapshot snapshot = factory.captureAll();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> MDC.put("tenant", "acme")).get(5, TimeUnit.SECONDS);
+      String seen = executor.submit(snapshot.wrap(() -> MDC.get("userID")))
+          .get(5, TimeUnit.SECONDS);
+
+      assertThat(seen).isEqualTo("alice");
+      assertThat(executor.submit(() -> MDC.getCopyOfContextMap()).get(5, TimeUnit.SECONDS))
+          .isEqualTo(Map.of("tenant", "acme"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Should only write and restore the keys whose value changed")
+  void shouldOnlyTouchChangedKeys() {
+    LoggingContext context = mock(LoggingContext.class);
+    when(context.get("tenant")).thenReturn("acme");
+    LogContextThreadLocalAccessor accessor = new LogContextThreadLocalAccessor(context);
+
+    accessor.setValue(Map.of("tenant", "acme", "userID", "alice"));
+    accessor.restore(null);
+
+    verify(context).set("userID", "alice");
+    verify(context).remove("userID");
+    verify(context, never()).set(eq("tenant"), any());
+    verify(context, never()).remove("tenant");
+    verify(context, never()).clearAll();
+  }
+
+  @Test
+  @DisplayName("Should only capture the keys of open scopes and the configured keys")
+  void shouldOnlyCaptureOwnedKeys() {
+    LogContextThreadLocalAccessor accessor =
+        new LogContextThreadLocalAccessor(loggingContext, List.of("userID"));
+    MDC.put("userID", "alice");
+    MDC.put("traceId", "4bf92f3577b34da6");
+
+    accessor.setValue(Map.of("orderId", "o-1"));
+    try {
+      assertThat(accessor.getValue()).isEqualTo(Map.of("userID", "alice", "orderId", "o-1"));
+    } finally {
+      accessor.restore();
+    }
+  }
+
+  @Test
+  @DisplayName("Should hand on the map it was handed while the thread still holds its values")
+  void getValue_shouldReuseHandedMap() {
+    LogContextThreadLocalAccessor accessor =
+        new LogContextThreadLocalAccessor(loggingContext, List.of("userID"));
+    Map<String, String> handed = Map.of("userID", "alice", "orderId", "o-1");
+
+    accessor.setValue(handed);
+    try {
+      assertThat(accessor.getValue()).isSameAs(handed);
+
+      MDC.put("orderId", "o-2");
+      assertThat(accessor.getValue()).isEqualTo(Map.of("userID", "alice", "orderId", "o-2"));
+    } finally {
+      accessor.restore();
+    }
+  }
+
+  @Test
+  @DisplayName("Should hide the captured keys when the propagated context has no value")
+  void setValue_shouldHideCapturedKeys() {
+    LogContextThreadLocalAccessor accessor =
+        new LogContextThreadLocalAccessor(loggingContext, List.of("userID"));
+    MDC.put("userID", "alice");
+    MDC.put("traceId", "4bf92f3577b34da6");
+    accessor.setValue(Map.of("orderId", "o-1"));
+
+    accessor.setValue();
+    try {
+      assertThat(accessor.getValue()).isNull();
+      assertThat(MDC.getCopyOfContextMap()).isEqualTo(Map.of("traceId", "4bf92f3577b34da6"));
+    } finally {
+      accessor.restore();
+    }
+
+    assertThat(MDC.getCopyOfContextMap()).isEqualTo(
+        Map.of("userID", "alice", "orderId", "o-1", "traceId", "4bf92f3577b34da6"));
+    accessor.restore();
+  }
+
+  @Test
+  @DisplayName("Should not remove an accessor that replaced it in the registry")
+  void close_shouldKeepReplacingAccessor() {
+    ContextRegistry registry = new ContextRegistry();
+    LogContextThreadLocalAccessor replaced =
+        LogContextThreadLocalAccessor.register(registry, loggingContext);
+    LogContextThreadLocalAccessor current =
+        LogContextThreadLocalAccessor.register(registry, loggingContext);
+
+    replaced.close();
+
+    assertThat(registry.getThreadLocalAccessors()).contains(current);
+  }
+
+  @Test
+  @DisplayName("Should restore the Reactor context values in operators after a thread hop")
+  void shouldPropagateThroughReactorContext() {
+    try (LogContextThreadLocalAccessor ignored =
+             LogContextThreadLocalAccessor.register(ContextRegistry.getInstance(), loggingContext)) {
+      Mono<String> result = Mono.just("order")
+          .publishOn(Schedulers.single())
+          .<String>handle((value, sink) -> sink.next(value + ":" + MDC.get("userID")))
+          .contextWrite(Context.of(LogContextAsyncSupport.CONTEXT_KEY, Map.of("userID", "alice")));
+
+      StepVerifier.create(result).expectNext("order:alice").verifyComplete();
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package com.practices.loggingcore.aspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Deferred LogContext evaluation")
+class LogContextTurboFilterTest {
+
+  private final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+  private final Logger serviceLogger = loggerContext.getLogger(OrderService.class);
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  private LogContextTurboFilter filter;
+  private OrderService orderService;
+  private CheckoutService checkoutService;
+
+  @BeforeEach
+  void setUp() {
+    filter = LogContextTurboFilter.install(loggerContext);
+    appender.start();
+    serviceLogger.addAppender(appender);
+    serviceLogger.setLevel(Level.INFO);
+
+    LogContextAspect aspect = new LogContextAspect(
+        new MdcLoggingContext(), new LogContextRegistry(), true);
+    orderService = proxy(new OrderService(), aspect);
+    checkoutService = proxy(new CheckoutService(orderService), aspect);
+  }
+
+  @AfterEach
+  void tearDown() {
+    filter.close();
+    serviceLogger.detachAppender(appender);
+    serviceLogger.setLevel(null);
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should not evaluate expressions when the method does not log")
+  void shouldNotEvaluateWhenNothingIsLogged() {
+    Order order = new Order("o-1");
+
+    orderService.quiet(order);
+
+    assertThat(order.reads()).isZero();
+    assertThat(MDC.get("orderId")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should not create a frame stack for threads that log outside of any scope")
+  void shouldNotCreateFramesOutsideOfScopes() throws Exception {
+    AtomicReference<LogContextFrames> frames = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      serviceLogger.info("No scope here");
+      frames.set(LogContextFrames.peek());
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(appender.list).hasSize(1);
+    assertThat(frames.get()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should not evaluate expressions for log calls below the logger level")
+  void shouldNotEvaluateForDisabledLevels() {
+    Order order = new Order("o-2");
+
+    orderService.debugOnly(order);
+
+    assertThat(order.reads()).isZero();
+    assertThat(appender.list).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should evaluate once and expose the values to every event in the scope")
+  void shouldEvaluateOnceOnFirstLog() {
+    Order order = new Order("o-3");
+
+    orderService.loud(order);
+
+    assertThat(order.reads()).isEqualTo(1);
+    assertThat(appender.list).hasSize(2)
+        .allSatisfy(event -> assertThat(event.getMDCPropertyMap()).containsEntry("orderId", "o-3"));
+    assertThat(MDC.get("orderId")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should evaluate outer scopes too and keep them after an inner scope ends")
+  void shouldMaterializeNestedScopes() {
+    Order order = new Order("o-4");
+
+    checkoutService.checkout("c-1", order);
+
+    assertThat(appender.list).extracting(ILoggingEvent::getMessage)
+        .containsExactly("placing", "placed", "checked out");
+    assertThat(appender.list.get(0).getMDCPropertyMap())
+        .containsEntry("cartId", "c-1")
+        .containsEntry("orderId", "o-4");
+    assertThat(appender.list.get(2).getMDCPropertyMap())
+        .containsEntry("cartId", "c-1")
+        .doesNotContainKey("orderId");
+    assertThat(MDC.get("cartId")).isNull();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(T target, LogContextAspect aspect) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    return (T) factory.getProxy();
+  }
+
+  public static class Order {
+    private final String id;
+    private final AtomicInteger reads = new AtomicInteger();
+
+    Order(String id) {
+      this.id = id;
+    }
+
+    public String getId() {
+      reads.incrementAndGet();
+      return id;
+    }
+
+    int reads() {
+      return reads.get();
+    }
+  }
+
+  public static class OrderService {
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    @LogContext(expressions = {"orderId=#order.id"})
+    public void quiet(Order order) {
+    }
+
+    @LogContext(expressions = {"orderId=#order.id"})
+    public void debugOnly(Order order) {
+      log.debug("not written");
+    }
+
+    @LogContext(expressions = {"orderId=#order.id"})
+    public void loud(Order order) {
+      log.info("placing");
+      log.info("placed");
+    }
+  }
+
+  public static class CheckoutService {
+    // same logger as OrderService, so the test appender sees both
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(OrderService.class);
+    private final OrderService orderService;
+
+    CheckoutService(OrderService orderService) {
+      this.orderService = orderService;
+    }
+
+    @LogContext(expressions = {"cartId=#cartId"})
+    public void checkout(String cartId, Order order) {
+      orderService.loud(order);
+      log.info("checked out");
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.practices.loggingcore.aspect;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.core.LoggingContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.slf4j.MDC;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Woven LogContext aspect")
+class WovenLogContextAspectTest {
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should write to the MDC before it is configured")
+  void shouldUseMdcByDefault() {
+    GreetingService service = advise(new WovenLogContextAspect());
+
+    assertThat(service.greet("ada")).isEqualTo("ada");
+    assertThat(MDC.get("name")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should delegate to the configured logging context")
+  void shouldUseConfiguredContext() {
+    LoggingContext loggingContext = mock(LoggingContext.class);
+    WovenLogContextAspect aspect = new WovenLogContextAspect();
+    aspect.configure(loggingContext, new LogContextRegistry(), false);
+
+    advise(aspect).greet("grace");
+
+    InOrder order = inOrder(loggingContext);
+    order.verify(loggingContext).set("name", "grace");
+    order.verify(loggingContext).remove("name");
+  }
+
+  @Test
+  @DisplayName("Should explain how to enable weaving when the aspect has not been woven")
+  void shouldFailWhenNotWoven() {
+    assertThatThrownBy(WovenLogContextAspect::instance)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("has not been woven");
+  }
+
+  // the test JVM has no weaver, so the advice is applied through a proxy
+  private static GreetingService advise(WovenLogContextAspect aspect) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(new GreetingService());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    return factory.getProxy();
+  }
+
+  public static class GreetingService {
+    @LogContext(expressions = {"name=#name"})
+    public String greet(String name) {
+      return MDC.get("name");
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.practices.loggingcore.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("LoggingContextExecutors and LoggingContextTaskDecorator")
+class LoggingContextExecutorsTest {
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should run tasks on a wrapped ForkJoinPool with the submitter's context")
+  void shouldPropagateToForkJoinPool() throws Exception {
+    ExecutorService executor = LoggingContextExecutors.wrap(new ForkJoinPool(2), loggingContext);
+    try {
+      MDC.put("userID", "alice");
+      Future<String> submitted = executor.submit(() -> MDC.get("userID"));
+      List<Future<String>> invoked = executor.invokeAll(
+          List.<Callable<String>>of(() -> MDC.get("userID"), () -> MDC.get("userID")));
+      MDC.put("userID", "bob");
+      String executed = CompletableFuture.supplyAsync(() -> MDC.get("userID"), executor)
+          .get(5, TimeUnit.SECONDS);
+
+      assertThat(submitted.get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+      for (Future<String> future : invoked) {
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+      }
+      assertThat(executed).isEqualTo("bob");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Should decorate Spring task executors with the submitter's context")
+  void shouldDecorateTaskExecutor() throws Exception {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setTaskDecorator(new LoggingContextTaskDecorator(loggingContext));
+    executor.initialize();
+    try {
+      MDC.put("userID", "alice");
+      Future<String> seen = executor.submit(() -> MDC.get("userID"));
+      MDC.clear();
+
+      assertThat(seen.get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+      assertThat(executor.submit(() -> MDC.get("userID")).get(5, TimeUnit.SECONDS)).isNull();
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
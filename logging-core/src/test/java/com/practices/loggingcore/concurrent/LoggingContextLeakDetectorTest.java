@@ -0,0 +1,94 @@
+package com.practices.loggingcore.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+
+@DisplayName("LoggingContextLeakDetector")
+class LoggingContextLeakDetectorTest {
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final LoggingContextLeakDetector detector =
+      new LoggingContextLeakDetector(loggingContext, 1, meterRegistry);
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should report nothing when the context is empty at a boundary")
+  void shouldIgnoreEmptyContext() {
+    detector.check("request");
+
+    assertThat(detector.leaks()).isEmpty();
+    assertThat(meterRegistry.find(LoggingContextLeakDetector.METRIC_NAME).counter()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should count and list each key left behind, with where it was found")
+  void shouldReportLeakedKeys() {
+    MDC.put("txnId", "t-1");
+    MDC.put("tenant", "acme");
+
+    detector.check("request");
+    detector.check("task");
+    MDC.remove("tenant");
+    detector.check("task");
+
+    assertThat(detector.leaks())
+        .extracting(LoggingContextLeakDetector.Leak::getKey,
+            LoggingContextLeakDetector.Leak::getCount,
+            LoggingContextLeakDetector.Leak::getBoundary)
+        .containsExactly(
+            tuple("txnId", 3L, "task"),
+            tuple("tenant", 2L, "task"));
+    assertThat(detector.leaks().get(0).getThread()).isEqualTo(Thread.currentThread().getName());
+    assertThat(meterRegistry.get(LoggingContextLeakDetector.METRIC_NAME)
+        .tags("key", "txnId", "boundary", "task").counter().count()).isEqualTo(2.0);
+  }
+
+  @Test
+  @DisplayName("Should check the worker thread before each decorated task runs")
+  void shouldCheckDecoratedTasks() {
+    LoggingContextTaskDecorator decorator =
+        new LoggingContextTaskDecorator(loggingContext, detector);
+    Runnable task = CompletableFuture.supplyAsync(() -> decorator.decorate(() -> { })).join();
+    MDC.put("leftover", "x");
+
+    task.run();
+
+    assertThat(detector.leaks()).extracting(LoggingContextLeakDetector.Leak::getBoundary)
+        .containsExactly(LoggingContextTaskDecorator.BOUNDARY);
+  }
+
+  @Test
+  @DisplayName("Should not check decorated tasks that run on the thread that submitted them")
+  void shouldSkipTasksRunBySubmitter() {
+    LoggingContextTaskDecorator decorator =
+        new LoggingContextTaskDecorator(loggingContext, detector);
+    MDC.put("txnId", "t-1");
+
+    decorator.decorate(() -> { }).run();
+
+    assertThat(detector.leaks()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject a sample rate below one")
+  void shouldRejectInvalidSampleRate() {
+    assertThatThrownBy(() -> new LoggingContextLeakDetector(loggingContext, 0, null))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -2,14 +2,43 @@ package com.practices.loggingcore.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.practices.loggingcore.actuator.LiveLogsEndpoint;
+import com.practices.loggingcore.actuator.LoggingContextLeaksEndpoint;
+import com.practices.loggingcore.aspect.LogContextAdvisor;
 import com.practices.loggingcore.aspect.LogContextAspect;
+import com.practices.loggingcore.aspect.LogContextPrecompiler;
+import com.practices.loggingcore.aspect.LogContextRegistry;
+import com.practices.loggingcore.aspect.LogContextThreadLocalAccessor;
+import com.practices.loggingcore.aspect.LogContextTurboFilter;
+import com.practices.loggingcore.aspect.WovenLogContextAspect;
+import com.practices.loggingcore.concurrent.LoggingContextExecutorPostProcessor;
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
+import com.practices.loggingcore.concurrent.LoggingContextTaskDecorator;
 import com.practices.loggingcore.core.MdcLoggingContext;
 import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.PersistentContextMdcFilter;
+import com.practices.loggingcore.core.PersistentLoggingContext;
+import io.micrometer.context.ContextRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 class CoreLoggingAutoConfigurationTest {
   private final ApplicationContextRunner contextRunner =
@@ -22,10 +51,203 @@ class CoreLoggingAutoConfigurationTest {
     this.contextRunner.run(context -> {
           assertThat(context).hasSingleBean(LoggingContext.class);
           assertThat(context).hasSingleBean(LogContextAspect.class);
+          assertThat(context).hasSingleBean(LogContextRegistry.class);
+          assertThat(context).hasSingleBean(LogContextPrecompiler.class);
           assertThat(context).hasSingleBean(LiveLogsEndpoint.class);
+          assertThat(context).doesNotHaveBean(LogContextTurboFilter.class);
+          assertThat(context).doesNotHaveBean(WovenLogContextAspect.class);
+          assertThat(context).doesNotHaveBean(LogContextAdvisor.class);
+          assertThat(context).hasSingleBean(LoggingContextTaskDecorator.class);
+          assertThat(context).doesNotHaveBean(LoggingContextExecutorPostProcessor.class);
+          assertThat(ContextRegistry.getInstance().getThreadLocalAccessors())
+              .contains(context.getBean(LogContextThreadLocalAccessor.class));
 
           assertThat(context.getBean(LoggingContext.class))
               .isInstanceOf(MdcLoggingContext.class);
         });
   }
+
+  @Test
+  @DisplayName("should install the turbo filter when deferred evaluation is enabled")
+  void shouldInstallTurboFilterForDeferredEvaluation() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.deferred-evaluation=true")
+        .run(context -> assertThat(context).hasSingleBean(LogContextTurboFilter.class));
+  }
+
+  @Test
+  @DisplayName("should replace the proxy aspect and require the weaver when weaving is aspectj")
+  void shouldRequireWeaverForAspectjWeaving() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.weaving=aspectj")
+        .run(context -> assertThat(context).getFailure()
+            .hasStackTraceContaining("WovenLogContextAspect has not been woven"));
+  }
+
+  @Test
+  @DisplayName("should use the scoped advisor instead of the aspect when base packages are set")
+  void shouldUseScopedAdvisorForBasePackages() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.base-packages=com.example.orders,com.example.billing")
+        .run(context -> {
+          assertThat(context).hasSingleBean(LogContextAdvisor.class);
+          assertThat(context).doesNotHaveBean(LogContextAspect.class);
+        });
+  }
+
+  @Test
+  @DisplayName("should back off from the task decorator when the application defines one")
+  void shouldBackOffFromTaskDecorator() {
+    this.contextRunner
+        .withBean(TaskDecorator.class, () -> runnable -> runnable)
+        .run(context -> assertThat(context).doesNotHaveBean(LoggingContextTaskDecorator.class));
+  }
+
+  @Test
+  @DisplayName("should wrap executor service beans when wrap-executors is enabled")
+  void shouldWrapExecutorServices() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.wrap-executors=true")
+        .withBean("pool", ExecutorService.class, () -> new ForkJoinPool(1))
+        .run(context -> {
+          assertThat(context).hasSingleBean(LoggingContextExecutorPostProcessor.class);
+          assertThat(context.getBean("pool")).isNotInstanceOf(ForkJoinPool.class);
+          context.getBean("pool", ExecutorService.class).shutdown();
+        });
+  }
+
+  @Test
+  @DisplayName("should keep the injectable type of scheduled and class-typed executor beans")
+  void shouldKeepExecutorBeanTypes() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.wrap-executors=true")
+        .withUserConfiguration(ExecutorConfiguration.class)
+        .run(context -> {
+          assertThat(context).hasNotFailed();
+          ExecutorConsumer consumer = context.getBean(ExecutorConsumer.class);
+          assertThat(consumer.scheduler).isNotInstanceOf(ScheduledThreadPoolExecutor.class);
+          assertThat(consumer.pool).isInstanceOf(ForkJoinPool.class);
+
+          MDC.put("userID", "alice");
+          try {
+            assertThat(consumer.scheduler.schedule(() -> MDC.get("userID"), 1,
+                TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+            assertThat(consumer.pool.invoke(ForkJoinTask.adapt(() -> "invoked")))
+                .isEqualTo("invoked");
+          } finally {
+            MDC.clear();
+          }
+        });
+  }
+
+  @Test
+  @DisplayName("should keep the MDC context on virtual threads unless scoped values are available")
+  void shouldChooseStorageForVirtualThreads() {
+    this.contextRunner
+        .withPropertyValues("spring.threads.virtual.enabled=true")
+        .run(context -> {
+          boolean scopedValues = Runtime.version().feature() >= 25;
+          assertThat(context.getBean(LoggingContext.class).getClass().getSimpleName())
+              .isEqualTo(scopedValues ? "ScopedValueLoggingContext" : "MdcLoggingContext");
+        });
+  }
+
+  @Test
+  @DisplayName("should provide the leak detector and its endpoint when leak detection is enabled")
+  void shouldProvideLeakDetection() {
+    this.contextRunner
+        .run(context -> assertThat(context).doesNotHaveBean(LoggingContextLeakDetector.class));
+    this.contextRunner
+        .withPropertyValues("log-manager.context.leak-detection.enabled=true")
+        .run(context -> {
+          assertThat(context).hasSingleBean(LoggingContextLeakDetector.class);
+          assertThat(context).hasSingleBean(LoggingContextLeaksEndpoint.class);
+        });
+  }
+
+  @Test
+  @DisplayName("should keep the context in a persistent map when persistent storage is selected")
+  void shouldUsePersistentStorage() {
+    Logger logger = (Logger) LoggerFactory.getLogger(CoreLoggingAutoConfigurationTest.class);
+    ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    appender.start();
+    logger.addAppender(appender);
+    try {
+      this.contextRunner
+          .withPropertyValues("log-manager.context.storage=persistent")
+          .run(context -> {
+            LoggingContext loggingContext = context.getBean(LoggingContext.class);
+            assertThat(loggingContext).isInstanceOf(PersistentLoggingContext.class);
+            assertThat(context).hasSingleBean(PersistentContextMdcFilter.class);
+
+            loggingContext.set("userID", "alice");
+            logger.info("Inside the persistent context");
+            loggingContext.clearAll();
+          });
+    } finally {
+      logger.detachAppender(appender);
+    }
+
+    assertThat(appender.list).singleElement()
+        .satisfies(event -> assertThat(event.getMDCPropertyMap()).containsEntry("userID", "alice"));
+  }
+
+  @Test
+  @DisplayName("should not register the context-propagation accessor when disabled")
+  void shouldNotRegisterAccessorWhenPropagationIsDisabled() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.propagation.enabled=false")
+        .run(context -> assertThat(context).doesNotHaveBean(LogContextThreadLocalAccessor.class));
+  }
+
+  @Test
+  @DisplayName("should not install the persistent map filter with the default storage")
+  void shouldNotInstallPersistentFilterByDefault() {
+    this.contextRunner.run(context ->
+        assertThat(context).doesNotHaveBean(PersistentContextMdcFilter.class));
+  }
+
+  @Test
+  @DisplayName("should fail when scoped-value storage is requested before Java 25")
+  void shouldRequireJava25ForScopedValueStorage() {
+    this.contextRunner
+        .withPropertyValues("log-manager.context.storage=scoped-value")
+        .run(context -> {
+          if (Runtime.version().feature() < 25) {
+            assertThat(context).getFailure()
+                .hasStackTraceContaining("log-manager.context.storage=scoped-value requires Java 25");
+          } else {
+            assertThat(context).hasNotFailed();
+          }
+        });
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  static class ExecutorConfiguration {
+
+    @Bean(destroyMethod = "shutdownNow")
+    ScheduledExecutorService scheduler() {
+      return Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    ForkJoinPool pool() {
+      return new ForkJoinPool(1);
+    }
+
+    @Bean
+    ExecutorConsumer executorConsumer(ScheduledExecutorService scheduler, ForkJoinPool pool) {
+      return new ExecutorConsumer(scheduler, pool);
+    }
+  }
+
+  static class ExecutorConsumer {
+    final ScheduledExecutorService scheduler;
+    final ForkJoinPool pool;
+
+    ExecutorConsumer(ScheduledExecutorService scheduler, ForkJoinPool pool) {
+      this.scheduler = scheduler;
+      this.pool = pool;
+    }
+  }
 }
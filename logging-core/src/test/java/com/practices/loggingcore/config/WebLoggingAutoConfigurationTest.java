@@ -1,8 +1,13 @@
 package com.practices.loggingcore.config;
 
+import com.practices.loggingcore.aspect.LogContextThreadLocalAccessor;
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
 import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.web.AccessLogger;
+import com.practices.loggingcore.web.LoggingContextLeakFilterReactive;
 import com.practices.loggingcore.web.MdcPopulatingFilterReactive;
 import com.practices.loggingcore.web.MdcPopulatingFilterServlet;
+import com.practices.loggingcore.web.RequestHeaderExtractor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -13,8 +18,11 @@ import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.web.server.WebFilter;
 
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 class WebLoggingAutoConfigurationTest {
@@ -40,6 +48,20 @@ class WebLoggingAutoConfigurationTest {
     });
   }
 
+  @Test
+  @DisplayName("should propagate the keys the web filters map request headers to")
+  void shouldPropagateHeaderKeys() {
+    webContextRunner
+        .withPropertyValues(
+            "log-manager.web.headers[0].header=X-Channel",
+            "log-manager.web.headers[0].key=channel")
+        .run(context -> {
+          when(context.getBean(LoggingContext.class).get("channel")).thenReturn("web");
+          assertThat(context.getBean(LogContextThreadLocalAccessor.class).getValue())
+              .isEqualTo(Map.of("channel", "web"));
+        });
+  }
+
   @Test
   @DisplayName("should provide all core reactive web beans when auto-configuration is active")
   void shouldProvideWebBeansInReactiveWebContext() {
@@ -49,6 +71,82 @@ class WebLoggingAutoConfigurationTest {
     });
   }
 
+  @Test
+  @DisplayName("should check reactive requests for leaked context when leak detection is enabled")
+  void shouldProvideReactiveLeakFilter() {
+    reactiveWebContextRunner
+        .withBean(LoggingContextLeakDetector.class, () -> mock(LoggingContextLeakDetector.class))
+        .run(context -> assertThat(context)
+            .doesNotHaveBean(LoggingContextLeakFilterReactive.class));
+    reactiveWebContextRunner
+        .withBean(LoggingContextLeakDetector.class, () -> mock(LoggingContextLeakDetector.class))
+        .withPropertyValues("log-manager.context.leak-detection.enabled=true")
+        .run(context -> assertThat(context)
+            .hasSingleBean(LoggingContextLeakFilterReactive.class));
+  }
+
+  @Test
+  @DisplayName("should compile the configured header mapping for the web filters")
+  void shouldCompileHeaderMapping() {
+    webContextRunner
+        .withPropertyValues(
+            "log-manager.web.max-value-length=64",
+            "log-manager.web.headers[0].header=X-Channel",
+            "log-manager.web.headers[0].key=channel",
+            "log-manager.web.headers[0].max-length=16",
+            "log-manager.web.headers[1].header=X-Device-ID",
+            "log-manager.web.headers[1].key=deviceId")
+        .run(context -> {
+          RequestHeaderExtractor extractor = context.getBean(RequestHeaderExtractor.class);
+          assertThat(extractor.size()).isEqualTo(2);
+          assertThat(extractor.key(0)).isEqualTo("channel");
+          assertThat(extractor.value(0, "x".repeat(20))).hasSize(16);
+          assertThat(extractor.header(1)).isEqualTo("X-Device-ID");
+          assertThat(extractor.value(1, "x".repeat(100))).hasSize(64);
+        });
+  }
+
+  @Test
+  @DisplayName("should parse trace headers only when tracing is disabled, unless told otherwise")
+  void shouldParseTraceHeadersWhenTracingIsDisabled() {
+    webContextRunner.run(context -> assertThat(
+        context.getBean(RequestHeaderExtractor.class).parsesTraceHeaders()).isFalse());
+    webContextRunner
+        .withPropertyValues("management.tracing.enabled=false")
+        .run(context -> assertThat(
+            context.getBean(RequestHeaderExtractor.class).parsesTraceHeaders()).isTrue());
+    webContextRunner
+        .withPropertyValues("management.tracing.enabled=false",
+            "log-manager.web.trace-headers=never")
+        .run(context -> assertThat(
+            context.getBean(RequestHeaderExtractor.class).parsesTraceHeaders()).isFalse());
+  }
+
+  @Test
+  @DisplayName("should give requests a correlation ID only when it is enabled")
+  void shouldConfigureCorrelationId() {
+    webContextRunner.run(context -> assertThat(
+        context.getBean(RequestHeaderExtractor.class).hasCorrelationId()).isFalse());
+    webContextRunner
+        .withPropertyValues("log-manager.web.correlation-id.enabled=true",
+            "log-manager.web.correlation-id.header=X-Request-ID")
+        .run(context -> {
+          RequestHeaderExtractor extractor = context.getBean(RequestHeaderExtractor.class);
+          assertThat(extractor.hasCorrelationId()).isTrue();
+          assertThat(extractor.correlationHeader()).isEqualTo("X-Request-ID");
+          assertThat(extractor.correlationKey()).isEqualTo("correlationId");
+        });
+  }
+
+  @Test
+  @DisplayName("should provide the access logger only when the access log is enabled")
+  void shouldProvideAccessLoggerWhenEnabled() {
+    webContextRunner.run(context -> assertThat(context).doesNotHaveBean(AccessLogger.class));
+    webContextRunner
+        .withPropertyValues("log-manager.web.access-log.enabled=true")
+        .run(context -> assertThat(context).hasSingleBean(AccessLogger.class));
+  }
+
   @Test
   @DisplayName("should not provide the web-specific beans in a non-web scenario")
   void shouldNotProvideWebBeansInNonWebContext() {
@@ -0,0 +1,75 @@
+package com.practices.loggingcore.core;
+
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ContextKeyJsonProvider")
+class ContextKeyJsonProviderTest {
+
+  private static final ContextKey TENANT = ContextKey.of("keys.tenant");
+  private static final ContextKey ATTEMPT = ContextKey.of("keys.attempt");
+
+  private final ContextKeyJsonProvider provider = new ContextKeyJsonProvider();
+
+  @Test
+  @DisplayName("Should give each declared name one key with a stable slot")
+  void shouldDeclareKeysOnce() {
+    assertThat(ContextKey.of("keys.tenant")).isSameAs(TENANT);
+    assertThat(ContextKey.find("keys.attempt")).isSameAs(ATTEMPT);
+    assertThat(ContextKey.find("keys.undeclared")).isNull();
+    assertThat(ATTEMPT.slot()).isGreaterThan(TENANT.slot());
+    assertThat(ContextKey.slots()[TENANT.slot()]).isSameAs(TENANT);
+  }
+
+  @Test
+  @DisplayName("Should write declared keys in slot order, then the other entries")
+  void shouldWriteDeclaredKeysFirst() throws IOException {
+    ValueType.register("keys.attempt", ValueType.LONG);
+    Map<String, String> values = new LinkedHashMap<>();
+    values.put("keys.other", "x");
+    values.put("keys.attempt", "2");
+    values.put("keys.tenant", "acme");
+
+    assertThat(write(values))
+        .isEqualTo("{\"keys.tenant\":\"acme\",\"keys.attempt\":2,\"keys.other\":\"x\"}");
+  }
+
+  @Test
+  @DisplayName("Should write nothing for an event without context")
+  void shouldSkipEmptyContext() throws IOException {
+    assertThat(write(Map.of())).isEqualTo("{}");
+  }
+
+  @Test
+  @DisplayName("Should set and read declared keys through the logging context")
+  void shouldUseDeclaredKeysInContext() throws Exception {
+    MdcLoggingContext loggingContext = new MdcLoggingContext();
+    try (var ignored = loggingContext.with(TENANT, "acme")) {
+      assertThat(loggingContext.get("keys.tenant")).isEqualTo("acme");
+      assertThat(loggingContext.get(TENANT)).isEqualTo("acme");
+    }
+    assertThat(loggingContext.get(TENANT)).isNull();
+  }
+
+  private String write(Map<String, String> values) throws IOException {
+    LoggingEvent event = new LoggingEvent();
+    event.setMDCPropertyMap(values);
+    StringWriter out = new StringWriter();
+    try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+      generator.writeStartObject();
+      provider.writeTo(generator, event);
+      generator.writeEndObject();
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,83 @@
+package com.practices.loggingcore.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LoggingContextFrame")
+class LoggingContextFrameTest {
+
+  private final MdcLoggingContext loggingContext = new MdcLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should update keys by slot and restore their previous values on close")
+  void shouldUpdateInPlaceAndRestore() {
+    MDC.put("txnId", "outer");
+
+    try (LoggingContextFrame frame = loggingContext.openFrame("txnId", "msisdn")) {
+      frame.set(0, "t-1");
+      frame.set(1, "254700000001");
+      assertThat(MDC.get("txnId")).isEqualTo("t-1");
+      assertThat(MDC.get("msisdn")).isEqualTo("254700000001");
+
+      frame.set(1, null);
+      assertThat(MDC.get("msisdn")).isNull();
+      frame.clear();
+      assertThat(MDC.get("txnId")).isNull();
+    }
+
+    assertThat(MDC.get("txnId")).isEqualTo("outer");
+    assertThat(MDC.get("msisdn")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should reject updates once closed, and ignore a second close")
+  void shouldRejectUpdatesAfterClose() {
+    LoggingContextFrame frame = loggingContext.openFrame("txnId");
+    frame.set(0, "t-1");
+    frame.close();
+    MDC.put("txnId", "later");
+    frame.close();
+
+    assertThat(MDC.get("txnId")).isEqualTo("later");
+    assertThatThrownBy(() -> frame.set(0, "t-2")).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("Should not allocate per item once the keys exist")
+  void shouldNotAllocatePerItem() {
+    String[] txnIds = {"t-1", "t-2", "t-3"};
+    String[] msisdns = {"254700000001", "254700000002"};
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    try (LoggingContextFrame frame = loggingContext.openFrame("txnId", "msisdn")) {
+      for (int i = 0; i < 20_000; i++) {
+        frame.set(0, txnIds[i % txnIds.length]);
+        frame.set(1, msisdns[i % msisdns.length]);
+      }
+      long before = threads.getThreadAllocatedBytes(threadId);
+      int items = 100_000;
+      for (int i = 0; i < items; i++) {
+        frame.set(0, txnIds[i % txnIds.length]);
+        frame.set(1, msisdns[i % msisdns.length]);
+      }
+      long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+      // any allocation per item would add up to at least 16 bytes times the number of items
+      assertThat(allocated).isLessThan(items);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.practices.loggingcore.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("LoggingContextSnapshot - capture and restore")
+class LoggingContextSnapshotTest {
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("capture() should not see changes made after the snapshot was taken")
+  void capture_shouldBeImmutable() {
+    MDC.put("userID", "alice");
+    LoggingContextSnapshot snapshot = loggingContext.capture();
+    MDC.put("userID", "bob");
+    MDC.put("orderId", "o-1");
+
+    assertThat(snapshot.asMap()).containsExactly(Map.entry("userID", "alice"));
+    assertThatThrownBy(() -> snapshot.asMap().put("orderId", "o-2"))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  @DisplayName("capture() should return an empty snapshot for an empty context")
+  void capture_shouldBeEmptyWithoutValues() {
+    assertThat(loggingContext.capture().isEmpty()).isTrue();
+  }
+
+  @Test
+  @DisplayName("restore() should replace the context until the scope is closed")
+  void restore_shouldReplaceContextForScope() {
+    LoggingContextSnapshot snapshot = LoggingContextSnapshot.of(Map.of("userID", "alice"));
+    MDC.put("requestId", "r-1");
+
+    try (LoggingContextScope ignored = loggingContext.restore(snapshot)) {
+      assertThat(MDC.get("userID")).isEqualTo("alice");
+      assertThat(MDC.get("requestId")).isNull();
+    }
+
+    assertThat(MDC.getCopyOfContextMap()).containsExactly(Map.entry("requestId", "r-1"));
+  }
+
+  @Test
+  @DisplayName("wrap() should carry the context to another thread and leave it clean")
+  void wrap_shouldCarryContextAcrossThreads() throws Exception {
+    MDC.put("userID", "alice");
+    LoggingContextSnapshot snapshot = loggingContext.capture();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      String seen = executor.submit(snapshot.wrap(() -> MDC.get("userID")))
+          .get(5, TimeUnit.SECONDS);
+      String supplied = CompletableFuture
+          .supplyAsync(snapshot.wrapSupplier(() -> MDC.get("userID")), executor)
+          .get(5, TimeUnit.SECONDS);
+
+      assertThat(seen).isEqualTo("alice");
+      assertThat(supplied).isEqualTo("alice");
+      assertThat(executor.submit(() -> MDC.get("userID")).get(5, TimeUnit.SECONDS)).isNull();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
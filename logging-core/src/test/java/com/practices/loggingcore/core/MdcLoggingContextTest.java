@@ -7,6 +7,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.slf4j.MDC;
 
+import java.lang.management.ManagementFactory;
 import java.util.Map;
 
 /**
@@ -142,4 +143,130 @@ class MdcLoggingContextTest {
 
     assertThat(MDC.get(TEST_KEY)).isNull();
   }
+
+  @Test
+  @DisplayName("setAll() should add every entry on top of the existing MDC")
+  void setAll_shouldMergeIntoMdc() {
+    MDC.put(TEST_KEY, "initialValue");
+    new MdcLoggingContext().setAll(Map.of(TEST_KEY, TEST_VALUE, ANOTHER_KEY, ANOTHER_VALUE));
+    MDC.put("third", "3");
+
+    assertThat(MDC.getCopyOfContextMap())
+        .containsExactlyInAnyOrderEntriesOf(
+            Map.of(TEST_KEY, TEST_VALUE, ANOTHER_KEY, ANOTHER_VALUE, "third", "3"));
+  }
+
+  @Test
+  @DisplayName("withAll() should restore only its own keys when closed")
+  void withAll_shouldRestorePreviousValues() {
+    MDC.put(TEST_KEY, "initialValue");
+
+    try (LoggingContextScope ignored = new MdcLoggingContext()
+        .withAll(Map.of(TEST_KEY, TEST_VALUE, ANOTHER_KEY, ANOTHER_VALUE))) {
+      assertThat(MDC.get(TEST_KEY)).isEqualTo(TEST_VALUE);
+      assertThat(MDC.get(ANOTHER_KEY)).isEqualTo(ANOTHER_VALUE);
+      MDC.put("nested", "value");
+    }
+
+    assertThat(MDC.getCopyOfContextMap())
+        .isEqualTo(Map.of(TEST_KEY, "initialValue", "nested", "value"));
+  }
+
+  @Test
+  @DisplayName("withAll() should restore only its own keys when falling back to set()")
+  void withAll_defaultShouldRestoreEachKey() {
+    MDC.put(TEST_KEY, "initialValue");
+
+    try (LoggingContextScope ignored = loggingContext
+        .withAll(Map.of(TEST_KEY, TEST_VALUE, ANOTHER_KEY, ANOTHER_VALUE))) {
+      assertThat(MDC.get(TEST_KEY)).isEqualTo(TEST_VALUE);
+      MDC.put("third", "3");
+    }
+
+    assertThat(MDC.getCopyOfContextMap())
+        .isEqualTo(Map.of(TEST_KEY, "initialValue", "third", "3"));
+  }
+
+  @Test
+  @DisplayName("with() should give back the value a nested scope shadowed")
+  void with_shouldRestoreShadowedValue() {
+    MdcLoggingContext context = new MdcLoggingContext();
+    MDC.put(TEST_KEY, "initialValue");
+
+    try (LoggingContextScope outer = context.with(TEST_KEY, TEST_VALUE)) {
+      try (LoggingContextScope inner = context.with(TEST_KEY, ANOTHER_VALUE)) {
+        assertThat(MDC.get(TEST_KEY)).isEqualTo(ANOTHER_VALUE);
+      }
+      assertThat(MDC.get(TEST_KEY)).isEqualTo(TEST_VALUE);
+    }
+
+    assertThat(MDC.get(TEST_KEY)).isEqualTo("initialValue");
+  }
+
+  @Test
+  @DisplayName("with() should close nested scopes when an outer scope is closed first")
+  void with_shouldUnwindNestedScopes() {
+    MdcLoggingContext context = new MdcLoggingContext();
+
+    LoggingContextScope outer = context.with(TEST_KEY, TEST_VALUE);
+    LoggingContextScope inner = context.with(ANOTHER_KEY, ANOTHER_VALUE);
+    outer.close();
+    inner.close();
+
+    Map<String, String> contextMap = MDC.getCopyOfContextMap();
+    assertThat(contextMap == null || contextMap.isEmpty()).isTrue();
+  }
+
+  @Test
+  @DisplayName("with() should ignore a scope closed again after a newer scope took its place")
+  void with_shouldIgnoreStaleDoubleClose() {
+    MdcLoggingContext context = new MdcLoggingContext();
+
+    LoggingContextScope stale = context.with(TEST_KEY, TEST_VALUE);
+    stale.close();
+    try (LoggingContextScope current = context.with(ANOTHER_KEY, ANOTHER_VALUE)) {
+      stale.close();
+
+      assertThat(MDC.get(ANOTHER_KEY)).isEqualTo(ANOTHER_VALUE);
+    }
+
+    assertThat(MDC.get(ANOTHER_KEY)).isNull();
+  }
+
+  @Test
+  @DisplayName("with() should not allocate per call once its scopes are in place")
+  void with_shouldNotAllocatePerCall() {
+    MdcLoggingContext context = new MdcLoggingContext();
+    String[] items = {"item-1", "item-2", "item-3"};
+    // keys that already exist are replaced in place, so the MDC map itself does not allocate
+    MDC.put(TEST_KEY, "batch");
+    MDC.put(ANOTHER_KEY, "none");
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    for (int i = 0; i < 20_000; i++) {
+      processItem(context, items[i % items.length]);
+    }
+    long before = threads.getThreadAllocatedBytes(threadId);
+    int calls = 100_000;
+    for (int i = 0; i < calls; i++) {
+      processItem(context, items[i % items.length]);
+    }
+    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+    // any allocation per call would add up to at least 16 bytes times the number of calls
+    assertThat(allocated).isLessThan(calls);
+    assertThat(MDC.get(ANOTHER_KEY)).isEqualTo("none");
+  }
+
+  // a plain check, because assertion objects would allocate inside the measured loop
+  private static void processItem(MdcLoggingContext context, String item) {
+    try (LoggingContextScope itemScope = context.with(ANOTHER_KEY, item);
+         LoggingContextScope stepScope = context.with(TEST_KEY, TEST_VALUE)) {
+      if (MDC.get(ANOTHER_KEY) != item) {
+        throw new AssertionError("Expected " + item + " in the MDC");
+      }
+    }
+  }
 }
@@ -0,0 +1,161 @@
+package com.practices.loggingcore.core;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PersistentLoggingContext")
+class PersistentLoggingContextTest {
+
+  private final PersistentLoggingContext loggingContext = new PersistentLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    loggingContext.clearAll();
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should behave like a HashMap across random updates, keeping old versions intact")
+  void shouldMatchHashMap() {
+    Random random = new Random(42);
+    Map<String, String> expected = new HashMap<>();
+    PersistentContextMap map = PersistentContextMap.EMPTY;
+    // "Aa" and "BB" have the same hash code, so collisions are covered too
+    String[] keys = {"Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa", "userID", "traceId", "tenant"};
+    for (int i = 0; i < 5_000; i++) {
+      String key = random.nextInt(4) == 0 ? keys[random.nextInt(keys.length)]
+          : "key" + random.nextInt(200);
+      PersistentContextMap before = map;
+      Map<String, String> beforeExpected = new HashMap<>(expected);
+      if (random.nextBoolean()) {
+        String value = "v" + random.nextInt(3);
+        map = map.with(key, value);
+        expected.put(key, value);
+      } else {
+        map = map.without(key);
+        expected.remove(key);
+      }
+      assertThat(before).isEqualTo(beforeExpected);
+    }
+    assertThat(map).isEqualTo(expected);
+    assertThat(map.size()).isEqualTo(expected.size());
+    assertThat(map.entrySet()).hasSize(expected.size());
+  }
+
+  @Test
+  @DisplayName("Should hand out the current map by reference when capturing")
+  void shouldCaptureByReference() {
+    loggingContext.set("userID", "u-1");
+
+    LoggingContextSnapshot first = loggingContext.capture();
+    LoggingContextSnapshot second = loggingContext.capture();
+    loggingContext.set("tenant", "acme");
+
+    assertThat(first.asMap()).isSameAs(second.asMap()).isEqualTo(Map.of("userID", "u-1"));
+    assertThat(loggingContext.capture().asMap())
+        .isEqualTo(Map.of("userID", "u-1", "tenant", "acme"));
+  }
+
+  @Test
+  @DisplayName("Should put previous values back when scopes close")
+  void shouldRestoreOnClose() {
+    loggingContext.set("userID", "u-1");
+    LoggingContextSnapshot snapshot = loggingContext.capture();
+
+    try (var ignored = loggingContext.with("userID", "u-2")) {
+      assertThat(loggingContext.get("userID")).isEqualTo("u-2");
+    }
+    assertThat(loggingContext.get("userID")).isEqualTo("u-1");
+
+    try (var ignored = loggingContext.withAll(Map.of("tenant", "acme", "userID", "u-3"))) {
+      loggingContext.set("nested", "x");
+    }
+    assertThat(loggingContext.get("tenant")).isNull();
+    assertThat(loggingContext.get("userID")).isEqualTo("u-1");
+    assertThat(loggingContext.get("nested")).isEqualTo("x");
+
+    loggingContext.clearAll();
+    try (var ignored = loggingContext.restore(snapshot)) {
+      assertThat(loggingContext.get("userID")).isEqualTo("u-1");
+    }
+    assertThat(loggingContext.get("userID")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should remove the key when set to null, directly or inside a scope")
+  void shouldRemoveNullValues() {
+    loggingContext.set("userID", "u-1");
+    loggingContext.set("userID", null);
+    assertThat(loggingContext.get("userID")).isNull();
+    assertThat(PersistentLoggingContext.currentValues()).doesNotContainKey("userID");
+
+    loggingContext.set("tenant", "acme");
+    try (var ignored = loggingContext.with("tenant", null)) {
+      assertThat(loggingContext.get("tenant")).isNull();
+    }
+    assertThat(loggingContext.get("tenant")).isEqualTo("acme");
+  }
+
+  @Test
+  @DisplayName("PersistentContextMdcFilter should give events the current map, merged with the MDC")
+  void shouldSetEventMdc() {
+    Logger logger = new LoggerContext().getLogger("test");
+    PersistentContextMdcFilter filter = new PersistentContextMdcFilter();
+    filter.start();
+    loggingContext.set("userID", "u-1");
+
+    LoggingEvent shared = new LoggingEvent(null, logger, Level.INFO, "shared", null, null);
+    filter.decide(shared);
+    assertThat(shared.getMDCPropertyMap()).isSameAs(PersistentLoggingContext.currentValues());
+
+    MDC.put("library", "l-1");
+    LoggingEvent merged = new LoggingEvent(null, logger, Level.INFO, "merged", null, null);
+    filter.decide(merged);
+    assertThat(merged.getMDCPropertyMap())
+        .isEqualTo(Map.of("userID", "u-1", "library", "l-1"));
+  }
+
+  @Test
+  @DisplayName("PersistentContextMdcFilter should set each event's map once, on every appender")
+  void shouldInstallOnAppenders() {
+    LoggerContext loggerContext = new LoggerContext();
+    Logger logger = loggerContext.getLogger("test");
+    ListAppender<ILoggingEvent> first = new ListAppender<>();
+    ListAppender<ILoggingEvent> second = new ListAppender<>();
+    for (ListAppender<ILoggingEvent> appender : List.of(first, second)) {
+      appender.setContext(loggerContext);
+      appender.start();
+      logger.addAppender(appender);
+    }
+    loggingContext.set("userID", "u-1");
+    MDC.put("traceId", "t-1");
+
+    try (PersistentContextMdcFilter ignored =
+             ContextMdcFilter.install(loggerContext, new PersistentContextMdcFilter())) {
+      logger.info("first");
+      logger.info("next");
+    }
+
+    assertThat(first.list).hasSize(2).allSatisfy(event -> assertThat(event.getMDCPropertyMap())
+        .isEqualTo(Map.of("userID", "u-1", "traceId", "t-1")));
+    assertThat(second.list).isEqualTo(first.list);
+    assertThat(first.list.get(1).getMDCPropertyMap())
+        .isSameAs(first.list.get(0).getMDCPropertyMap());
+    assertThat(loggerContext.getStatusManager().getCopyOfStatusList()).isEmpty();
+  }
+}
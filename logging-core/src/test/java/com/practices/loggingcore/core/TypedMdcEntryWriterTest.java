@@ -0,0 +1,104 @@
+package com.practices.loggingcore.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TypedMdcEntryWriter")
+class TypedMdcEntryWriterTest {
+
+  private final TypedMdcEntryWriter writer = new TypedMdcEntryWriter();
+  private final MdcLoggingContext loggingContext = new MdcLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should write values set through the typed setters as JSON numbers and booleans")
+  void shouldWriteTypedValues() throws IOException {
+    loggingContext.setLong("typed.items", 42L);
+    loggingContext.setInt("typed.retries", -3);
+    loggingContext.setDouble("typed.ratio", 0.25);
+    loggingContext.setBoolean("typed.cached", true);
+
+    assertThat(write("typed.items")).isEqualTo("{\"typed.items\":42}");
+    assertThat(write("typed.retries")).isEqualTo("{\"typed.retries\":-3}");
+    assertThat(write("typed.ratio")).isEqualTo("{\"typed.ratio\":0.25}");
+    assertThat(write("typed.cached")).isEqualTo("{\"typed.cached\":true}");
+  }
+
+  @Test
+  @DisplayName("Should leave values that are not valid JSON numbers to the default writer")
+  void shouldFallBackForInvalidNumbers() throws IOException {
+    loggingContext.setDouble("typed.score", Double.NaN);
+    assertThat(write("typed.score")).isNull();
+
+    loggingContext.set("typed.score", "1e");
+    assertThat(write("typed.score")).isNull();
+
+    loggingContext.setLong("typed.count", 7L);
+    loggingContext.set("typed.count", "7.5");
+    assertThat(write("typed.count")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should leave keys without a recorded type to the default writer")
+  void shouldIgnoreUntypedKeys() throws IOException {
+    loggingContext.set("typed.plain", "12");
+
+    assertThat(write("typed.plain")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should keep the first type recorded for a key")
+  void shouldKeepFirstRegisteredType() {
+    ValueType.register("typed.total", ValueType.LONG);
+    ValueType.register("typed.total", ValueType.DOUBLE);
+
+    assertThat(ValueType.of("typed.total")).isEqualTo(ValueType.LONG);
+  }
+
+  @Test
+  @DisplayName("Should map numbers and booleans, boxed or not, to their JSON type")
+  void shouldResolveTypeFromJavaType() {
+    assertThat(ValueType.forType(BigDecimal.class)).isEqualTo(ValueType.DOUBLE);
+    assertThat(ValueType.forType(int.class)).isEqualTo(ValueType.LONG);
+    assertThat(ValueType.forType(Boolean.class)).isEqualTo(ValueType.BOOLEAN);
+    assertThat(ValueType.forType(String.class)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should accept only the number formats JSON allows")
+  void shouldValidateJsonNumbers() {
+    assertThat(TypedMdcEntryWriter.isJsonNumber("0", false)).isTrue();
+    assertThat(TypedMdcEntryWriter.isJsonNumber("-9223372036854775808", false)).isTrue();
+    assertThat(TypedMdcEntryWriter.isJsonNumber("1.0E-5", true)).isTrue();
+    assertThat(TypedMdcEntryWriter.isJsonNumber("1.5", false)).isFalse();
+    assertThat(TypedMdcEntryWriter.isJsonNumber("007", false)).isFalse();
+    assertThat(TypedMdcEntryWriter.isJsonNumber("Infinity", true)).isFalse();
+    assertThat(TypedMdcEntryWriter.isJsonNumber("", false)).isFalse();
+  }
+
+  private String write(String key) throws IOException {
+    StringWriter out = new StringWriter();
+    try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+      generator.writeStartObject();
+      if (!writer.writeMdcEntry(generator, key, key, MDC.get(key))) {
+        return null;
+      }
+      generator.writeEndObject();
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,206 @@
+package com.practices.loggingcore.web;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AccessLogger")
+class AccessLoggerTest {
+
+  private static final String SERVLET_ROUTE_ATTRIBUTE =
+      org.springframework.web.servlet.HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE;
+
+  private final Logger accessLog = (Logger) LoggerFactory.getLogger(AccessLogger.LOGGER_NAME);
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>() {
+    @Override
+    protected void append(ILoggingEvent event) {
+      event.prepareForDeferredProcessing();
+      super.append(event);
+    }
+  };
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AccessLogger accessLogger = new AccessLogger(meterRegistry);
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    accessLog.addAppender(appender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    accessLog.detachAppender(appender);
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should log the request fields and record the latency in the same pass")
+  void shouldLogAndRecordLatency() {
+    accessLogger.record("GET", "/orders/{id}", "/orders/1", 200, 512,
+        TimeUnit.MILLISECONDS.toNanos(12));
+
+    assertThat(appender.list).singleElement().satisfies(event -> assertThat(
+        event.getFormattedMessage()).isEqualTo(
+        "method=GET route=/orders/{id} path=/orders/1 status=200 bytes=512 durationMs=12.0"));
+    Timer timer = meterRegistry.get(AccessLogger.METRIC_NAME)
+        .tags("method", "GET", "route", "/orders/{id}", "status", "200").timer();
+    assertThat(timer.count()).isEqualTo(1);
+    assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(12.0);
+  }
+
+  @Test
+  @DisplayName("Should register each timer once and record later requests into it")
+  void shouldReuseTimers() {
+    accessLogger.record("GET", "/orders/{id}", "/orders/1", 200, 10, 1_000);
+    accessLogger.record("GET", "/orders/{id}", "/orders/2", 200, 10, 1_000);
+    accessLogger.record("GET", "/orders/{id}", "/orders/3", 404, 0, 1_000);
+
+    assertThat(meterRegistry.getMeters()).hasSize(2);
+    assertThat(meterRegistry.get(AccessLogger.METRIC_NAME).tags("status", "200").timer().count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should tag requests without a matched route as unknown")
+  void shouldTagUnmatchedRoutes() {
+    accessLogger.record("GET", null, "/favicon.ico", 404, 0, 1_000);
+
+    assertThat(meterRegistry.get(AccessLogger.METRIC_NAME)
+        .tags("route", AccessLogger.UNKNOWN_ROUTE, "status", "404").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should log servlet requests with their context, status and body size")
+  void shouldLogServletRequests() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+    request.addHeader("X-User-ID", "alice");
+    FilterChain chain = (req, res) -> {
+      req.setAttribute(SERVLET_ROUTE_ATTRIBUTE, "/orders");
+      ((HttpServletResponse) res).setStatus(HttpStatus.CREATED.value());
+      res.getOutputStream().write("created".getBytes(StandardCharsets.UTF_8));
+    };
+
+    new MdcPopulatingFilterServlet(new MdcLoggingContext(), RequestHeaderExtractor.defaults(),
+        accessLogger).doFilter(request, new MockHttpServletResponse(), chain);
+
+    assertThat(appender.list).singleElement().satisfies(event -> {
+      assertThat(event.getFormattedMessage())
+          .startsWith("method=POST route=/orders path=/orders status=201 bytes=7 ");
+      assertThat(event.getMDCPropertyMap()).containsEntry("userID", "alice");
+    });
+    assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+  }
+
+  @Test
+  @DisplayName("Should log servlet requests that fail as server errors")
+  void shouldLogFailedServletRequests() {
+    FilterChain chain = (req, res) -> {
+      throw new ServletException("boom");
+    };
+
+    assertThatThrownBy(() -> new MdcPopulatingFilterServlet(new MdcLoggingContext(),
+        RequestHeaderExtractor.defaults(), accessLogger)
+        .doFilter(new MockHttpServletRequest("GET", "/orders"), new MockHttpServletResponse(),
+            chain))
+        .isInstanceOf(ServletException.class);
+
+    assertThat(appender.list).singleElement().satisfies(event -> assertThat(
+        event.getFormattedMessage()).contains("route=UNKNOWN", "status=500", "bytes=-1"));
+  }
+
+  @Test
+  @DisplayName("Should log reactive requests with their context, status and body size")
+  void shouldLogReactiveRequests() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/orders/1").header("X-User-ID", "bob"));
+    WebFilterChain chain = filtered -> {
+      filtered.getResponse().setStatusCode(HttpStatus.ACCEPTED);
+      return filtered.getResponse().writeWith(Mono.just(filtered.getResponse().bufferFactory()
+          .wrap("accepted".getBytes(StandardCharsets.UTF_8))));
+    };
+
+    StepVerifier.create(new MdcPopulatingFilterReactive(new MdcLoggingContext(),
+            RequestHeaderExtractor.defaults(), accessLogger).filter(exchange, chain))
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+
+    assertThat(appender.list).singleElement().satisfies(event -> {
+      assertThat(event.getFormattedMessage())
+          .startsWith("method=GET route=UNKNOWN path=/orders/1 status=202 bytes=8 ");
+      assertThat(event.getMDCPropertyMap()).containsEntry("userID", "bob");
+    });
+    assertThat(MDC.get("userID")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should log reactive requests that fail with a status exception with its status")
+  void shouldLogReactiveErrorStatus() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/orders/404"));
+    WebFilterChain chain =
+        filtered -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+    StepVerifier.create(new MdcPopulatingFilterReactive(new MdcLoggingContext(),
+            RequestHeaderExtractor.defaults(), accessLogger).filter(exchange, chain))
+        .expectError(ResponseStatusException.class)
+        .verify(Duration.ofSeconds(5));
+
+    assertThat(appender.list).singleElement().satisfies(event -> assertThat(
+        event.getFormattedMessage()).contains("status=404"));
+    assertThat(meterRegistry.get(AccessLogger.METRIC_NAME).tags("status", "404").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should log reactive requests cancelled by the client once, as client closed")
+  void shouldLogCancelledReactiveRequests() {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/orders/slow").header("X-User-ID", "bob"));
+    WebFilterChain chain = filtered -> filtered.getResponse()
+        .writeWith(Mono.just(filtered.getResponse().bufferFactory()
+            .wrap("partial".getBytes(StandardCharsets.UTF_8))))
+        .then(Mono.never());
+
+    StepVerifier.create(new MdcPopulatingFilterReactive(new MdcLoggingContext(),
+            RequestHeaderExtractor.defaults(), accessLogger).filter(exchange, chain))
+        .expectSubscription()
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+
+    assertThat(appender.list).singleElement().satisfies(event -> {
+      assertThat(event.getFormattedMessage())
+          .startsWith("method=GET route=UNKNOWN path=/orders/slow status=499 bytes=7 ");
+      assertThat(event.getMDCPropertyMap()).containsEntry("userID", "bob");
+    });
+    assertThat(MDC.get("userID")).isNull();
+  }
+}
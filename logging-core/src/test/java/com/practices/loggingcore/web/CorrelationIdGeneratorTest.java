@@ -0,0 +1,55 @@
+package com.practices.loggingcore.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CorrelationIdGenerator")
+class CorrelationIdGeneratorTest {
+
+  private final CorrelationIdGenerator generator = new CorrelationIdGenerator();
+
+  @Test
+  @DisplayName("Should generate 26 characters of Crockford base32")
+  void shouldGenerateCrockfordBase32() {
+    assertThat(generator.generate()).hasSize(CorrelationIdGenerator.LENGTH)
+        .matches("[0-9A-HJKMNP-TV-Z]{26}");
+  }
+
+  @Test
+  @DisplayName("Should encode the time first and the random bits after it, most significant first")
+  void shouldEncodeTimeAndRandomBits() {
+    assertThat(CorrelationIdGenerator.generate(0, 0, 0)).isEqualTo("0".repeat(26));
+    assertThat(CorrelationIdGenerator.generate(1, 0, 31))
+        .isEqualTo("0000000001" + "00000000" + "0000000Z");
+    assertThat(CorrelationIdGenerator.generate((1L << 48) - 1, -1, -1))
+        .isEqualTo("7ZZZZZZZZZ" + "ZZZZZZZZ" + "ZZZZZZZZ");
+  }
+
+  @Test
+  @DisplayName("Should sort IDs of later milliseconds after earlier ones")
+  void shouldSortByTime() {
+    String earlier = CorrelationIdGenerator.generate(1_700_000_000_000L, -1, -1);
+    String later = CorrelationIdGenerator.generate(1_700_000_000_001L, 0, 0);
+
+    assertThat(earlier).isLessThan(later);
+    assertThat(generator.generate().substring(0, 10))
+        .isGreaterThanOrEqualTo(CorrelationIdGenerator.generate(1_700_000_000_000L, 0, 0)
+            .substring(0, 10));
+  }
+
+  @Test
+  @DisplayName("Should not repeat IDs generated in the same millisecond")
+  void shouldGenerateUniqueIds() {
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 10_000; i++) {
+      ids.add(generator.generate());
+    }
+
+    assertThat(ids).hasSize(10_000);
+  }
+}
@@ -0,0 +1,48 @@
+package com.practices.loggingcore.web;
+
+import com.practices.loggingcore.concurrent.LoggingContextLeakDetector;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LoggingContextLeakFilterReactive")
+class LoggingContextLeakFilterReactiveTest {
+
+  private final LoggingContextLeakDetector detector =
+      new LoggingContextLeakDetector(new MdcLoggingContext(), 1, null);
+  private final LoggingContextLeakFilterReactive filter =
+      new LoggingContextLeakFilterReactive(detector);
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should report keys left on the thread a request starts on, then run the chain")
+  void shouldReportLeakedKeysAtRequestStart() {
+    ServerWebExchange exchange = mock(ServerWebExchange.class);
+    WebFilterChain chain = mock(WebFilterChain.class);
+    when(chain.filter(exchange)).thenReturn(Mono.empty());
+    MDC.put("txnId", "t-1");
+
+    StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+    assertThat(detector.leaks())
+        .singleElement()
+        .satisfies(leak -> {
+          assertThat(leak.getKey()).isEqualTo("txnId");
+          assertThat(leak.getBoundary()).isEqualTo(LoggingContextLeakFilter.BOUNDARY);
+        });
+  }
+}
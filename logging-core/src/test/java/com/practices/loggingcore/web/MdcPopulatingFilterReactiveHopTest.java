@@ -0,0 +1,134 @@
+package com.practices.loggingcore.web;
+
+import com.practices.loggingcore.aspect.LogContextAsyncSupport;
+import com.practices.loggingcore.aspect.LogContextThreadLocalAccessor;
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.MdcLoggingContext;
+import io.micrometer.context.ContextRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MdcPopulatingFilterReactive across thread hops")
+class MdcPopulatingFilterReactiveHopTest {
+
+  private static final int REQUESTS = 500;
+
+  private final LoggingContext loggingContext = new MdcLoggingContext();
+  private final MdcPopulatingFilterReactive filter =
+      new MdcPopulatingFilterReactive(loggingContext);
+  private final Scheduler subscribeScheduler = Schedulers.newParallel("subscribe", 4);
+  private final Scheduler publishScheduler = Schedulers.newParallel("publish", 4);
+  private final Map<String, String> seen = new ConcurrentHashMap<>();
+
+  @AfterEach
+  void tearDown() {
+    subscribeScheduler.dispose();
+    publishScheduler.dispose();
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should give work after a hop the values of its own request when restored")
+  void shouldRestoreValuesOfEachRequestAfterHops() {
+    WebFilterChain chain = exchange -> Mono.just(user(exchange))
+        .subscribeOn(subscribeScheduler)
+        .publishOn(publishScheduler)
+        .handle((user, sink) -> {
+          try (var ignored =
+                   LogContextAsyncSupport.restore(sink.contextView(), loggingContext)) {
+            seen.put(user, String.valueOf(MDC.get("userID")));
+          }
+          sink.complete();
+        })
+        .then();
+
+    runConcurrently(chain);
+
+    assertThat(seen).hasSize(REQUESTS)
+        .allSatisfy((user, userId) -> assertThat(userId).isEqualTo(user));
+    assertNoValuesLeftOn(subscribeScheduler);
+    assertNoValuesLeftOn(publishScheduler);
+  }
+
+  @Test
+  @DisplayName("Should carry the values of each request through hops with automatic propagation")
+  void shouldPropagateValuesOfEachRequestAutomatically() {
+    WebFilterChain chain = exchange -> Mono.just(user(exchange))
+        .subscribeOn(subscribeScheduler)
+        .publishOn(publishScheduler)
+        .doOnNext(user -> seen.put(user, String.valueOf(MDC.get("userID"))))
+        .then();
+
+    Hooks.enableAutomaticContextPropagation();
+    try (LogContextThreadLocalAccessor ignored = LogContextThreadLocalAccessor.register(
+        ContextRegistry.getInstance(), loggingContext)) {
+      runConcurrently(chain);
+    } finally {
+      Hooks.disableAutomaticContextPropagation();
+    }
+
+    assertThat(seen).hasSize(REQUESTS)
+        .allSatisfy((user, userId) -> assertThat(userId).isEqualTo(user));
+    assertNoValuesLeftOn(subscribeScheduler);
+    assertNoValuesLeftOn(publishScheduler);
+  }
+
+  @Test
+  @DisplayName("Should expose the values to the completion delivered on another thread")
+  void shouldScopeCompletionOnAnotherThread() {
+    WebFilterChain chain = exchange -> Mono.delay(Duration.ofMillis(1), publishScheduler).then();
+    ServerWebExchange exchange = exchange("alice");
+
+    String completedWith = filter.filter(exchange, chain)
+        .then(Mono.fromCallable(() -> String.valueOf(MDC.get("userID"))))
+        .block(Duration.ofSeconds(5));
+
+    assertThat(completedWith).isEqualTo("alice");
+    assertNoValuesLeftOn(publishScheduler);
+  }
+
+  private void runConcurrently(WebFilterChain chain) {
+    Flux.range(0, REQUESTS)
+        .flatMap(i -> filter.filter(exchange("user-" + i), chain), 64)
+        .blockLast(Duration.ofSeconds(30));
+  }
+
+  private static ServerWebExchange exchange(String user) {
+    return MockServerWebExchange.from(MockServerHttpRequest.get("/orders")
+        .header("X-User-ID", user));
+  }
+
+  private static String user(ServerWebExchange exchange) {
+    return exchange.getRequest().getHeaders().getFirst("X-User-ID");
+  }
+
+  private static void assertNoValuesLeftOn(Scheduler scheduler) {
+    List<Map<String, String>> contexts = Flux.range(0, 16)
+        .flatMap(i -> Mono.fromCallable(() -> {
+          Map<String, String> context = MDC.getCopyOfContextMap();
+          return context != null ? context : Map.<String, String>of();
+        }).subscribeOn(scheduler))
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(contexts).allSatisfy(context -> assertThat(context).isEmpty());
+  }
+}
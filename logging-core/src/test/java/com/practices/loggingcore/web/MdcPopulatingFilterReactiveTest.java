@@ -1,6 +1,8 @@
 package com.practices.loggingcore.web;
 
 import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.LoggingContextImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,7 +10,9 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.server.ServerWebExchange;
@@ -16,6 +20,7 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -27,8 +32,8 @@ class MdcPopulatingFilterReactiveTest {
   private static final String HEADER_USER_ID = "X-User-ID";
   private static final String MDC_USER_ID = "userID";
 
-  @Mock
-  private LoggingContext loggingContext;
+  @Spy
+  private LoggingContext loggingContext = new LoggingContextImpl();
 
   @Mock
   private ServerWebExchange exchange;
@@ -52,6 +57,11 @@ class MdcPopulatingFilterReactiveTest {
     lenient().when(chain.filter(exchange)).thenReturn(Mono.empty());
   }
 
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
   @Test
   void shouldSetUserIdInLoggingContextWhenHeaderIsPresent() {
     String userId = "user123";
@@ -64,7 +74,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, userId);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @ParameterizedTest
@@ -81,7 +91,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext, never()).set(eq(MDC_USER_ID), any());
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext, never()).remove(anyString());
   }
 
   @Test
@@ -97,7 +107,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, userId);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -116,7 +126,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, userId);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -135,7 +145,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, userId);
     verify(chain, never()).filter(exchange); // Should not reach chain due to exception
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
     verify(chain, never()).filter(exchange);
   }
 
@@ -152,7 +162,7 @@ class MdcPopulatingFilterReactiveTest {
         .verifyComplete();
 
     verify(loggingContext).set(MDC_USER_ID, userId);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -170,7 +180,7 @@ class MdcPopulatingFilterReactiveTest {
         .verify();
 
     verify(loggingContext).set(MDC_USER_ID, userId);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -186,8 +196,10 @@ class MdcPopulatingFilterReactiveTest {
         .thenCancel()
         .verify();
 
-    verify(loggingContext).set(MDC_USER_ID, userId);
-    verify(loggingContext).clearAll();
+    // the scope is reopened around the cancellation itself
+    verify(loggingContext, times(2)).set(MDC_USER_ID, userId);
+    verify(loggingContext, times(2)).remove(MDC_USER_ID);
+    assertThat(MDC.get(MDC_USER_ID)).isNull();
   }
 
   @Test
@@ -226,7 +238,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, secondUserId);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -242,7 +254,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, userIdWithSpecialChars);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -258,11 +270,11 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, longUserId);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
-  void shouldCallClearAllExactlyOncePerExchange() {
+  void shouldRemoveUserIdExactlyOncePerExchange() {
 
     String userId = "user123";
     headers.set(HEADER_USER_ID, userId);
@@ -272,7 +284,8 @@ class MdcPopulatingFilterReactiveTest {
     StepVerifier.create(result)
         .verifyComplete();
 
-    verify(loggingContext, times(1)).clearAll();
+    verify(loggingContext, times(1)).remove(MDC_USER_ID);
+    verify(loggingContext, never()).clearAll();
   }
 
   @Test
@@ -287,7 +300,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext, never()).set(anyString(), anyString());
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext, never()).remove(anyString());
   }
 
   @Test
@@ -304,7 +317,7 @@ class MdcPopulatingFilterReactiveTest {
     var inOrder = inOrder(loggingContext, chain);
     inOrder.verify(loggingContext).set(MDC_USER_ID, userId);
     inOrder.verify(chain).filter(exchange);
-    inOrder.verify(loggingContext).clearAll();
+    inOrder.verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -320,7 +333,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, "user123"); // Should use first value
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 
   @Test
@@ -336,7 +349,7 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext, never()).set(anyString(), anyString());
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext, never()).remove(anyString());
   }
 
   @Test
@@ -357,6 +370,6 @@ class MdcPopulatingFilterReactiveTest {
 
     verify(loggingContext).set(MDC_USER_ID, userId);
     verify(chain).filter(exchange);
-    verify(loggingContext).clearAll();
+    verify(loggingContext).remove(MDC_USER_ID);
   }
 }
\ No newline at end of file
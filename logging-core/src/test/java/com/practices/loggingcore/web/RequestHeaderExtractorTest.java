@@ -0,0 +1,138 @@
+package com.practices.loggingcore.web;
+
+import com.practices.loggingcore.core.MdcLoggingContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("RequestHeaderExtractor")
+class RequestHeaderExtractorTest {
+
+  private final RequestHeaderExtractor extractor = RequestHeaderExtractor.builder()
+      .map("X-User-ID", "userID", 1024)
+      .map("X-Channel", "channel", 8)
+      .map("X-Device-ID", "deviceId", 1024)
+      .build();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should use clean values as they are, without copying them")
+  void shouldKeepCleanValues() {
+    String value = "user@domain.com|special-chars_123";
+
+    assertThat(extractor.value(0, value)).isSameAs(value);
+    assertThat(extractor.value(0, " user123 ")).isEqualTo(" user123 ");
+  }
+
+  @Test
+  @DisplayName("Should ignore missing and blank values")
+  void shouldIgnoreBlankValues() {
+    assertThat(extractor.value(0, null)).isNull();
+    assertThat(extractor.value(0, "")).isNull();
+    assertThat(extractor.value(0, " \t ")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should replace control characters and line separators")
+  void shouldReplaceControlCharacters() {
+    assertThat(extractor.value(0, "u1\r\nFAKE ERROR")).isEqualTo("u1__FAKE ERROR");
+    assertThat(extractor.value(0, "u1 x\u0000")).isEqualTo("u1_x_");
+  }
+
+  @Test
+  @DisplayName("Should cut values at the limit of their header, without splitting a surrogate pair")
+  void shouldCutLongValues() {
+    assertThat(extractor.value(1, "mobile-app-ios")).isEqualTo("mobile-a");
+    assertThat(extractor.value(1, "channel😀")).isEqualTo("channel");
+    assertThat(extractor.value(1, "web")).isEqualTo("web");
+  }
+
+  @Test
+  @DisplayName("Should reject mappings without a header, a key or a positive limit")
+  void shouldRejectInvalidMappings() {
+    RequestHeaderExtractor.Builder builder = RequestHeaderExtractor.builder();
+
+    assertThatThrownBy(() -> builder.map(" ", "userID", 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.map("X-User-ID", null, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.map("X-User-ID", "userID", 0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Should put every mapped header of a request in the logging context")
+  void shouldPopulateContextFromAllHeaders() throws Exception {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getHeader(anyString())).thenAnswer(invocation -> Map.of(
+        "X-User-ID", "user123", "X-Channel", "ussd").get(invocation.<String>getArgument(0)));
+    FilterChain chain = mock(FilterChain.class);
+    Map<String, String> seen = new HashMap<>();
+    doAnswer(invocation -> {
+      seen.putAll(MDC.getCopyOfContextMap());
+      return null;
+    }).when(chain).doFilter(any(), any());
+
+    new MdcPopulatingFilterServlet(new MdcLoggingContext(), extractor)
+        .doFilterInternal(request, mock(HttpServletResponse.class), chain);
+
+    assertThat(seen).isEqualTo(Map.of("userID", "user123", "channel", "ussd"));
+    assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+  }
+
+  @Test
+  @DisplayName("Should keep a received correlation ID and generate one for requests without it")
+  void shouldResolveCorrelationIds() {
+    RequestHeaderExtractor withCorrelationId = RequestHeaderExtractor.builder()
+        .correlationId("X-Correlation-ID", "correlationId", 8, new CorrelationIdGenerator())
+        .build();
+
+    assertThat(extractor.hasCorrelationId()).isFalse();
+    assertThat(withCorrelationId.hasCorrelationId()).isTrue();
+    assertThat(withCorrelationId.correlationId("abc\r\n")).isEqualTo("abc__");
+    assertThat(withCorrelationId.correlationId("0123456789")).isEqualTo("01234567");
+    assertThat(withCorrelationId.correlationId(null)).hasSize(CorrelationIdGenerator.LENGTH);
+    assertThat(withCorrelationId.correlationId(" ")).hasSize(CorrelationIdGenerator.LENGTH);
+  }
+
+  @Test
+  @DisplayName("Should put the correlation ID in the logging context and echo it in the response")
+  void shouldEchoCorrelationId() throws Exception {
+    RequestHeaderExtractor withCorrelationId = RequestHeaderExtractor.builder()
+        .correlationId("X-Correlation-ID", "correlationId", 64, new CorrelationIdGenerator())
+        .build();
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    FilterChain chain = mock(FilterChain.class);
+    Map<String, String> seen = new HashMap<>();
+    doAnswer(invocation -> {
+      seen.putAll(MDC.getCopyOfContextMap());
+      return null;
+    }).when(chain).doFilter(any(), any());
+
+    new MdcPopulatingFilterServlet(new MdcLoggingContext(), withCorrelationId)
+        .doFilterInternal(mock(HttpServletRequest.class), response, chain);
+
+    assertThat(seen.get("correlationId")).hasSize(CorrelationIdGenerator.LENGTH);
+    verify(response).setHeader("X-Correlation-ID", seen.get("correlationId"));
+  }
+}
@@ -0,0 +1,75 @@
+package com.practices.loggingcore.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TraceHeaderParser")
+class TraceHeaderParserTest {
+
+  private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+  private static final String SPAN_ID = "00f067aa0ba902b7";
+
+  @Test
+  @DisplayName("Should read the IDs of a traceparent header")
+  void shouldParseTraceparent() {
+    assertThat(parse(Map.of("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-01")))
+        .isEqualTo(ids(TRACE_ID, SPAN_ID));
+    assertThat(parse(Map.of("traceparent", "01-" + TRACE_ID + "-" + SPAN_ID + "-00-extra")))
+        .isEqualTo(ids(TRACE_ID, SPAN_ID));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra",
+      "00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01",
+      "00-00000000000000000000000000000000-00f067aa0ba902b7-01",
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01",
+      "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+      "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-0g",
+      "00_4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+      "00-4bf92f3577b34da6a3ce929d0e0e473-600f067aa0ba902b7-01",
+      "garbage"})
+  @DisplayName("Should ignore invalid traceparent headers")
+  void shouldRejectInvalidTraceparent(String traceparent) {
+    assertThat(parse(Map.of("traceparent", traceparent))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should read the IDs of a B3 single header with a 64 or 128-bit trace ID")
+  void shouldParseB3Single() {
+    assertThat(parse(Map.of("b3", TRACE_ID + "-" + SPAN_ID + "-1-05e3ac9a4f6e3b90")))
+        .isEqualTo(ids(TRACE_ID, SPAN_ID));
+    assertThat(parse(Map.of("b3", "a3ce929d0e0e4736-" + SPAN_ID)))
+        .isEqualTo(ids("a3ce929d0e0e4736", SPAN_ID));
+    assertThat(parse(Map.of("b3", "1"))).isEmpty();
+    assertThat(parse(Map.of("b3", TRACE_ID + "-" + SPAN_ID + "1"))).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should read the IDs of B3 multi headers, after traceparent and b3")
+  void shouldParseB3Multi() {
+    assertThat(parse(Map.of("X-B3-TraceId", TRACE_ID, "X-B3-SpanId", SPAN_ID)))
+        .isEqualTo(ids(TRACE_ID, SPAN_ID));
+    assertThat(parse(Map.of("X-B3-TraceId", TRACE_ID))).isEmpty();
+    assertThat(parse(Map.of("traceparent", "00-" + TRACE_ID + "-" + SPAN_ID + "-01",
+        "X-B3-TraceId", "a3ce929d0e0e4736", "X-B3-SpanId", "e457b5a2e4d86bd1")))
+        .isEqualTo(ids(TRACE_ID, SPAN_ID));
+  }
+
+  private static Map<String, String> parse(Map<String, String> headers) {
+    Map<String, String> values = new HashMap<>();
+    TraceHeaderParser.parse(headers::get, values::put);
+    return values;
+  }
+
+  private static Map<String, String> ids(String traceId, String spanId) {
+    return Map.of(TraceHeaderParser.TRACE_ID_KEY, traceId, TraceHeaderParser.SPAN_ID_KEY, spanId);
+  }
+}
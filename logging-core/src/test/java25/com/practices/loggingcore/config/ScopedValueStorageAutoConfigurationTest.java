@@ -0,0 +1,68 @@
+package com.practices.loggingcore.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.practices.loggingcore.core.LoggingContext;
+import com.practices.loggingcore.core.ScopedValueLoggingContext;
+import com.practices.loggingcore.core.ScopedValueMdcFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+@DisplayName("CoreLoggingAutoConfiguration - scoped-value storage on Java 25")
+class ScopedValueStorageAutoConfigurationTest {
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(CoreLoggingAutoConfiguration.class));
+
+  @Test
+  @DisplayName("should give events logged inside a scope the scoped values")
+  void shouldInstallScopedValueFilter() {
+    assertScopedValuesLogged("log-manager.context.storage=scoped-value");
+  }
+
+  @Test
+  @DisplayName("should install the scoped-value filter when auto storage picks scoped values")
+  void shouldInstallScopedValueFilterForAutoStorage() {
+    assertScopedValuesLogged("spring.threads.virtual.enabled=true");
+  }
+
+  @Test
+  @DisplayName("should not install the scoped-value filter with the default storage")
+  void shouldNotInstallScopedValueFilterByDefault() {
+    this.contextRunner.run(context ->
+        assertThat(context).doesNotHaveBean(ScopedValueMdcFilter.class));
+  }
+
+  private void assertScopedValuesLogged(String property) {
+    Logger logger =
+        (Logger) LoggerFactory.getLogger(ScopedValueStorageAutoConfigurationTest.class);
+    ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    appender.start();
+    logger.addAppender(appender);
+    try {
+      this.contextRunner
+          .withPropertyValues(property)
+          .run(context -> {
+            assertThat(context).hasSingleBean(ScopedValueMdcFilter.class);
+            LoggingContext loggingContext = context.getBean(LoggingContext.class);
+            assertThat(loggingContext).isInstanceOf(ScopedValueLoggingContext.class);
+
+            ((ScopedValueLoggingContext) loggingContext).runInScope(() -> {
+              loggingContext.set("userID", "alice");
+              logger.info("Inside the scope");
+            });
+          });
+    } finally {
+      logger.detachAppender(appender);
+    }
+
+    assertThat(appender.list).singleElement()
+        .satisfies(event -> assertThat(event.getMDCPropertyMap()).containsEntry("userID", "alice"));
+  }
+}
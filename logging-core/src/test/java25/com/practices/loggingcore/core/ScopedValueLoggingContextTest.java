@@ -0,0 +1,149 @@
+package com.practices.loggingcore.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@DisplayName("ScopedValueLoggingContext - scoped values on virtual threads")
+class ScopedValueLoggingContextTest {
+
+  private final ScopedValueLoggingContext loggingContext = new ScopedValueLoggingContext();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("set() inside a scope should not touch the MDC and should end with the scope")
+  void set_shouldStayInScope() {
+    AtomicReference<String> seen = new AtomicReference<>();
+
+    loggingContext.runInScope(() -> {
+      loggingContext.set("userID", "alice");
+      seen.set(loggingContext.get("userID"));
+      assertThat(MDC.get("userID")).isNull();
+    });
+
+    assertThat(seen.get()).isEqualTo("alice");
+    assertThat(loggingContext.get("userID")).isNull();
+    assertThat(ScopedValueLoggingContext.currentValues()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("runInScope() should see the enclosing values without changing them")
+  void runInScope_shouldInheritEnclosingValues() {
+    loggingContext.runInScope(() -> {
+      loggingContext.set("tenant", "acme");
+      loggingContext.runInScope(() -> {
+        loggingContext.set("userID", "alice");
+        assertThat(ScopedValueLoggingContext.currentValues())
+            .isEqualTo(Map.of("tenant", "acme", "userID", "alice"));
+      });
+      assertThat(ScopedValueLoggingContext.currentValues()).isEqualTo(Map.of("tenant", "acme"));
+    });
+  }
+
+  @Test
+  @DisplayName("A forked subtask should see the values of its parent but keep its writes")
+  void fork_shouldNotChangeParentOrSiblings() throws Exception {
+    AtomicReference<Map<String, String>> written = new AtomicReference<>();
+    AtomicReference<Map<String, String>> sibling = new AtomicReference<>();
+    AtomicReference<Map<String, String>> parent = new AtomicReference<>();
+    CountDownLatch write = new CountDownLatch(1);
+
+    loggingContext.runInScope(() -> {
+      loggingContext.set("tenant", "acme");
+      try (var scope = StructuredTaskScope.open()) {
+        scope.fork(() -> {
+          loggingContext.set("userID", "alice");
+          written.set(ScopedValueLoggingContext.currentValues());
+          write.countDown();
+          return null;
+        });
+        scope.fork(() -> {
+          write.await();
+          sibling.set(ScopedValueLoggingContext.currentValues());
+          return null;
+        });
+        scope.join();
+      }
+      parent.set(ScopedValueLoggingContext.currentValues());
+    });
+
+    assertThat(written.get()).isEqualTo(Map.of("tenant", "acme", "userID", "alice"));
+    assertThat(sibling.get()).isEqualTo(Map.of("tenant", "acme"));
+    assertThat(parent.get()).isEqualTo(Map.of("tenant", "acme"));
+  }
+
+  @Test
+  @DisplayName("Outside of a scope every call should fall back to the MDC")
+  void shouldFallBackToMdcOutsideOfScope() {
+    loggingContext.set("userID", "alice");
+
+    assertThat(MDC.get("userID")).isEqualTo("alice");
+    assertThat(loggingContext.capture().asMap()).isEqualTo(Map.of("userID", "alice"));
+  }
+
+  @Test
+  @DisplayName("Each virtual thread should only see the values of its own scope")
+  void shouldIsolateVirtualThreads() throws Exception {
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      var first = executor.submit(() -> userIdInScope("alice"));
+      var second = executor.submit(() -> userIdInScope("bob"));
+
+      assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("alice");
+      assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("bob");
+    }
+  }
+
+  @Test
+  @DisplayName("ScopedValueMdcFilter should add the scoped values to the event's MDC map")
+  void filter_shouldAddScopedValuesToEvent() {
+    LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    Logger logger = loggerContext.getLogger(ScopedValueLoggingContextTest.class);
+    ScopedValueMdcFilter filter = new ScopedValueMdcFilter();
+    filter.setContext(loggerContext);
+    filter.start();
+    MDC.put("requestId", "r-1");
+    AtomicReference<ILoggingEvent> event = new AtomicReference<>();
+
+    loggingContext.runInScope(() -> {
+      loggingContext.set("userID", "alice");
+      LoggingEvent loggingEvent =
+          new LoggingEvent(Logger.FQCN, logger, Level.INFO, "Hello", null, null);
+      filter.decide(loggingEvent);
+      event.set(loggingEvent);
+    });
+
+    assertThat(event.get().getMDCPropertyMap())
+        .isEqualTo(Map.of("requestId", "r-1", "userID", "alice"));
+  }
+
+  private String userIdInScope(String userId) throws InterruptedException {
+    AtomicReference<String> seen = new AtomicReference<>();
+    loggingContext.runInScope(() -> {
+      loggingContext.set("userID", userId);
+      Thread.sleep(20);
+      seen.set(loggingContext.get("userID"));
+    });
+    return seen.get();
+  }
+}
@@ -0,0 +1,384 @@
+package com.practices.loggingprocessor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates SpEL-free extractors for {@code @LogContext} declarations.
+ *
+ * <p>For every class that carries {@code @LogContext} on the class or on one of its methods, the
+ * processor translates each entry whose expression is a plain parameter reference or property
+ * path, such as {@code #id} or {@code #user.address.city}, into a lambda that calls the getters
+ * directly. The lambdas are collected in a generated {@code <Class>_LogContextExtractors} class in
+ * the same package, which the aspect picks up at runtime. Properties are resolved the way SpEL
+ * resolves them: a public {@code getX()} method, then a public {@code isX()} method returning a
+ * boolean, then a public record-style {@code x()} accessor, then a public field. Entries that use any other SpEL feature,
+ * or whose types or members are not accessible from the generated class, are skipped and keep
+ * being evaluated by SpEL.
+ *
+ * <p>The annotation is matched by name, so the processor has no dependency on
+ * {@code logging-core}; the generated code does.
+ */
+@SupportedAnnotationTypes(LogContextExtractorProcessor.LOG_CONTEXT_ANNOTATION)
+public class LogContextExtractorProcessor extends AbstractProcessor {
+
+  static final String LOG_CONTEXT_ANNOTATION = "com.practices.loggingcore.annotation.LogContext";
+
+  private static final String EXTRACTORS_INTERFACE =
+      "com.practices.loggingcore.aspect.LogContextExtractors";
+  private static final String EXTRACTOR_INTERFACE =
+      "com.practices.loggingcore.aspect.LogContextExtractor";
+  private static final String CLASS_NAME_SUFFIX = "_LogContextExtractors";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    final Set<TypeElement> types = new LinkedHashSet<>();
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.METHOD) {
+          element = element.getEnclosingElement();
+        }
+        if ((element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.RECORD
+            || element.getKind() == ElementKind.ENUM) && isNamed((TypeElement) element)) {
+          types.add((TypeElement) element);
+        }
+      }
+    }
+
+    for (TypeElement type : types) {
+      final Map<String, String> cases = collectCases(type);
+      if (!cases.isEmpty()) {
+        writeExtractors(type, cases);
+      }
+    }
+    return false;
+  }
+
+  /** Local and anonymous classes cannot be referenced from the generated class. */
+  private static boolean isNamed(TypeElement type) {
+    Element element = type;
+    while (element.getKind() != ElementKind.PACKAGE) {
+      final NestingKind nesting = ((TypeElement) element).getNestingKind();
+      if (nesting != NestingKind.TOP_LEVEL && nesting != NestingKind.MEMBER) {
+        return false;
+      }
+      element = element.getEnclosingElement();
+    }
+    return true;
+  }
+
+  private Map<String, String> collectCases(TypeElement type) {
+    final List<String> classExpressions = findExpressions(type);
+    final Map<String, String> cases = new LinkedHashMap<>();
+
+    for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (method.getModifiers().contains(Modifier.STATIC)
+          || method.getModifiers().contains(Modifier.PRIVATE)) {
+        continue;
+      }
+      List<String> expressions = findExpressions(method);
+      if (expressions == null) {
+        expressions = classExpressions;
+      }
+      if (expressions == null) {
+        continue;
+      }
+
+      final String signature = signature(method);
+      for (String declaration : expressions) {
+        final int index = declaration.indexOf('=');
+        if (index == -1) {
+          continue;
+        }
+        final String source = declaration.substring(index + 1).trim();
+        final String code = translate(source, method, type);
+        if (code != null) {
+          cases.putIfAbsent(signature + ' ' + source, code);
+        }
+      }
+    }
+    return cases;
+  }
+
+  private static List<String> findExpressions(Element element) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      final TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+      if (!annotationType.getQualifiedName().contentEquals(LOG_CONTEXT_ANNOTATION)) {
+        continue;
+      }
+      final List<String> expressions = new ArrayList<>();
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+          : mirror.getElementValues().entrySet()) {
+        if (value.getKey().getSimpleName().contentEquals("expressions")) {
+          for (Object item : (List<?>) value.getValue().getValue()) {
+            expressions.add((String) ((AnnotationValue) item).getValue());
+          }
+        }
+      }
+      return expressions;
+    }
+    return null;
+  }
+
+  /**
+   * Translates a SpEL expression into a Java expression over {@code args}, or returns null if it
+   * is not a simple parameter reference or property path.
+   */
+  private String translate(String source, ExecutableElement method, TypeElement owner) {
+    if (!source.startsWith("#")) {
+      return null;
+    }
+    final String[] segments = source.substring(1).split("\\.", -1);
+    for (String segment : segments) {
+      if (!SourceVersion.isIdentifier(segment) || SourceVersion.isKeyword(segment)) {
+        return null;
+      }
+    }
+    if (segments[0].equals("root") || segments[0].equals("this")) {
+      return null;
+    }
+
+    final List<? extends VariableElement> parameters = method.getParameters();
+    int position = -1;
+    for (int i = 0; i < parameters.size(); i++) {
+      if (parameters.get(i).getSimpleName().contentEquals(segments[0])) {
+        position = i;
+        break;
+      }
+    }
+    if (position == -1) {
+      return null;
+    }
+
+    final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(owner);
+    TypeMirror type = erasure(parameters.get(position).asType());
+    if (segments.length == 1) {
+      return "args[" + position + "]";
+    }
+    if (type.getKind() != TypeKind.DECLARED || !isAccessible(type, pkg)) {
+      return null;
+    }
+
+    final StringBuilder code = new StringBuilder()
+        .append("((").append(typeName(type)).append(") args[").append(position).append("])");
+    for (int i = 1; i < segments.length; i++) {
+      if (type.getKind() != TypeKind.DECLARED || !isAccessible(type, pkg)) {
+        return null;
+      }
+      final TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+      final Element member = findProperty(typeElement, segments[i]);
+      if (member == null) {
+        return null;
+      }
+      if (member.getKind() == ElementKind.METHOD) {
+        code.append('.').append(member.getSimpleName()).append("()");
+        type = erasure(((ExecutableElement) member).getReturnType());
+      } else {
+        code.append('.').append(member.getSimpleName());
+        type = erasure(member.asType());
+      }
+    }
+    return code.toString();
+  }
+
+  private Element findProperty(TypeElement type, String property) {
+    final String suffix = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+    final List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(type);
+    final List<ExecutableElement> methods = ElementFilter.methodsIn(members);
+
+    ExecutableElement getter = findGetter(methods, "get" + suffix, false);
+    if (getter == null) {
+      getter = findGetter(methods, "is" + suffix, true);
+    }
+    if (getter == null) {
+      getter = findGetter(methods, property, false);
+    }
+    if (getter != null) {
+      return getter;
+    }
+
+    for (VariableElement field : ElementFilter.fieldsIn(members)) {
+      if (field.getSimpleName().contentEquals(property)
+          && field.getModifiers().contains(Modifier.PUBLIC)
+          && !field.getModifiers().contains(Modifier.STATIC)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  private ExecutableElement findGetter(
+      List<ExecutableElement> methods, String name, boolean booleanOnly) {
+    for (ExecutableElement method : methods) {
+      if (!method.getSimpleName().contentEquals(name)
+          || !method.getParameters().isEmpty()
+          || !method.getModifiers().contains(Modifier.PUBLIC)
+          || method.getModifiers().contains(Modifier.STATIC)
+          || method.getReturnType().getKind() == TypeKind.VOID
+          || throwsCheckedException(method)) {
+        continue;
+      }
+      if (booleanOnly && !isBoolean(method.getReturnType())) {
+        continue;
+      }
+      return method;
+    }
+    return null;
+  }
+
+  private boolean isBoolean(TypeMirror type) {
+    if (type.getKind() == TypeKind.BOOLEAN) {
+      return true;
+    }
+    return type.getKind() == TypeKind.DECLARED
+        && ((TypeElement) ((DeclaredType) type).asElement())
+            .getQualifiedName().contentEquals("java.lang.Boolean");
+  }
+
+  private boolean throwsCheckedException(ExecutableElement method) {
+    final TypeMirror runtimeException = processingEnv.getElementUtils()
+        .getTypeElement("java.lang.RuntimeException").asType();
+    final TypeMirror error = processingEnv.getElementUtils()
+        .getTypeElement("java.lang.Error").asType();
+    for (TypeMirror thrown : method.getThrownTypes()) {
+      if (!processingEnv.getTypeUtils().isSubtype(thrown, runtimeException)
+          && !processingEnv.getTypeUtils().isSubtype(thrown, error)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+    if (type.getKind().isPrimitive()) {
+      return true;
+    }
+    if (type.getKind() == TypeKind.ARRAY) {
+      return isAccessible(((ArrayType) type).getComponentType(), pkg);
+    }
+    if (type.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    Element element = ((DeclaredType) type).asElement();
+    while (element != null && element.getKind() != ElementKind.PACKAGE) {
+      if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      if (!element.getModifiers().contains(Modifier.PUBLIC)
+          && !processingEnv.getElementUtils().getPackageOf(element).equals(pkg)) {
+        return false;
+      }
+      element = element.getEnclosingElement();
+    }
+    return true;
+  }
+
+  private TypeMirror erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type);
+  }
+
+  private String signature(ExecutableElement method) {
+    final StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+    final List<? extends VariableElement> parameters = method.getParameters();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        signature.append(',');
+      }
+      signature.append(typeName(erasure(parameters.get(i).asType())));
+    }
+    return signature.append(')').toString();
+  }
+
+  /** Returns the canonical name of an erased type, matching {@code Class#getCanonicalName()}. */
+  private String typeName(TypeMirror type) {
+    switch (type.getKind()) {
+      case ARRAY:
+        return typeName(((ArrayType) type).getComponentType()) + "[]";
+      case DECLARED:
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+      default:
+        return type.getKind().isPrimitive()
+            ? type.getKind().name().toLowerCase(Locale.ROOT)
+            : erasure(type).toString();
+    }
+  }
+
+  private void writeExtractors(TypeElement type, Map<String, String> cases) {
+    final String packageName =
+        processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    final String className = generatedSimpleName(type);
+    final String qualifiedName = packageName.isEmpty() ? className : packageName + '.' + className;
+
+    final StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("@javax.annotation.processing.Generated(\"")
+        .append(LogContextExtractorProcessor.class.getName()).append("\")\n")
+        .append("public final class ").append(className)
+        .append(" implements ").append(EXTRACTORS_INTERFACE).append(" {\n\n")
+        .append("  @Override\n")
+        .append("  public ").append(EXTRACTOR_INTERFACE)
+        .append(" find(String method, String expression) {\n")
+        .append("    switch (method + ' ' + expression) {\n");
+    for (Map.Entry<String, String> entry : cases.entrySet()) {
+      source.append("      case \"").append(entry.getKey()).append("\":\n")
+          .append("        return args -> ").append(entry.getValue()).append(";\n");
+    }
+    source.append("      default:\n")
+        .append("        return null;\n")
+        .append("    }\n")
+        .append("  }\n")
+        .append("}\n");
+
+    try (Writer writer =
+             processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+      writer.write(source.toString());
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not generate " + qualifiedName + ": " + e.getMessage(), type);
+    }
+  }
+
+  private static String generatedSimpleName(TypeElement type) {
+    final StringBuilder name = new StringBuilder(type.getSimpleName());
+    Element enclosing = type.getEnclosingElement();
+    while (enclosing.getKind() != ElementKind.PACKAGE) {
+      name.insert(0, '_').insert(0, enclosing.getSimpleName());
+      enclosing = enclosing.getEnclosingElement();
+    }
+    return name.append(CLASS_NAME_SUFFIX).toString();
+  }
+}
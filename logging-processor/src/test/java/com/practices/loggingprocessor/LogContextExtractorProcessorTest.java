@@ -0,0 +1,123 @@
+package com.practices.loggingprocessor;
+
+import com.practices.loggingcore.annotation.LogContext;
+import com.practices.loggingcore.aspect.LogContextExtractors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogContextExtractorProcessor - generated SpEL-free extractors")
+class LogContextExtractorProcessorTest {
+
+  private static final String SIGNATURE = "process(java.lang.String,sample.OrderService.Customer,long)";
+
+  private static final String SOURCE = """
+      package sample;
+
+      import com.practices.loggingcore.annotation.LogContext;
+
+      public class OrderService {
+
+        public record Customer(String name, boolean vip, Address address) {}
+
+        public static class Address {
+          public String city;
+
+          public String getCountry() {
+            return "ET";
+          }
+        }
+
+        @LogContext(expressions = {
+            "orderId=#id",
+            "customer=#customer.name",
+            "vip=#customer.vip",
+            "city=#customer.address.city",
+            "country=#customer.address.country",
+            "amount=#amount",
+            "upper=#id.toUpperCase()",
+            "literal='constant'",
+            "missing=#nope.value"
+        })
+        public void process(String id, Customer customer, long amount) {
+        }
+      }
+      """;
+
+  @TempDir
+  Path tempDir;
+
+  private LogContextExtractors extractors;
+  private Object[] args;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Path sources = Files.createDirectories(tempDir.resolve("src/sample"));
+    Path classes = Files.createDirectories(tempDir.resolve("classes"));
+    Files.writeString(sources.resolve("OrderService.java"), SOURCE);
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+          List.of("-d", classes.toString(), "-classpath", classpathOf(LogContext.class)),
+          null, fileManager.getJavaFileObjects(sources.resolve("OrderService.java").toFile()));
+      task.setProcessors(List.of(new LogContextExtractorProcessor()));
+      assertThat(task.call()).isTrue();
+    }
+
+    URLClassLoader classLoader = new URLClassLoader(
+        new URL[] {classes.toUri().toURL()}, getClass().getClassLoader());
+    extractors = (LogContextExtractors) classLoader
+        .loadClass("sample.OrderService" + LogContextExtractors.CLASS_NAME_SUFFIX)
+        .getDeclaredConstructor()
+        .newInstance();
+
+    Class<?> customerType = classLoader.loadClass("sample.OrderService$Customer");
+    Class<?> addressType = classLoader.loadClass("sample.OrderService$Address");
+    Object address = addressType.getDeclaredConstructor().newInstance();
+    addressType.getField("city").set(address, "Addis Ababa");
+    Object customer = customerType
+        .getDeclaredConstructor(String.class, boolean.class, addressType)
+        .newInstance("Alice", true, address);
+    args = new Object[] {"order-1", customer, 42L};
+  }
+
+  @Test
+  @DisplayName("should translate parameter references and property paths")
+  void shouldTranslateSimplePaths() {
+    assertThat(extractors.find(SIGNATURE, "#id").extract(args)).isEqualTo("order-1");
+    assertThat(extractors.find(SIGNATURE, "#customer.name").extract(args)).isEqualTo("Alice");
+    assertThat(extractors.find(SIGNATURE, "#customer.vip").extract(args)).isEqualTo(true);
+    assertThat(extractors.find(SIGNATURE, "#customer.address.city").extract(args))
+        .isEqualTo("Addis Ababa");
+    assertThat(extractors.find(SIGNATURE, "#customer.address.country").extract(args))
+        .isEqualTo("ET");
+    assertThat(extractors.find(SIGNATURE, "#amount").extract(args)).isEqualTo(42L);
+  }
+
+  @Test
+  @DisplayName("should leave anything other than a simple path to SpEL")
+  void shouldSkipUnsupportedExpressions() {
+    assertThat(extractors.find(SIGNATURE, "#id.toUpperCase()")).isNull();
+    assertThat(extractors.find(SIGNATURE, "'constant'")).isNull();
+    assertThat(extractors.find(SIGNATURE, "#nope.value")).isNull();
+    assertThat(extractors.find("other(java.lang.String)", "#id")).isNull();
+  }
+
+  private static String classpathOf(Class<?> type) throws Exception {
+    return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+  }
+}